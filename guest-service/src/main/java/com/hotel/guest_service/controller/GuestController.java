@@ -1,5 +1,6 @@
 package com.hotel.guest_service.controller;
 
+import com.hotel.guest_service.dto.GuestChange;
 import com.hotel.guest_service.dto.GuestRequest;
 import com.hotel.guest_service.dto.GuestResponse;
 import com.hotel.guest_service.service.GuestService;
@@ -7,10 +8,13 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/guests")
@@ -49,6 +53,22 @@ public class GuestController {
         return ResponseEntity.ok(guestResponse);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Get Guests By IDs", description = "Resolves a set of guest IDs in one call. Unknown IDs are skipped.")
+    public ResponseEntity<List<GuestResponse>> getByIds(@RequestBody Set<Long> ids) {
+        log.info("Fetching {} guests by ID.", ids.size());
+        return ResponseEntity.ok(guestService.getGuestsByIds(ids));
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Guest Change Feed", description = "Guests changed at or after the given time, oldest first.")
+    public ResponseEntity<List<GuestChange>> getChanges(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.debug("Fetching up to {} guest changes since {}", limit, since);
+        return ResponseEntity.ok(guestService.getGuestChangesSince(since, Math.min(Math.max(limit, 1), 1000)));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         log.warn("Deleting guest with ID: {}", id);
@@ -0,0 +1,21 @@
+package com.hotel.guest_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entry of the guest change feed: the fields other services copy from a guest profile,
+ * and when it last changed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GuestChange {
+    private Long id;
+    private String name;
+    private String email;
+    private LocalDateTime updatedAt;
+}
@@ -1,8 +1,12 @@
 package com.hotel.guest_service.repository;
 
 import com.hotel.guest_service.entity.Guest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -10,4 +14,7 @@ public interface GuestRepository extends JpaRepository<Guest, Long> {
     Optional<Guest> findByEmail(String email);
     Optional<Guest> findByMemberCode(String memberCode);
     boolean existsByEmail(String email);
+
+    // Change feed, a range scan on idx_guest_updated_at; the Pageable only carries the limit.
+    List<Guest> findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(LocalDateTime since, Pageable limit);
 }
\ No newline at end of file
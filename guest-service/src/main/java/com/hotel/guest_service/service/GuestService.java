@@ -1,13 +1,17 @@
 package com.hotel.guest_service.service;
 
+import com.hotel.guest_service.dto.GuestChange;
 import com.hotel.guest_service.dto.GuestRequest;
 import com.hotel.guest_service.dto.GuestResponse;
 import com.hotel.guest_service.entity.Guest;
 import com.hotel.guest_service.exception.GuestNotFoundException;
 import com.hotel.guest_service.repository.GuestRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -57,6 +61,26 @@ public class GuestService {
         return mapToGuestResponse(guest);
     }
 
+    public List<GuestResponse> getGuestsByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return guestRepository.findAllById(ids).stream()
+                .map(this::mapToGuestResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Guests changed at or after the given time, oldest first. Callers resume from the last
+     * updatedAt they saw; entries sharing that timestamp come back again, so applying them
+     * must be idempotent.
+     */
+    public List<GuestChange> getGuestChangesSince(LocalDateTime since, int limit) {
+        return guestRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(since, PageRequest.of(0, limit)).stream()
+                .map(guest -> new GuestChange(guest.getId(), guest.getName(), guest.getEmail(), guest.getUpdatedAt()))
+                .collect(Collectors.toList());
+    }
+
     public GuestResponse getGuestByMemberCode(String memberCode) {
         Guest guest = guestRepository.findByMemberCode(memberCode)
                 .orElseThrow(() -> new GuestNotFoundException("Guest not found with member code: " + memberCode));
@@ -12,6 +12,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
@@ -81,4 +82,18 @@ class GuestControllerTest {
         mockMvc.perform(delete("/api/guests/3"))
                 .andExpect(status().isNoContent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGetGuestsByIds() throws Exception {
+        when(guestService.getGuestsByIds(Set.of(1L, 2L))).thenReturn(List.of(
+                new GuestResponse(1L, "MBR-1", "Alice", "alice@mail.com", null, null, null, null),
+                new GuestResponse(2L, "MBR-2", "Bob", "bob@mail.com", null, null, null, null)
+        ));
+
+        mockMvc.perform(post("/api/guests/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+}
@@ -1,5 +1,6 @@
 package com.hotel.guest_service.service;
 
+import com.hotel.guest_service.dto.GuestChange;
 import com.hotel.guest_service.dto.GuestRequest;
 import com.hotel.guest_service.dto.GuestResponse;
 import com.hotel.guest_service.entity.Guest;
@@ -12,6 +13,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -177,4 +179,30 @@ class GuestServiceTest {
 
         assertThrows(GuestNotFoundException.class, () -> guestService.getGuestByMemberCode("NON-EXIST"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGetGuestsByIdsInOneQuery() {
+        Guest first = Guest.builder().id(1L).name("Ravi").email("ravi@mail.com").build();
+        Guest second = Guest.builder().id(2L).name("Asha").email("asha@mail.com").build();
+        when(guestRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(first, second));
+
+        List<GuestResponse> guests = guestService.getGuestsByIds(Set.of(1L, 2L));
+
+        assertEquals(2, guests.size());
+        verify(guestRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void shouldReturnGuestChangesSince() {
+        LocalDateTime since = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Guest changed = Guest.builder().id(1L).name("Ravi K").email("ravi@mail.com").updatedAt(since.plusMinutes(5)).build();
+        when(guestRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(eq(since), any()))
+                .thenReturn(List.of(changed));
+
+        List<GuestChange> changes = guestService.getGuestChangesSince(since, 100);
+
+        assertEquals(1, changes.size());
+        assertEquals("Ravi K", changes.get(0).getName());
+        assertEquals(since.plusMinutes(5), changes.get(0).getUpdatedAt());
+    }
+}
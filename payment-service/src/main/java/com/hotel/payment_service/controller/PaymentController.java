@@ -20,12 +20,14 @@ public class PaymentController {
     private final PaymentService paymentService;
 
     @PostMapping("/create")
-    public ResponseEntity<Map<String, String>> createOrder(@RequestParam int amount) {
+    public ResponseEntity<Map<String, String>> createOrder(
+            @RequestParam int amount,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         if (amount <= 0) {
             return ResponseEntity.badRequest().body(Map.of("error", "Amount must be greater than 0"));
         }
 
-        return ResponseEntity.ok(paymentService.createPaymentOrder(amount));
+        return ResponseEntity.ok(paymentService.createPaymentOrder(amount, idempotencyKey));
     }
 
 //    @PostMapping("/confirm")
@@ -0,0 +1,51 @@
+package com.hotel.payment_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a request made with an Idempotency-Key. The row is inserted before the request
+ * runs, so a concurrent retry with the same key fails on the primary key; responseBody stays
+ * null until the request has completed. A pending row is leased until pendingUntil: if its
+ * request never completes, e.g. because the instance died, a retry takes the row over after that.
+ */
+@Entity
+@Table(name = "idempotency_record",
+        indexes = @Index(name = "idx_idempotency_record_created", columnList = "createdAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord implements Persistable<String> {
+    // SHA-256 of scope and key, so client keys of any length fit a fixed-size primary key
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(length = 64)
+    private String requestHash;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    private LocalDateTime createdAt;
+
+    // Null once completed
+    private LocalDateTime pendingUntil;
+
+    // Records are only inserted once and completed through an update query
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
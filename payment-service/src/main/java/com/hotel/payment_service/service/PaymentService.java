@@ -8,6 +8,8 @@ import java.util.Map;
 
 public interface PaymentService {
     Map<String, String> createPaymentOrder(int amount);
+    // A retry with the same Idempotency-Key returns the original order instead of creating another
+    Map<String, String> createPaymentOrder(int amount, String idempotencyKey);
     boolean confirmPayment(String orderId, String paymentId, String razorpaySign);
 
     List<Payment> getAllPayments();
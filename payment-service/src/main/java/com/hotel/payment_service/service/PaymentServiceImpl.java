@@ -6,6 +6,7 @@ import com.hotel.payment_service.exception.InvalidPaymentException;
 import com.hotel.payment_service.exception.PaymentNotFoundException;
 import com.hotel.payment_service.repository.PaymentRepository;
 import com.hotel.payment_service.utils.Util;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.razorpay.Order;
 import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
@@ -25,6 +26,7 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final RazorpayClient razorpayClient;
     private final PaymentRepository paymentRepository;
+    private final IdempotencyStore idempotencyStore;
     final RazorpayConfig razorpayConfig;
 
     @Value("${razorpay.key.id}")
@@ -70,6 +72,13 @@ public class PaymentServiceImpl implements PaymentService {
         }
     }
 
+    @Override
+    public Map<String, String> createPaymentOrder(int amount, String idempotencyKey) {
+        return idempotencyStore.execute("payments", idempotencyKey, Map.of("amount", amount),
+                new TypeReference<>() {
+                }, () -> createPaymentOrder(amount));
+    }
+
     @Override
     public boolean confirmPayment(String orderId, String paymentId, String razorpaySign) {
         String payload = orderId + '|' + paymentId;
@@ -1,14 +1,28 @@
 package com.hotel.reservation_service.client;
 
+import com.hotel.reservation_service.dto.GuestChange;
 import com.hotel.reservation_service.dto.GuestResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+import java.util.Set;
 
 @FeignClient(name = "guest-service")
 public interface GuestClient {
     @GetMapping("/api/guests/{id}")
     GuestResponse getGuestById(@PathVariable Long id);
+
+    @PostMapping("/api/guests/batch")
+    List<GuestResponse> getGuestsByIds(@RequestBody Set<Long> ids);
+
+    // since is an ISO-8601 local date-time, formatted by the caller rather than by Feign's date formatting
+    @GetMapping("/api/guests/changes")
+    List<GuestChange> getGuestChanges(@RequestParam("since") String since, @RequestParam("limit") int limit);
 }
 
 
@@ -5,6 +5,7 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @FeignClient(name = "room-service/api")
 public interface RoomClient {
@@ -14,7 +15,16 @@ public interface RoomClient {
     @GetMapping("/rooms")
     List<RoomResponse> getAllRooms();
 
-    @PutMapping("/rooms/{id}/availability")
-    void updateRoomAvailability(@PathVariable Long id, @RequestParam("available") boolean available);
+    @GetMapping("/rooms/{id}")
+    RoomResponse getRoomById(@PathVariable Long id);
+
+    @GetMapping("/rooms/availability-flags")
+    Map<Long, Boolean> getAvailabilityFlags();
+
+    @GetMapping("/rooms/version")
+    long getCatalogVersion();
+
+    @PutMapping("/rooms/availability")
+    void updateRoomsAvailability(@RequestBody Map<Long, Boolean> availability);
 
 }
\ No newline at end of file
@@ -1,19 +1,39 @@
 package com.hotel.reservation_service.controller;
 
+import com.hotel.reservation_service.dto.AvailabilityCalendarResponse;
+import com.hotel.reservation_service.dto.BatchReservationRequest;
+import com.hotel.reservation_service.dto.BulkCancelRequest;
+import com.hotel.reservation_service.dto.BulkCancelResponse;
+import com.hotel.reservation_service.dto.FlexibleSearchRequest;
+import com.hotel.reservation_service.dto.FlexibleSearchResult;
+import com.hotel.reservation_service.dto.ReservationFilter;
+import com.hotel.reservation_service.dto.ReservationPage;
 import com.hotel.reservation_service.dto.ReservationRequest;
 import com.hotel.reservation_service.dto.ReservationResponse;
+import com.hotel.reservation_service.dto.ReservationUpdateRequest;
 import com.hotel.reservation_service.dto.RoomResponse;
 import com.hotel.reservation_service.dto.RoomSearchRequest;
+import com.hotel.reservation_service.dto.SearchCacheStats;
+import com.hotel.reservation_service.dto.WaitlistEntryResponse;
+import com.hotel.reservation_service.dto.WaitlistRequest;
+import com.hotel.reservation_service.service.ReservationEventStream;
 import com.hotel.reservation_service.service.ReservationService;
+import com.hotel.reservation_service.service.Waitlist;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -25,6 +45,8 @@ import java.util.List;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final ReservationEventStream reservationEventStream;
+    private final Waitlist waitlist;
 
     @PostMapping("/search-rooms")
     public ResponseEntity<List<RoomResponse>> searchRooms(@Valid @RequestBody RoomSearchRequest request) {
@@ -32,10 +54,70 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.searchAvailableRooms(request));
     }
 
+    @PostMapping("/search-rooms/flexible")
+    public ResponseEntity<List<FlexibleSearchResult>> searchFlexibleDates(@Valid @RequestBody FlexibleSearchRequest request) {
+        log.info("Searching flexible dates with request: {}", request);
+        return ResponseEntity.ok(reservationService.searchFlexibleDates(request));
+    }
+
+    @GetMapping("/search-rooms/cache-stats")
+    public ResponseEntity<SearchCacheStats> getSearchCacheStats() {
+        return ResponseEntity.ok(reservationService.getSearchCacheStats());
+    }
+
+    @GetMapping("/availability-calendar")
+    public ResponseEntity<AvailabilityCalendarResponse> getAvailabilityCalendar(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "365") @Min(1) @Max(400) int days) {
+        log.debug("Retrieving availability calendar from {} for {} days", from, days);
+        return ResponseEntity.ok(reservationService.getAvailabilityCalendar(from, days));
+    }
+
     @PostMapping
-    public ResponseEntity<ReservationResponse> makeReservation(@Valid @RequestBody ReservationRequest request) {
+    public ResponseEntity<ReservationResponse> makeReservation(
+            @Valid @RequestBody ReservationRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         log.info("Making reservation for guest ID: {} in room ID: {}", request.getGuestId(), request.getRoomId());
-        return ResponseEntity.ok(reservationService.makeReservation(request));
+        return ResponseEntity.ok(reservationService.makeReservation(request, idempotencyKey));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<ReservationResponse>> makeBatchReservation(
+            @Valid @RequestBody BatchReservationRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        log.info("Making batch reservation of {} rooms for guest ID: {}", request.getRooms().size(), request.getGuestId());
+        return ResponseEntity.ok(reservationService.makeBatchReservation(request, idempotencyKey));
+    }
+
+    @PostMapping("/hold")
+    public ResponseEntity<ReservationResponse> holdReservation(@Valid @RequestBody ReservationRequest request) {
+        log.info("Placing hold for guest ID: {} in room ID: {}", request.getGuestId(), request.getRoomId());
+        return ResponseEntity.ok(reservationService.holdReservation(request));
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<ReservationResponse> confirmHold(@PathVariable @Min(1) Long id) {
+        log.info("Confirming hold with ID: {}", id);
+        return ResponseEntity.ok(reservationService.confirmHold(id));
+    }
+
+    @PostMapping("/waitlist")
+    public ResponseEntity<WaitlistEntryResponse> joinWaitlist(@Valid @RequestBody WaitlistRequest request) {
+        log.info("Waitlisting guest ID: {} for room type {}", request.getGuestId(), request.getRoomType());
+        return ResponseEntity.ok(waitlist.join(request));
+    }
+
+    @GetMapping("/waitlist")
+    public ResponseEntity<List<WaitlistEntryResponse>> getWaitlist() {
+        log.debug("Retrieving waitlist");
+        return ResponseEntity.ok(waitlist.getAll());
+    }
+
+    @DeleteMapping("/waitlist/{id}")
+    public ResponseEntity<String> leaveWaitlist(@PathVariable @Min(1) Long id) {
+        log.info("Removing waitlist entry with ID: {}", id);
+        waitlist.leave(id);
+        return ResponseEntity.ok("Waitlist entry removed.");
     }
 
     @GetMapping
@@ -44,6 +126,60 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.getAllReservations());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ReservationPage> getReservationPage(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long roomId) {
+        log.debug("Retrieving reservation page after ID {} with limit {}", afterId, limit);
+        ReservationFilter filter = new ReservationFilter(from, to, status, roomId);
+        return ResponseEntity.ok(reservationService.getReservationPage(afterId, limit, filter));
+    }
+
+    @GetMapping("/archive")
+    public ResponseEntity<ReservationPage> getArchivedReservationPage(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) Long guestId) {
+        log.debug("Retrieving archived reservation page after ID {} with limit {}", afterId, limit);
+        ReservationFilter filter = new ReservationFilter(from, to, status, roomId);
+        return ResponseEntity.ok(reservationService.getArchivedReservationPage(afterId, limit, filter, guestId));
+    }
+
+    @GetMapping("/archive/code/{code}")
+    public ResponseEntity<ReservationResponse> getArchivedReservationByCode(@PathVariable String code) {
+        log.info("Fetching archived reservation by code: {}", code);
+        return ResponseEntity.ok(reservationService.getArchivedByCode(code));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long roomId) {
+        log.info("Streaming reservation export");
+        ReservationFilter filter = new ReservationFilter(from, to, status, roomId);
+        StreamingResponseBody body = out -> reservationService.exportReservations(filter, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamReservationChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("Opening reservation change stream after event {}", lastEventId);
+        return reservationEventStream.subscribe(lastEventId);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ReservationResponse> getReservationById(@PathVariable Long id) {
         log.info("Fetching reservation by ID: {}", id);
@@ -56,12 +192,11 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.getByCode(code));
     }
 
-    @PutMapping("/{roomId}/availability")
-    public ResponseEntity<String> updateRoomAvailabilityViaReservation(
-            @PathVariable Long roomId, @RequestParam("available") boolean available) {
-        log.warn("Updating room {} availability to {}", roomId, available);
-        reservationService.updateRoomAvailability(roomId, available);
-        return ResponseEntity.ok("Room availability updated via Reservation-Service.");
+    @PatchMapping("/{id}")
+    public ResponseEntity<ReservationResponse> updateReservation(
+            @PathVariable @Min(1) Long id, @Valid @RequestBody ReservationUpdateRequest request) {
+        log.info("Updating reservation with ID: {}", id);
+        return ResponseEntity.ok(reservationService.updateReservation(id, request));
     }
 
     @DeleteMapping("/{id}")
@@ -70,4 +205,10 @@ public class ReservationController {
         reservationService.cancelReservation(id);
         return ResponseEntity.ok("Reservation cancelled successfully.");
     }
+
+    @PostMapping("/cancel")
+    public ResponseEntity<BulkCancelResponse> cancelReservations(@Valid @RequestBody BulkCancelRequest request) {
+        log.warn("Bulk cancelling reservations: {}", request);
+        return ResponseEntity.ok(reservationService.cancelReservations(request));
+    }
 }
\ No newline at end of file
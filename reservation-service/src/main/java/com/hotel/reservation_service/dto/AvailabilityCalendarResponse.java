@@ -0,0 +1,23 @@
+package com.hotel.reservation_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Rooms left per room type and night: {@code roomsLeft.get(type)[i]} is the count for the
+ * night of {@code from + i days}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AvailabilityCalendarResponse {
+    private LocalDate from;
+    private int days;
+    private Map<String, int[]> roomsLeft;
+}
@@ -0,0 +1,51 @@
+package com.hotel.reservation_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A group or block booking: several rooms for one guest (the group's contact), booked
+ * together or not at all.
+ */
+@Data
+public class BatchReservationRequest {
+    @NotNull(message = "Guest ID is required")
+    private Long guestId;
+
+    @NotEmpty(message = "At least one room is required")
+    @Size(max = 100, message = "At most 100 rooms can be booked at once")
+    private List<@Valid @NotNull Room> rooms;
+
+    @Data
+    public static class Room {
+        @NotNull(message = "Room ID is required")
+        private Long roomId;
+
+        @Min(value = 0, message = "Number of children cannot be negative")
+        private int numberOfChildren;
+
+        @Min(value = 1, message = "At least one adult is required")
+        private int numberOfAdults;
+
+        @NotNull(message = "Check-in date is required")
+        @FutureOrPresent(message = "Check-in date must be today or later")
+        private LocalDate checkInDate;
+
+        @NotNull(message = "Check-out date is required")
+        private LocalDate checkOutDate;
+
+        @AssertTrue(message = "Check-out date must be after check-in date")
+        public boolean isStayValid() {
+            return checkInDate == null || checkOutDate == null || checkOutDate.isAfter(checkInDate);
+        }
+    }
+}
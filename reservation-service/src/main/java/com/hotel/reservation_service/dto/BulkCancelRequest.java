@@ -0,0 +1,40 @@
+package com.hotel.reservation_service.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Reservations to cancel in one go: a list of ids, a list of codes, or a filter; exactly one
+ * of them. Reservations already cancelled, and ids or codes that match nothing, are skipped.
+ */
+@Data
+public class BulkCancelRequest {
+
+    @Size(max = 1000, message = "At most 1000 ids per request")
+    private List<@NotNull Long> ids;
+
+    @Size(max = 1000, message = "At most 1000 codes per request")
+    private List<@NotBlank String> codes;
+
+    private ReservationFilter filter;
+
+    @AssertTrue(message = "Exactly one of ids, codes or filter must be given")
+    public boolean isOneSelectorSet() {
+        int selectors = (ids != null && !ids.isEmpty() ? 1 : 0)
+                + (codes != null && !codes.isEmpty() ? 1 : 0)
+                + (filter != null ? 1 : 0);
+        return selectors == 1;
+    }
+
+    // An empty filter would cancel every reservation
+    @AssertTrue(message = "Filter must restrict at least one of from, to, status or roomId")
+    public boolean isFilterRestricted() {
+        return filter == null || filter.getFrom() != null || filter.getTo() != null
+                || filter.getStatus() != null || filter.getRoomId() != null;
+    }
+}
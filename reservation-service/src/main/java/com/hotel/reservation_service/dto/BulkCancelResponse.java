@@ -0,0 +1,19 @@
+package com.hotel.reservation_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkCancelResponse {
+    // Ids of the reservations this request cancelled, in id order
+    private List<Long> cancelledIds;
+    // Ids or codes given that matched no reservation still active
+    private int skipped;
+}
@@ -0,0 +1,48 @@
+package com.hotel.reservation_service.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * "A Deluxe room for 2 guests, 4 nights, some time in March": the stay must start on or
+ * after {@code windowStart} and check out no later than {@code windowEnd}.
+ */
+@Data
+public class FlexibleSearchRequest {
+    @NotNull(message = "Window start is required")
+    @FutureOrPresent(message = "Window start must be today or later")
+    private LocalDate windowStart;
+
+    @NotNull(message = "Window end is required")
+    private LocalDate windowEnd;
+
+    @Min(value = 1, message = "At least one night is required")
+    @Max(value = 60, message = "At most 60 nights can be searched")
+    private int nights;
+
+    @Min(value = 1, message = "At least one guest is required")
+    private int numberOfGuests;
+
+    @NotBlank
+    private String roomType;
+
+    // false: only the earliest start date; true: every start date with a free room
+    private boolean allStarts;
+
+    @AssertTrue(message = "The window must be long enough for the stay and at most 366 days")
+    public boolean isWindowValid() {
+        if (windowStart == null || windowEnd == null) {
+            return true;
+        }
+        long windowDays = ChronoUnit.DAYS.between(windowStart, windowEnd);
+        return windowDays >= nights && windowDays <= 366;
+    }
+}
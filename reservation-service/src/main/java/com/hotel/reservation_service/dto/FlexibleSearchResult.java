@@ -0,0 +1,19 @@
+package com.hotel.reservation_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FlexibleSearchResult {
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private List<RoomResponse> rooms;
+}
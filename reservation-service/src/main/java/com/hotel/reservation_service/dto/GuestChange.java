@@ -0,0 +1,13 @@
+package com.hotel.reservation_service.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class GuestChange {
+    private Long id;
+    private String name;
+    private String email;
+    private LocalDateTime updatedAt;
+}
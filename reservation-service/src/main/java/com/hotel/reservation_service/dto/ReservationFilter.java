@@ -0,0 +1,23 @@
+package com.hotel.reservation_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filters for listing reservations. A date range matches every stay that
+ * overlaps [from, to); any field left null is not filtered on.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationFilter {
+    private LocalDate from;
+    private LocalDate to;
+    private String status;
+    private Long roomId;
+}
@@ -0,0 +1,18 @@
+package com.hotel.reservation_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationPage {
+    private List<ReservationResponse> items;
+    // id to pass as afterId for the next page; null when this is the last page
+    private Long nextCursor;
+}
@@ -1,5 +1,6 @@
 package com.hotel.reservation_service.dto;
 
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -24,6 +25,13 @@ public class ReservationRequest {
     @NotNull(message = "Guest ID is required")
     private Long guestId;
 
-    @NotNull(message = "Room ID is required")
+    // Either a specific room, or a room type for which the service picks the room
     private Long roomId;
+
+    private String roomType;
+
+    @AssertTrue(message = "Room ID or room type is required")
+    public boolean isRoomChosen() {
+        return roomId != null || (roomType != null && !roomType.isBlank());
+    }
 }
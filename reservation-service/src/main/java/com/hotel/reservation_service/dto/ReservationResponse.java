@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @AllArgsConstructor
@@ -28,6 +29,7 @@ public class ReservationResponse {
     private String roomNumber;
     private String roomType;
     private double rate;
+    private LocalDateTime holdExpiresAt;
 
 }
 
@@ -0,0 +1,28 @@
+package com.hotel.reservation_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Payload of a reservation change on the SSE stream: the reservation's state after the
+ * change, or before it for a cancellation.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationStreamEvent {
+    private String type;
+    private Long reservationId;
+    private String code;
+    private String status;
+    private Long guestId;
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private int numberOfNights;
+}
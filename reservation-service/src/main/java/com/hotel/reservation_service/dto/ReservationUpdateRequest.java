@@ -0,0 +1,29 @@
+package com.hotel.reservation_service.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Partial change to a reservation; fields left null keep their current value.
+ */
+@Data
+public class ReservationUpdateRequest {
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private Long roomId;
+
+    @Min(value = 1, message = "At least one adult is required")
+    private Integer numberOfAdults;
+
+    @Min(value = 0, message = "Number of children cannot be negative")
+    private Integer numberOfChildren;
+
+    @AssertTrue(message = "Nothing to change")
+    public boolean isAnyFieldSet() {
+        return checkInDate != null || checkOutDate != null || roomId != null
+                || numberOfAdults != null || numberOfChildren != null;
+    }
+}
@@ -1,8 +1,8 @@
 package com.hotel.reservation_service.dto;
 
 import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import java.time.LocalDate;
@@ -19,6 +19,15 @@ public class RoomSearchRequest {
     @Min(value = 1, message = "At least one guest is required")
     private int numberOfGuests;
 
-    @NotBlank
+    // Rooms of every type are searched when not given
     private String roomType;
+
+    private RoomSort sort = RoomSort.BEST_FIT;
+
+    @Min(value = 0, message = "Page cannot be negative")
+    private int page;
+
+    @Min(value = 1, message = "Page size must be at least 1")
+    @Max(value = 100, message = "Page size cannot exceed 100")
+    private int size = 20;
 }
@@ -0,0 +1,11 @@
+package com.hotel.reservation_service.dto;
+
+/**
+ * Ranking of room search results. Ties are broken by the other criterion, then by room id.
+ */
+public enum RoomSort {
+    // lowest price per night first
+    CHEAPEST,
+    // fewest beds left unused by the party first
+    BEST_FIT
+}
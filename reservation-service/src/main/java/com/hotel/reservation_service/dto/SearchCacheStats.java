@@ -0,0 +1,17 @@
+package com.hotel.reservation_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SearchCacheStats {
+    private long hits;
+    private long misses;
+    private int size;
+    private double hitRate;
+}
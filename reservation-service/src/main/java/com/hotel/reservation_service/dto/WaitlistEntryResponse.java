@@ -0,0 +1,24 @@
+package com.hotel.reservation_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WaitlistEntryResponse {
+    private Long id;
+    private Long guestId;
+    private String roomType;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private int numberOfAdults;
+    private int numberOfChildren;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,45 @@
+package com.hotel.reservation_service.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * A guest waiting for a room of {@code roomType} for the given stay, when search found none.
+ */
+@Data
+public class WaitlistRequest {
+    @NotNull(message = "Guest ID is required")
+    private Long guestId;
+
+    @NotBlank(message = "Room type is required")
+    private String roomType;
+
+    @NotNull(message = "Check-in date is required")
+    @FutureOrPresent(message = "Check-in date must be today or later")
+    private LocalDate checkInDate;
+
+    @NotNull(message = "Check-out date is required")
+    private LocalDate checkOutDate;
+
+    @Min(value = 1, message = "At least one adult is required")
+    private int numberOfAdults;
+
+    @Min(value = 0, message = "Number of children cannot be negative")
+    private int numberOfChildren;
+
+    @AssertTrue(message = "The stay must be between 1 and 60 nights")
+    public boolean isStayValid() {
+        if (checkInDate == null || checkOutDate == null) {
+            return true;
+        }
+        long nights = ChronoUnit.DAYS.between(checkInDate, checkOutDate);
+        return nights >= 1 && nights <= 60;
+    }
+}
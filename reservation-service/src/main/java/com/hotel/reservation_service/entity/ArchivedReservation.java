@@ -0,0 +1,59 @@
+package com.hotel.reservation_service.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A reservation whose stay ended before the archive retention, moved out of the reservation
+ * table by ReservationArchiver. Keeps the reservation fields together with the guest and
+ * room details its view row had when it was archived; rows are never changed afterwards.
+ */
+@Entity
+@Table(name = "reservation_archive", indexes = {
+        @Index(name = "uk_reservation_archive_code", columnList = "code", unique = true),
+        // archive listing by stay dates
+        @Index(name = "idx_reservation_archive_dates", columnList = "checkOutDate, checkInDate"),
+        @Index(name = "idx_reservation_archive_guest", columnList = "guestId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedReservation implements Persistable<Long> {
+    // Same id as the reservation
+    @Id
+    private Long id;
+
+    private String code;
+    private int numberOfChildren;
+    private int numberOfAdults;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private String status;
+    private int numberOfNights;
+    private Long guestId;
+    private String guestName;
+    private String guestEmail;
+    private Long roomId;
+    private String roomNumber;
+    private String roomType;
+    private double rate;
+    private String bookedRoomType;
+    private LocalDateTime archivedAt;
+
+    // Archived once and never updated, so saving is always an insert and the inserts batch
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -4,18 +4,31 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        // per-room conflict checks: equality on room, range on dates; status filters out cancellations in the index
+        @Index(name = "idx_reservation_room_dates", columnList = "roomId, checkInDate, checkOutDate, status"),
+        // availability search: range on check-out skips all past stays, room id and status read from the index
+        @Index(name = "idx_reservation_dates_room", columnList = "checkOutDate, checkInDate, roomId, status"),
+        // pending holds, and the sweep for holds past expiry
+        @Index(name = "idx_reservation_status_hold_expiry", columnList = "status, holdExpiresAt"),
+        // lookup by reservation code, e.g. from bill-service
+        @Index(name = "uk_reservation_code", columnList = "code", unique = true)
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Reservation {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,8 +39,18 @@ public class Reservation {
     private int numberOfAdults;
     private LocalDate checkInDate;
     private LocalDate checkOutDate;
+    // "Hold", "Confirmed" or "Cancelled"; cancelled reservations keep their row but hold no nights
     private String status;
     private int numberOfNights;
     private Long guestId;
     private Long roomId;
+    // Set while status is "Hold": the hold is released unless confirmed by then
+    private LocalDateTime holdExpiresAt;
+    // Set when the guest booked a room type: the night audit may move the stay to another room of that type
+    private String bookedRoomType;
+
+    // Half-open stay: the guest sleeps in the room the nights from check-in up to the day before check-out
+    public boolean coversNight(LocalDate night) {
+        return !checkInDate.isAfter(night) && checkOutDate.isAfter(night);
+    }
 }
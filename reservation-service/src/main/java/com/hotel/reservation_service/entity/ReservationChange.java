@@ -0,0 +1,41 @@
+package com.hotel.reservation_service.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A reservation change as carried on the SSE stream, written by the instance that made it.
+ * The id is the global sequence every instance streams changes in, and the SSE event id.
+ */
+@Entity
+@Table(name = "reservation_change")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String type;
+    private Long reservationId;
+    private String code;
+    private String status;
+    private Long guestId;
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private int numberOfNights;
+    private LocalDateTime createdAt;
+}
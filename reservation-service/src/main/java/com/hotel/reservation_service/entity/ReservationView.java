@@ -0,0 +1,60 @@
+package com.hotel.reservation_service.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a reservation: the reservation row joined with the guest and room fields
+ * shown alongside it, so reads need neither guest-service nor room-service. Written in the
+ * same transaction as the reservation; guest and room fields are refreshed from their
+ * services' changes by ReservationViewProjector.
+ */
+@Entity
+@Table(name = "reservation_view", indexes = {
+        @Index(name = "uk_reservation_view_code", columnList = "code", unique = true),
+        // bulk refresh when a guest profile or a room changes
+        @Index(name = "idx_reservation_view_guest", columnList = "guestId"),
+        @Index(name = "idx_reservation_view_room", columnList = "roomId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationView implements Persistable<Long> {
+    // Same id as the reservation
+    @Id
+    private Long id;
+
+    private String code;
+    private int numberOfChildren;
+    private int numberOfAdults;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private String status;
+    private int numberOfNights;
+    private LocalDateTime holdExpiresAt;
+    private Long guestId;
+    private String guestName;
+    private String guestEmail;
+    private Long roomId;
+    private String roomNumber;
+    private String roomType;
+    private double rate;
+
+    // Rows are inserted once and then changed only by bulk updates, so saving is always an
+    // insert: no select-before-insert merge, and the inserts of a group booking batch.
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
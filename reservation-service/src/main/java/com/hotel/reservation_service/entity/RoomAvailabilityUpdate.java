@@ -0,0 +1,33 @@
+package com.hotel.reservation_service.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A room availability change waiting to be delivered to room-service. Written in the same
+ * transaction as the reservation change that caused it, so the two cannot disagree.
+ */
+@Entity
+@Table(name = "room_availability_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomAvailabilityUpdate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long roomId;
+    private boolean available;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,53 @@
+package com.hotel.reservation_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * One row per room per night held by a reservation. The (roomId, night) primary key lets
+ * the database reject a double booking, whichever instance tries to make it.
+ */
+@Entity
+@Table(name = "room_night_claim",
+        indexes = @Index(name = "idx_room_night_claim_reservation", columnList = "reservationId"))
+@IdClass(RoomNightClaim.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomNightClaim implements Persistable<RoomNightClaim.Key> {
+    @Id
+    private Long roomId;
+
+    @Id
+    private LocalDate night;
+
+    private Long reservationId;
+
+    @Override
+    public Key getId() {
+        return new Key(roomId, night);
+    }
+
+    // Claims are only ever inserted or deleted, so saving never needs a select-before-insert
+    // merge and Hibernate can batch the inserts.
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long roomId;
+        private LocalDate night;
+    }
+}
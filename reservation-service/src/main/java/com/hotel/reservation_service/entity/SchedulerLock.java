@@ -0,0 +1,22 @@
+package com.hotel.reservation_service.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per scheduled job that must run on a single instance at a time; the row lock is the
+ * job's lock. See ClusterLock.
+ */
+@Entity
+@Table(name = "scheduler_lock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerLock {
+    @Id
+    private String name;
+}
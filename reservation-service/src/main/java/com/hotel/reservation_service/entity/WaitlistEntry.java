@@ -0,0 +1,44 @@
+package com.hotel.reservation_service.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A guest waiting for a room type. The id gives the first come, first served order. An
+ * instance promoting the entry claims it until claimedUntil, so no other instance promotes it
+ * at the same time; if that instance dies, the claim runs out and the entry waits again.
+ */
+@Entity
+@Table(name = "waitlist_entry",
+        indexes = @Index(name = "idx_waitlist_entry_check_in", columnList = "checkInDate"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long guestId;
+    private String roomType;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private int numberOfAdults;
+    private int numberOfChildren;
+    private LocalDateTime createdAt;
+
+    // Null unless an instance is promoting the entry
+    private LocalDateTime claimedUntil;
+}
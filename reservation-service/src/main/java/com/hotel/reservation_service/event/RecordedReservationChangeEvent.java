@@ -0,0 +1,11 @@
+package com.hotel.reservation_service.event;
+
+import com.hotel.reservation_service.entity.ReservationChange;
+
+/**
+ * Published by ReservationEventStream for each change it reads back from the
+ * reservation_change table, in id order, whichever instance made the change. Listeners that
+ * must react to changes made on every instance use this rather than ReservationChangedEvent.
+ */
+public record RecordedReservationChangeEvent(ReservationChange change) {
+}
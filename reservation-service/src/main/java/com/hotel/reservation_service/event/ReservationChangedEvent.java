@@ -0,0 +1,25 @@
+package com.hotel.reservation_service.event;
+
+import com.hotel.reservation_service.entity.Reservation;
+
+/**
+ * Published after a reservation change commits, so the in-memory views of occupancy can
+ * update incrementally. {@code previous} is the state the
+ * change replaced (null on create), {@code current} the new state (null on cancel).
+ */
+public record ReservationChangedEvent(Type type, Reservation previous, Reservation current) {
+
+    public enum Type { CREATED, MODIFIED, CANCELLED }
+
+    public static ReservationChangedEvent created(Reservation reservation) {
+        return new ReservationChangedEvent(Type.CREATED, null, reservation);
+    }
+
+    public static ReservationChangedEvent cancelled(Reservation reservation) {
+        return new ReservationChangedEvent(Type.CANCELLED, reservation, null);
+    }
+
+    public static ReservationChangedEvent modified(Reservation previous, Reservation current) {
+        return new ReservationChangedEvent(Type.MODIFIED, previous, current);
+    }
+}
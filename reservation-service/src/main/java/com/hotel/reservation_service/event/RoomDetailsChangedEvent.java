@@ -0,0 +1,13 @@
+package com.hotel.reservation_service.event;
+
+import com.hotel.reservation_service.dto.RoomResponse;
+
+import java.util.List;
+
+/**
+ * Published by RoomCatalogCache when a catalog reload finds rooms whose number, type or rate
+ * differ from the previous snapshot. Availability flips are not included, since nothing copies
+ * the availability flag.
+ */
+public record RoomDetailsChangedEvent(List<RoomResponse> rooms) {
+}
@@ -0,0 +1,7 @@
+package com.hotel.reservation_service.exceptions;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,36 @@
+package com.hotel.reservation_service.repository;
+
+import com.hotel.reservation_service.entity.ArchivedReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedReservationRepository extends JpaRepository<ArchivedReservation, Long> {
+
+    // Unique lookup on uk_reservation_archive_code
+    Optional<ArchivedReservation> findByCode(String code);
+
+    // Keyset page: rows after the given id, in id order; the Pageable only carries the limit.
+    @Query("""
+            select a from ArchivedReservation a
+            where a.id > :afterId
+              and (:status is null or a.status = :status)
+              and (:roomId is null or a.roomId = :roomId)
+              and (:guestId is null or a.guestId = :guestId)
+              and (:fromDate is null or a.checkOutDate > :fromDate)
+              and (:toDate is null or a.checkInDate < :toDate)
+            order by a.id
+            """)
+    List<ArchivedReservation> findPage(@Param("afterId") long afterId,
+                                       @Param("status") String status,
+                                       @Param("roomId") Long roomId,
+                                       @Param("guestId") Long guestId,
+                                       @Param("fromDate") LocalDate fromDate,
+                                       @Param("toDate") LocalDate toDate,
+                                       Pageable limit);
+}
@@ -0,0 +1,45 @@
+package com.hotel.reservation_service.repository;
+
+import com.hotel.reservation_service.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.responseBody = :responseBody, r.pendingUntil = null where r.id = :id")
+    int complete(@Param("id") String id, @Param("responseBody") String responseBody);
+
+    // Takes over a pending row whose lease ran out, for a retry of the same request, or a
+    // completed row past retention that the purge has not removed yet, for any request
+    @Modifying
+    @Transactional
+    @Query("""
+            update IdempotencyRecord r set r.requestHash = :requestHash, r.responseBody = null,
+              r.pendingUntil = :pendingUntil, r.createdAt = :now
+            where r.id = :id
+              and ((r.requestHash = :requestHash and r.responseBody is null
+                    and (r.pendingUntil is null or r.pendingUntil < :now))
+                or (r.responseBody is not null and r.createdAt < :cutoff))
+            """)
+    int takeOverExpired(@Param("id") String id, @Param("requestHash") String requestHash,
+                        @Param("now") LocalDateTime now, @Param("cutoff") LocalDateTime cutoff,
+                        @Param("pendingUntil") LocalDateTime pendingUntil);
+
+    // Frees the key of a request that failed, so the client can retry it
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.responseBody is null")
+    int deletePending(@Param("id") String id);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,16 @@
+package com.hotel.reservation_service.repository;
+
+import com.hotel.reservation_service.entity.Reservation;
+
+import java.util.List;
+
+/**
+ * Inserts bypassing Hibernate, whose identity-generated ids rule out insert batching.
+ */
+public interface ReservationBatchInsert {
+
+    /**
+     * Inserts all reservations in one JDBC batch and sets their generated ids.
+     */
+    void insertAll(List<Reservation> reservations);
+}
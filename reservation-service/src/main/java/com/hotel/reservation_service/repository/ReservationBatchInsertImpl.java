@@ -0,0 +1,69 @@
+package com.hotel.reservation_service.repository;
+
+import com.hotel.reservation_service.entity.Reservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+// Picked up by Spring Data as the implementation of the ReservationBatchInsert fragment
+@RequiredArgsConstructor
+class ReservationBatchInsertImpl implements ReservationBatchInsert {
+
+    private static final String INSERT = """
+            insert into reservation (code, number_of_children, number_of_adults, check_in_date, check_out_date,
+                                     status, number_of_nights, guest_id, room_id, hold_expires_at, booked_room_type)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Reservation reservation = reservations.get(i);
+                        ps.setString(1, reservation.getCode());
+                        ps.setInt(2, reservation.getNumberOfChildren());
+                        ps.setInt(3, reservation.getNumberOfAdults());
+                        ps.setDate(4, Date.valueOf(reservation.getCheckInDate()));
+                        ps.setDate(5, Date.valueOf(reservation.getCheckOutDate()));
+                        ps.setString(6, reservation.getStatus());
+                        ps.setInt(7, reservation.getNumberOfNights());
+                        ps.setLong(8, reservation.getGuestId());
+                        ps.setLong(9, reservation.getRoomId());
+                        if (reservation.getHoldExpiresAt() != null) {
+                            ps.setTimestamp(10, Timestamp.valueOf(reservation.getHoldExpiresAt()));
+                        } else {
+                            ps.setNull(10, Types.TIMESTAMP);
+                        }
+                        ps.setString(11, reservation.getBookedRoomType());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return reservations.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < reservations.size(); i++) {
+            reservations.get(i).setId(((Number) generated.get(i).values().iterator().next()).longValue());
+        }
+    }
+}
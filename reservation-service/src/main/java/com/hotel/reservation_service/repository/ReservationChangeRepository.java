@@ -0,0 +1,25 @@
+package com.hotel.reservation_service.repository;
+
+import com.hotel.reservation_service.entity.ReservationChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReservationChangeRepository extends JpaRepository<ReservationChange, Long> {
+
+    List<ReservationChange> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select coalesce(max(c.id), 0) from ReservationChange c")
+    long findLastId();
+
+    @Modifying
+    @Transactional
+    @Query("delete from ReservationChange c where c.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,13 +1,177 @@
 package com.hotel.reservation_service.repository;
 
 import com.hotel.reservation_service.entity.Reservation;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
-    List<Reservation> findByCheckInDateLessThanAndCheckOutDateGreaterThan(
-            LocalDate checkOutDate, LocalDate checkInDate
+/**
+ * Cancelled reservations keep their row with status "Cancelled". The occupancy queries below
+ * (conflicts, search, rebuilds, the night audit) skip them; listing, export and lookups by id
+ * or code still return them.
+ */
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationBatchInsert {
+    // Ids of rooms with a stay overlapping [checkIn, checkOut); answered from idx_reservation_dates_room.
+    @Query("""
+            select distinct r.roomId from Reservation r
+            where r.checkInDate < :checkOut and r.checkOutDate > :checkIn and r.status <> 'Cancelled'
+            """)
+    Set<Long> findReservedRoomIds(@Param("checkIn") LocalDate checkIn, @Param("checkOut") LocalDate checkOut);
+
+    // Single-room conflict check; answered from idx_reservation_room_dates.
+    @Query("""
+            select count(r) > 0 from Reservation r
+            where r.roomId = :roomId and r.checkInDate < :checkOut and r.checkOutDate > :checkIn
+              and r.status <> 'Cancelled'
+            """)
+    boolean existsByRoomIdAndCheckInDateLessThanAndCheckOutDateGreaterThan(
+            @Param("roomId") Long roomId, @Param("checkOut") LocalDate checkOutDate, @Param("checkIn") LocalDate checkInDate
     );
+
+    @Query("select r from Reservation r where r.checkOutDate > :date and r.status <> 'Cancelled'")
+    List<Reservation> findByCheckOutDateAfter(@Param("date") LocalDate date);
+
+    // Stays of the given rooms overlapping [checkIn, checkOut); an in-list of ranges on idx_reservation_room_dates.
+    @Query("""
+            select r from Reservation r
+            where r.roomId in :roomIds and r.checkInDate < :checkOut and r.checkOutDate > :checkIn
+              and r.status <> 'Cancelled'
+            """)
+    List<Reservation> findByRoomIdInAndCheckInDateLessThanAndCheckOutDateGreaterThan(
+            @Param("roomIds") Collection<Long> roomIds, @Param("checkOut") LocalDate checkOutDate,
+            @Param("checkIn") LocalDate checkInDate
+    );
+
+    // Current and future stays of the given rooms, for the night audit's reassignment
+    @Query("""
+            select r from Reservation r
+            where r.roomId in :roomIds and r.checkOutDate > :date and r.status <> 'Cancelled'
+            """)
+    List<Reservation> findByRoomIdInAndCheckOutDateAfter(@Param("roomIds") Collection<Long> roomIds,
+                                                         @Param("date") LocalDate date);
+
+    // Locks stays about to be moved to another room, so a concurrent cancellation waits for the move
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Reservation r where r.id in :ids")
+    List<Reservation> lockAllById(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Reservation r set r.roomId = :roomId where r.id = :id")
+    int updateRoom(@Param("id") Long id, @Param("roomId") Long roomId);
+
+    // Locks the reservations about to be cancelled; those already cancelled are left out
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Reservation r where r.id in :ids and r.status <> 'Cancelled'")
+    List<Reservation> lockActiveById(@Param("ids") Collection<Long> ids);
+
+    // One statement for any number of cancellations
+    @Modifying
+    @Query("update Reservation r set r.status = 'Cancelled', r.holdExpiresAt = null where r.id in :ids")
+    int cancelAll(@Param("ids") Collection<Long> ids);
+
+    @Query("select r.id from Reservation r where r.code in :codes")
+    List<Long> findIdsByCodeIn(@Param("codes") Collection<String> codes);
+
+    // Reservations a bulk cancel by filter applies to; fromDate is required so that stays already
+    // checked out never match. The Pageable only carries the limit.
+    @Query("""
+            select r.id from Reservation r
+            where r.status <> 'Cancelled'
+              and (:status is null or r.status = :status)
+              and (:roomId is null or r.roomId = :roomId)
+              and r.checkOutDate > :fromDate
+              and (:toDate is null or r.checkInDate < :toDate)
+            order by r.id
+            """)
+    List<Long> findActiveIds(@Param("status") String status,
+                             @Param("roomId") Long roomId,
+                             @Param("fromDate") LocalDate fromDate,
+                             @Param("toDate") LocalDate toDate,
+                             Pageable limit);
+
+    // Stays that ended before the given day, cancelled or not, for archiving; a range on idx_reservation_dates_room.
+    @Query("select r.id from Reservation r where r.checkOutDate < :date")
+    List<Long> findIdsCheckedOutBefore(@Param("date") LocalDate date, Pageable limit);
+
+    List<Reservation> findByStatus(String status);
+
+    // Unique lookup on uk_reservation_code
+    Optional<Reservation> findByCode(String code);
+
+    // Holds past their expiry, whichever instance placed them; the Pageable only carries the limit.
+    @Query("""
+            select r.id from Reservation r
+            where r.status = 'Hold' and r.holdExpiresAt <= :now
+            order by r.id
+            """)
+    List<Long> findExpiredHoldIds(@Param("now") LocalDateTime now, Pageable limit);
+
+    // Locks the holds that are still unconfirmed and past their expiry, so a concurrent confirm waits and then fails.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select r from Reservation r
+            where r.id in :ids and r.status = 'Hold' and r.holdExpiresAt <= :now
+            """)
+    List<Reservation> lockExpiredHolds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            update Reservation r set r.status = 'Confirmed', r.holdExpiresAt = null
+            where r.id = :id and r.status = 'Hold' and r.holdExpiresAt > :now
+            """)
+    int confirmHold(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Rooms with a guest staying the night of the given day; a range on idx_reservation_dates_room.
+    @Query("""
+            select distinct r.roomId from Reservation r
+            where r.checkOutDate > :day and r.checkInDate <= :day and r.status <> 'Cancelled'
+            """)
+    Set<Long> findRoomIdsOccupiedOn(@Param("day") LocalDate day);
+
+    // Keyset page: rows after the given id, in id order; the Pageable only carries the limit.
+    @Query("""
+            select r from Reservation r
+            where r.id > :afterId
+              and (:status is null or r.status = :status)
+              and (:roomId is null or r.roomId = :roomId)
+              and (:fromDate is null or r.checkOutDate > :fromDate)
+              and (:toDate is null or r.checkInDate < :toDate)
+            order by r.id
+            """)
+    List<Reservation> findPage(@Param("afterId") long afterId,
+                               @Param("status") String status,
+                               @Param("roomId") Long roomId,
+                               @Param("fromDate") LocalDate fromDate,
+                               @Param("toDate") LocalDate toDate,
+                               Pageable limit);
+
+    // Integer.MIN_VALUE makes the MySQL driver stream rows instead of buffering the whole result set.
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("""
+            select r from Reservation r
+            where (:status is null or r.status = :status)
+              and (:roomId is null or r.roomId = :roomId)
+              and (:fromDate is null or r.checkOutDate > :fromDate)
+              and (:toDate is null or r.checkInDate < :toDate)
+            order by r.id
+            """)
+    Stream<Reservation> streamAll(@Param("status") String status,
+                                  @Param("roomId") Long roomId,
+                                  @Param("fromDate") LocalDate fromDate,
+                                  @Param("toDate") LocalDate toDate);
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.hotel.reservation_service.repository;
+
+import com.hotel.reservation_service.entity.ReservationView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReservationViewRepository extends JpaRepository<ReservationView, Long> {
+
+    // Unique lookup on uk_reservation_view_code
+    Optional<ReservationView> findByCode(String code);
+
+    List<ReservationView> findAllByOrderByIdAsc();
+
+    // Reservations written before the view existed, or by a release that did not maintain it
+    @Query("""
+            select r.id from Reservation r
+            where not exists (select v.id from ReservationView v where v.id = r.id)
+            order by r.id
+            """)
+    List<Long> findReservationIdsWithoutView();
+
+    @Modifying
+    @Query("update ReservationView v set v.status = :status, v.holdExpiresAt = :holdExpiresAt where v.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") String status, @Param("holdExpiresAt") LocalDateTime holdExpiresAt);
+
+    @Modifying
+    @Query("update ReservationView v set v.status = :status, v.holdExpiresAt = null where v.id in :ids")
+    int updateStatusIn(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
+    @Modifying
+    @Query("update ReservationView v set v.guestName = :name, v.guestEmail = :email where v.guestId = :guestId")
+    int updateGuest(@Param("guestId") Long guestId, @Param("name") String name, @Param("email") String email);
+
+    @Modifying
+    @Query("""
+            update ReservationView v set v.roomNumber = :roomNumber, v.roomType = :roomType, v.rate = :rate
+            where v.roomId = :roomId
+            """)
+    int updateRoom(@Param("roomId") Long roomId, @Param("roomNumber") String roomNumber,
+                   @Param("roomType") String roomType, @Param("rate") double rate);
+
+    @Modifying
+    @Query("""
+            update ReservationView v set v.checkInDate = :checkInDate, v.checkOutDate = :checkOutDate,
+                v.numberOfNights = :numberOfNights, v.numberOfAdults = :numberOfAdults, v.numberOfChildren = :numberOfChildren
+            where v.id = :id
+            """)
+    int updateStay(@Param("id") Long id, @Param("checkInDate") LocalDate checkInDate, @Param("checkOutDate") LocalDate checkOutDate,
+                   @Param("numberOfNights") int numberOfNights, @Param("numberOfAdults") int numberOfAdults,
+                   @Param("numberOfChildren") int numberOfChildren);
+
+    @Modifying
+    @Query("""
+            update ReservationView v set v.roomId = :roomId, v.roomNumber = :roomNumber, v.roomType = :roomType, v.rate = :rate
+            where v.id = :id
+            """)
+    int moveToRoom(@Param("id") Long id, @Param("roomId") Long roomId, @Param("roomNumber") String roomNumber,
+                   @Param("roomType") String roomType, @Param("rate") double rate);
+
+    @Modifying
+    @Query("delete from ReservationView v where v.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
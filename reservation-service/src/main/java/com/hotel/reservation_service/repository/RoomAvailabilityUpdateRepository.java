@@ -0,0 +1,12 @@
+package com.hotel.reservation_service.repository;
+
+import com.hotel.reservation_service.entity.RoomAvailabilityUpdate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface RoomAvailabilityUpdateRepository extends JpaRepository<RoomAvailabilityUpdate, Long> {
+
+    List<RoomAvailabilityUpdate> findAllByOrderByIdAsc(Pageable pageable);
+}
@@ -0,0 +1,26 @@
+package com.hotel.reservation_service.repository;
+
+import com.hotel.reservation_service.entity.RoomNightClaim;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface RoomNightClaimRepository extends JpaRepository<RoomNightClaim, RoomNightClaim.Key> {
+
+    @Modifying
+    @Query("delete from RoomNightClaim c where c.reservationId = :reservationId")
+    int deleteByReservationId(@Param("reservationId") Long reservationId);
+
+    @Modifying
+    @Query("delete from RoomNightClaim c where c.reservationId = :reservationId and c.night >= :from and c.night < :to")
+    int deleteByReservationIdBetween(@Param("reservationId") Long reservationId,
+                                     @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from RoomNightClaim c where c.reservationId in :reservationIds")
+    int deleteByReservationIdIn(@Param("reservationIds") Collection<Long> reservationIds);
+}
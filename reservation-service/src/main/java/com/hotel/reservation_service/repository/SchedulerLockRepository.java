@@ -0,0 +1,22 @@
+package com.hotel.reservation_service.repository;
+
+import com.hotel.reservation_service.entity.SchedulerLock;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // A lock timeout of -2 is SKIP LOCKED: empty, without waiting, while another transaction holds the row.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("select l from SchedulerLock l where l.name = :name")
+    Optional<SchedulerLock> tryLock(@Param("name") String name);
+}
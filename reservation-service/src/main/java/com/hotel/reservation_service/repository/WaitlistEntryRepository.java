@@ -0,0 +1,39 @@
+package com.hotel.reservation_service.repository;
+
+import com.hotel.reservation_service.entity.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // Claims an entry for promotion, unless another instance holds an unexpired claim on it
+    @Modifying
+    @Transactional
+    @Query("""
+            update WaitlistEntry e set e.claimedUntil = :claimedUntil
+            where e.id = :id and (e.claimedUntil is null or e.claimedUntil < :now)
+            """)
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    // Lets an entry that could not be promoted wait again
+    @Modifying
+    @Transactional
+    @Query("update WaitlistEntry e set e.claimedUntil = null where e.id = :id")
+    int release(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("delete from WaitlistEntry e where e.id = :id")
+    int deleteEntry(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("delete from WaitlistEntry e where e.checkInDate < :date")
+    int deleteCheckingInBefore(@Param("date") LocalDate date);
+}
@@ -0,0 +1,232 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.dto.RoomResponse;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Rooms booked per (room type, night), as one {@code int[]} per type, for the availability
+ * calendar. Bookings and cancellations add or subtract one per night of the stay; reading a
+ * year for every type is a copy of a few arrays. Rooms left is the type's room count minus
+ * the booked count.
+ *
+ * Like {@link OccupancyMatrix}, each array is a ring indexed by epoch day modulo the horizon
+ * that slides forward day by day, the day entering the horizon being counted from the
+ * {@link RoomOccupancyIndex}. Room counts per type follow the room catalog; when a
+ * reload moves or removes a room the counters are refilled from the index, since its
+ * bookings were counted under its old type.
+ *
+ * Bookings are counted as deltas, so applying a change twice or missing one skews the
+ * counts until the next refill. The counters therefore follow the index rather than
+ * listening for changes themselves: each change reaches them under the index's change lock,
+ * and the periodic occupancy resync refills them from the rebuilt index before the next one.
+ */
+@Component
+@Slf4j
+public class AvailabilityCounters implements RoomOccupancyIndex.Follower {
+
+    private final RoomCatalogCache roomCatalog;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final int horizonDays;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, int[]> bookedByType = new HashMap<>();
+    private Map<String, Integer> roomsByType = Map.of();
+    // Room types as of the catalog generation the counters were built against
+    private Map<Long, String> typeByRoomId = Map.of();
+    // Rooms booked before they reached the catalog snapshot, whose nights are not counted yet
+    private final Set<Long> uncountedRoomIds = new HashSet<>();
+    private volatile long catalogGeneration = -1;
+    private LocalDate firstDay;
+
+    public AvailabilityCounters(RoomCatalogCache roomCatalog,
+                                RoomOccupancyIndex occupancyIndex,
+                                @Value("${reservation.occupancy.horizon-days:400}") int horizonDays) {
+        this.roomCatalog = roomCatalog;
+        this.occupancyIndex = occupancyIndex;
+        this.horizonDays = horizonDays;
+        this.firstDay = LocalDate.now();
+        occupancyIndex.addFollower(this);
+    }
+
+    @Override
+    public void apply(ReservationChangedEvent event) {
+        if (syncCatalog()) {
+            // the index already holds the change the counters were refilled from
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            advance(LocalDate.now());
+            if (event.previous() != null) {
+                add(event.previous(), -1);
+            }
+            if (event.current() != null) {
+                add(event.current(), 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild(Collection<Reservation> reservations) {
+        lock.writeLock().lock();
+        try {
+            loadCatalog();
+            firstDay = LocalDate.now();
+            bookedByType.clear();
+            uncountedRoomIds.clear();
+            for (Reservation reservation : reservations) {
+                add(reservation, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Availability counters rebuilt: {} room types x {} nights from {}", roomsByType.size(), horizonDays, firstDay);
+    }
+
+    /**
+     * Rooms left per type for each night of [from, from + days), index 0 being {@code from}.
+     * The range must lie within today's horizon.
+     */
+    public Map<String, int[]> roomsLeft(LocalDate from, int days) {
+        syncCatalog();
+        LocalDate today = LocalDate.now();
+        lock.readLock().lock();
+        try {
+            if (firstDay.isBefore(today)) {
+                // first read of a new day; upgrading a read lock is not possible
+                lock.readLock().unlock();
+                lock.writeLock().lock();
+                try {
+                    advance(today);
+                } finally {
+                    lock.readLock().lock();
+                    lock.writeLock().unlock();
+                }
+            }
+            if (from.isBefore(firstDay) || from.plusDays(days).isAfter(firstDay.plusDays(horizonDays))) {
+                throw new IllegalArgumentException("Calendar covers " + firstDay + " to " + firstDay.plusDays(horizonDays));
+            }
+            int start = rowOf(from);
+            Map<String, int[]> left = new TreeMap<>();
+            roomsByType.forEach((type, rooms) -> {
+                int[] booked = bookedByType.get(type);
+                int[] counts = new int[days];
+                for (int i = 0, row = start; i < days; i++, row = row + 1 == horizonDays ? 0 : row + 1) {
+                    counts[i] = Math.max(0, rooms - (booked != null ? booked[row] : 0));
+                }
+                left.put(type, counts);
+            });
+            return left;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Slides the window so that it starts at {@code today}, reusing the nights left behind for
+     * the nights that enter the horizon.
+     */
+    public void advanceTo(LocalDate today) {
+        lock.writeLock().lock();
+        try {
+            advance(today);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Picks up a catalog reload; cheap when there was none, one comparison of generations.
+     * Returns true when the counters had to be rebuilt.
+     */
+    private boolean syncCatalog() {
+        if (roomCatalog.generation() == catalogGeneration) {
+            return false;
+        }
+        Map<Long, String> current = new HashMap<>();
+        roomCatalog.getAll().forEach(room -> current.put(room.getId(), room.getRoomType()));
+        boolean roomsMoved;
+        lock.readLock().lock();
+        try {
+            roomsMoved = typeByRoomId.entrySet().stream()
+                    .anyMatch(entry -> !Objects.equals(current.get(entry.getKey()), entry.getValue()))
+                    || uncountedRoomIds.stream().anyMatch(current::containsKey);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (roomsMoved) {
+            log.info("Rooms changed type or were removed, rebuilding availability counters");
+            occupancyIndex.refill(this);
+            return true;
+        }
+        lock.writeLock().lock();
+        try {
+            loadCatalog();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return false;
+    }
+
+    // Caller holds the write lock
+    private void loadCatalog() {
+        catalogGeneration = roomCatalog.generation();
+        Map<Long, String> types = new HashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        for (RoomResponse room : roomCatalog.getAll()) {
+            types.put(room.getId(), room.getRoomType());
+            counts.merge(room.getRoomType(), 1, Integer::sum);
+        }
+        typeByRoomId = types;
+        roomsByType = counts;
+    }
+
+    private void advance(LocalDate today) {
+        while (firstDay.isBefore(today)) {
+            // The night entering the horizon shares its slot with the night leaving it
+            LocalDate entering = firstDay.plusDays(horizonDays);
+            int row = rowOf(entering);
+            for (int[] booked : bookedByType.values()) {
+                booked[row] = 0;
+            }
+            for (Long roomId : occupancyIndex.occupiedRooms(entering, entering.plusDays(1))) {
+                String type = typeByRoomId.get(roomId);
+                if (type == null) {
+                    uncountedRoomIds.add(roomId);
+                } else {
+                    bookedByType.computeIfAbsent(type, t -> new int[horizonDays])[row]++;
+                }
+            }
+            firstDay = firstDay.plusDays(1);
+        }
+    }
+
+    private void add(Reservation reservation, int delta) {
+        String type = typeByRoomId.get(reservation.getRoomId());
+        if (type == null) {
+            uncountedRoomIds.add(reservation.getRoomId());
+            return;
+        }
+        int[] booked = bookedByType.computeIfAbsent(type, t -> new int[horizonDays]);
+        LocalDate from = reservation.getCheckInDate().isBefore(firstDay) ? firstDay : reservation.getCheckInDate();
+        LocalDate end = firstDay.plusDays(horizonDays);
+        LocalDate to = reservation.getCheckOutDate().isAfter(end) ? end : reservation.getCheckOutDate();
+        for (LocalDate night = from; night.isBefore(to); night = night.plusDays(1)) {
+            booked[rowOf(night)] += delta;
+        }
+    }
+
+    private int rowOf(LocalDate night) {
+        return (int) Math.floorMod(night.toEpochDay(), (long) horizonDays);
+    }
+}
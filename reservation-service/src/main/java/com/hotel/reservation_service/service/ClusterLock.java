@@ -0,0 +1,72 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.entity.SchedulerLock;
+import com.hotel.reservation_service.repository.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs scheduled jobs on at most one instance at a time. A job's lock is its scheduler_lock row,
+ * held with {@code SELECT ... FOR UPDATE SKIP LOCKED} while the job runs: an instance finding
+ * the row locked skips the run instead of waiting, and the lock goes with the database
+ * connection if its holder dies, so there is no lease to tune.
+ *
+ * The job itself runs with the locking transaction suspended, in transactions of its own;
+ * one connection stays pinned to the lock meanwhile.
+ */
+@Component
+@Slf4j
+public class ClusterLock {
+
+    private final SchedulerLockRepository lockRepository;
+    private final TransactionTemplate lockTransaction;
+    private final TransactionTemplate outsideLockTransaction;
+    private final Set<String> createdLocks = ConcurrentHashMap.newKeySet();
+
+    public ClusterLock(SchedulerLockRepository lockRepository, PlatformTransactionManager transactionManager) {
+        this.lockRepository = lockRepository;
+        this.lockTransaction = new TransactionTemplate(transactionManager);
+        this.outsideLockTransaction = new TransactionTemplate(transactionManager);
+        this.outsideLockTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+    }
+
+    /**
+     * Runs the job if no other instance is running a job of the same name. Returns whether it ran.
+     */
+    public boolean runExclusively(String name, Runnable job) {
+        createIfMissing(name);
+        Boolean ran = lockTransaction.execute(tx -> {
+            if (lockRepository.tryLock(name).isEmpty()) {
+                return false;
+            }
+            outsideLockTransaction.executeWithoutResult(status -> job.run());
+            return true;
+        });
+        if (!Boolean.TRUE.equals(ran)) {
+            log.debug("Skipping {}: running on another instance", name);
+        }
+        return Boolean.TRUE.equals(ran);
+    }
+
+    private void createIfMissing(String name) {
+        if (createdLocks.contains(name)) {
+            return;
+        }
+        if (!lockRepository.existsById(name)) {
+            try {
+                lockRepository.saveAndFlush(new SchedulerLock(name));
+            } catch (DataIntegrityViolationException e) {
+                // another instance created it first
+                log.debug("Scheduler lock {} created concurrently", name);
+            }
+        }
+        createdLocks.add(name);
+    }
+}
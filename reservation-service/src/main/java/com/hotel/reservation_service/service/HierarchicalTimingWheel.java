@@ -0,0 +1,182 @@
+package com.hotel.reservation_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: each level is a ring of buckets covering tickMs * wheelSize of
+ * time, and deadlines beyond that go to a coarser overflow level created on demand. Scheduling
+ * and cancelling are O(1); {@link #advanceTo} costs O(levels) per tick plus the timers it fires.
+ * When a coarse bucket comes due its timers are re-inserted and fall into finer levels, so
+ * each timer is moved at most once per level.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    public static final class Timer<T> {
+        private final T item;
+        private final long deadlineMs;
+        private Bucket<T> bucket;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T item, long deadlineMs) {
+            this.item = item;
+            this.deadlineMs = deadlineMs;
+        }
+
+        public T item() {
+            return item;
+        }
+
+        public long deadlineMs() {
+            return deadlineMs;
+        }
+    }
+
+    // Intrusive doubly linked list, so a timer can unlink itself without a search
+    private static final class Bucket<T> {
+        private Timer<T> head;
+
+        void add(Timer<T> timer) {
+            timer.bucket = this;
+            timer.prev = null;
+            timer.next = head;
+            if (head != null) {
+                head.prev = timer;
+            }
+            head = timer;
+        }
+
+        void remove(Timer<T> timer) {
+            if (timer.prev != null) {
+                timer.prev.next = timer.next;
+            } else {
+                head = timer.next;
+            }
+            if (timer.next != null) {
+                timer.next.prev = timer.prev;
+            }
+            timer.bucket = null;
+            timer.prev = null;
+            timer.next = null;
+        }
+
+        List<Timer<T>> drain() {
+            List<Timer<T>> timers = new ArrayList<>();
+            for (Timer<T> timer = head; timer != null; ) {
+                Timer<T> next = timer.next;
+                timer.bucket = null;
+                timer.prev = null;
+                timer.next = null;
+                timers.add(timer);
+                timer = next;
+            }
+            head = null;
+            return timers;
+        }
+    }
+
+    private static final class Level<T> {
+        private final long tickMs;
+        private final int wheelSize;
+        private final long intervalMs;
+        private final Bucket<T>[] buckets;
+        private long currentTime;
+        private Level<T> overflow;
+
+        @SuppressWarnings("unchecked")
+        Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.intervalMs = tickMs * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket<>();
+            }
+            this.currentTime = startMs - (startMs % tickMs);
+        }
+
+        Bucket<T> bucketFor(long timeMs) {
+            return buckets[(int) ((timeMs / tickMs) % wheelSize)];
+        }
+
+        Level<T> overflow() {
+            if (overflow == null) {
+                overflow = new Level<>(intervalMs, wheelSize, currentTime);
+            }
+            return overflow;
+        }
+    }
+
+    private final Level<T> root;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.root = new Level<>(tickMs, wheelSize, startMs);
+    }
+
+    /**
+     * Schedules the item to fire at the given deadline. A deadline already within the current
+     * tick fires on the next {@link #advanceTo}.
+     */
+    public Timer<T> schedule(T item, long deadlineMs) {
+        Timer<T> timer = new Timer<>(item, Math.max(deadlineMs, root.currentTime));
+        insert(root, timer);
+        size++;
+        return timer;
+    }
+
+    public boolean cancel(Timer<T> timer) {
+        if (timer.bucket == null) {
+            return false;
+        }
+        timer.bucket.remove(timer);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Moves the clock forward tick by tick and returns the items whose deadline has passed.
+     * An item fires at the end of the tick its deadline falls in: never early, at most one tick late.
+     */
+    public List<T> advanceTo(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        if (size == 0) {
+            for (Level<T> level = root; level != null; level = level.overflow) {
+                level.currentTime = Math.max(level.currentTime, nowMs - (nowMs % level.tickMs));
+            }
+            return expired;
+        }
+        while (root.currentTime + root.tickMs <= nowMs) {
+            for (Timer<T> timer : root.bucketFor(root.currentTime).drain()) {
+                expired.add(timer.item);
+                size--;
+            }
+            long tickTime = root.currentTime + root.tickMs;
+            // A coarser level only turns when every finer one wraps; its new current bucket
+            // then holds timers due within one of its ticks, which move down to finer levels.
+            for (Level<T> level = root; level != null && tickTime % level.tickMs == 0; level = level.overflow) {
+                level.currentTime = tickTime;
+                if (level != root) {
+                    for (Timer<T> timer : level.bucketFor(tickTime).drain()) {
+                        insert(root, timer);
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+
+    private void insert(Level<T> level, Timer<T> timer) {
+        while (timer.deadlineMs >= level.currentTime + level.intervalMs) {
+            level = level.overflow();
+        }
+        level.bucketFor(timer.deadlineMs).add(timer);
+    }
+}
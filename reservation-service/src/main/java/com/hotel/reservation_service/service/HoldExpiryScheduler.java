@@ -0,0 +1,180 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import com.hotel.reservation_service.repository.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Releases reservation holds that were not confirmed in time. Each hold gets a timer in an
+ * in-process {@link HierarchicalTimingWheel}, so placing or confirming a hold is O(1) and no
+ * query polls the table for expired rows. Holds that fire on the same tick are released
+ * together, in batches of one transaction each.
+ *
+ * The wheel only knows the holds placed by this instance since startup, plus those loaded
+ * from the table when it starts; the release re-checks expiry in the database, so a hold
+ * confirmed or cancelled meanwhile is left alone. Holds whose timer was lost, because the
+ * instance that placed them died, are released by a low-frequency sweep of the table that
+ * runs on one instance at a time under a {@link ClusterLock}.
+ */
+@Component
+@Slf4j
+public class HoldExpiryScheduler {
+
+    static final String SWEEP_LOCK = "hold-expiry-sweep";
+
+    private final ReservationRepository reservationRepository;
+    private final RoomNightLedger roomNightLedger;
+    private final RoomAvailabilityOutbox roomAvailabilityOutbox;
+    private final ReservationViewProjector viewProjector;
+    private final ReservationEventStream eventStream;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterLock clusterLock;
+    private final int releaseBatchSize;
+
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final Map<Long, HierarchicalTimingWheel.Timer<Long>> timers = new HashMap<>();
+
+    public HoldExpiryScheduler(ReservationRepository reservationRepository,
+                               RoomNightLedger roomNightLedger,
+                               RoomAvailabilityOutbox roomAvailabilityOutbox,
+                               ReservationViewProjector viewProjector,
+                               ReservationEventStream eventStream,
+                               TransactionTemplate transactionTemplate,
+                               ApplicationEventPublisher eventPublisher,
+                               ClusterLock clusterLock,
+                               @Value("${reservation.hold.tick-ms:1000}") long tickMs,
+                               @Value("${reservation.hold.wheel-size:64}") int wheelSize,
+                               @Value("${reservation.hold.release-batch-size:200}") int releaseBatchSize) {
+        this.reservationRepository = reservationRepository;
+        this.roomNightLedger = roomNightLedger;
+        this.roomAvailabilityOutbox = roomAvailabilityOutbox;
+        this.viewProjector = viewProjector;
+        this.eventStream = eventStream;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.clusterLock = clusterLock;
+        this.releaseBatchSize = releaseBatchSize;
+        this.wheel = new HierarchicalTimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    public synchronized void schedule(Long reservationId, LocalDateTime expiresAt) {
+        HierarchicalTimingWheel.Timer<Long> previous = timers.put(reservationId,
+                wheel.schedule(reservationId, toEpochMillis(expiresAt)));
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+    }
+
+    public synchronized void cancel(Long reservationId) {
+        HierarchicalTimingWheel.Timer<Long> timer = timers.remove(reservationId);
+        if (timer != null) {
+            wheel.cancel(timer);
+        }
+    }
+
+    public synchronized int pendingHolds() {
+        return wheel.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPendingHolds() {
+        List<Reservation> holds = reservationRepository.findByStatus("Hold");
+        holds.forEach(hold -> schedule(hold.getId(), hold.getHoldExpiresAt()));
+        log.info("Scheduled expiry of {} pending holds", holds.size());
+    }
+
+    @Scheduled(fixedRateString = "${reservation.hold.tick-ms:1000}")
+    public void tick() {
+        List<Long> expired;
+        synchronized (this) {
+            expired = wheel.advanceTo(System.currentTimeMillis());
+            expired.forEach(timers::remove);
+        }
+        for (int from = 0; from < expired.size(); from += releaseBatchSize) {
+            List<Long> batch = expired.subList(from, Math.min(from + releaseBatchSize, expired.size()));
+            try {
+                release(batch);
+            } catch (Exception e) {
+                log.error("Failed to release {} expired holds, retrying on a later tick: {}", batch.size(), e.getMessage());
+                LocalDateTime retryAt = LocalDateTime.now().plusMinutes(1);
+                batch.forEach(id -> schedule(id, retryAt));
+            }
+        }
+    }
+
+    // Safety net for holds whose timer died with the instance that placed them
+    @Scheduled(fixedDelayString = "${reservation.hold.sweep-interval-ms:60000}",
+            initialDelayString = "${reservation.hold.sweep-interval-ms:60000}")
+    public void sweepExpiredHolds() {
+        clusterLock.runExclusively(SWEEP_LOCK, () -> {
+            try {
+                int released = 0;
+                List<Long> expired;
+                do {
+                    expired = reservationRepository.findExpiredHoldIds(LocalDateTime.now(), PageRequest.of(0, releaseBatchSize));
+                    if (!expired.isEmpty()) {
+                        released += release(expired);
+                    }
+                } while (expired.size() == releaseBatchSize);
+                if (released > 0) {
+                    log.warn("Expiry sweep released {} holds that no timer released", released);
+                }
+            } catch (Exception e) {
+                log.error("Expiry sweep of holds failed, retrying on the next sweep: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Cancels the given holds that are still unconfirmed and past expiry, releasing their room
+     * nights, in one transaction; the rows are kept, like any cancellation. Returns the number
+     * released.
+     */
+    public int release(Collection<Long> reservationIds) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        List<Reservation> released = transactionTemplate.execute(status -> {
+            List<Reservation> due = reservationRepository.lockExpiredHolds(reservationIds, now);
+            if (due.isEmpty()) {
+                return due;
+            }
+            List<Long> dueIds = due.stream().map(Reservation::getId).toList();
+            reservationRepository.cancelAll(dueIds);
+            roomNightLedger.releaseAll(dueIds);
+            viewProjector.markCancelled(dueIds);
+            due.stream()
+                    .filter(hold -> hold.coversNight(today))
+                    .forEach(hold -> roomAvailabilityOutbox.enqueue(hold.getRoomId(), true));
+            eventStream.recordAll(due.stream().map(ReservationChangedEvent::cancelled).toList());
+            return due;
+        });
+        if (released == null || released.isEmpty()) {
+            return 0;
+        }
+        released.forEach(hold -> eventPublisher.publishEvent(ReservationChangedEvent.cancelled(hold)));
+        log.info("Released {} expired holds", released.size());
+        return released.size();
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
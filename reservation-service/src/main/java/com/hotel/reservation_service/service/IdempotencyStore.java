@@ -0,0 +1,181 @@
+package com.hotel.reservation_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.reservation_service.entity.IdempotencyRecord;
+import com.hotel.reservation_service.exceptions.IdempotencyKeyConflictException;
+import com.hotel.reservation_service.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Honours the Idempotency-Key header: the first request with a key runs and its response is
+ * stored, later requests with the same key and body get the stored response back without
+ * running again. Completed responses are kept in a small LRU in front of the
+ * idempotency_record table, so a burst of retries is answered from memory.
+ *
+ * reservation-service and payment-service each carry a copy of this class, with its entity,
+ * repository and test, since the services share no code; the copies differ only in their
+ * package and imports and must be changed together.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    private record Completed(String requestHash, String responseBody, LocalDateTime createdAt) {
+    }
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Duration pendingLease;
+    private final Map<String, Completed> recent;
+
+    public IdempotencyStore(IdempotencyRecordRepository recordRepository,
+                            ObjectMapper objectMapper,
+                            @Value("${idempotency.cache-size:10000}") int cacheSize,
+                            @Value("${idempotency.retention:PT24H}") Duration retention,
+                            @Value("${idempotency.pending-lease:PT2M}") Duration pendingLease) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.pendingLease = pendingLease;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Completed> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Runs the action once per (scope, key). Without a key the action simply runs.
+     *
+     * @throws IdempotencyKeyConflictException if the key is in use by a request still running,
+     *                                         or was used before with a different request body.
+     *                                         A request that left its key pending longer than
+     *                                         the lease is taken to have died, and a retry runs.
+     *                                         A key whose response is past retention is free
+     *                                         again, even before the purge removes it.
+     */
+    public <T> T execute(String scope, String key, Object request, TypeReference<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String id = sha256(scope + ":" + key);
+        String requestHash = sha256(toJson(request));
+
+        Completed completed = findCompleted(id);
+        if (completed != null) {
+            return replay(key, completed, requestHash, responseType);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            recordRepository.saveAndFlush(new IdempotencyRecord(id, requestHash, null, now, now.plus(pendingLease)));
+        } catch (DataIntegrityViolationException e) {
+            completed = findCompleted(id);
+            if (completed != null) {
+                return replay(key, completed, requestHash, responseType);
+            }
+            if (recordRepository.takeOverExpired(id, requestHash, now, now.minus(retention), now.plus(pendingLease)) == 0) {
+                log.warn("Idempotency-Key {} is already in use by a request in progress", key);
+                throw new IdempotencyKeyConflictException("A request with this Idempotency-Key is still being processed.");
+            }
+            log.warn("Idempotency-Key {} was left pending past its lease or expired, running the request", key);
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            recordRepository.deletePending(id);
+            throw e;
+        }
+        String responseBody = toJson(response);
+        try {
+            recordRepository.complete(id, responseBody);
+        } catch (RuntimeException e) {
+            // The action took effect, so report it rather than invite a retry. This instance still
+            // replays the response from memory; the key stays pending in the table until its lease
+            // runs out
+            log.error("Could not store the response for Idempotency-Key {}", key, e);
+        }
+        synchronized (recent) {
+            recent.put(id, new Completed(requestHash, responseBody, now));
+        }
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = recordRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    private Completed findCompleted(String id) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        synchronized (recent) {
+            Completed cached = recent.get(id);
+            if (cached != null && cached.createdAt().isAfter(cutoff)) {
+                return cached;
+            }
+        }
+        return recordRepository.findById(id)
+                .filter(record -> record.getResponseBody() != null && record.getCreatedAt().isAfter(cutoff))
+                .map(record -> {
+                    Completed loaded = new Completed(record.getRequestHash(), record.getResponseBody(), record.getCreatedAt());
+                    synchronized (recent) {
+                        recent.put(id, loaded);
+                    }
+                    return loaded;
+                })
+                .orElse(null);
+    }
+
+    private <T> T replay(String key, Completed completed, String requestHash, TypeReference<T> responseType) {
+        if (!completed.requestHash().equals(requestHash)) {
+            log.warn("Idempotency-Key {} reused with a different request", key);
+            throw new IdempotencyKeyConflictException("Idempotency-Key was already used for a different request.");
+        }
+        log.info("Replaying stored response for Idempotency-Key {}", key);
+        try {
+            return objectMapper.readValue(completed.responseBody(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for Idempotency-Key " + key + " is unreadable", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
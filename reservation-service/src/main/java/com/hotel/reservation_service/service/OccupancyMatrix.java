@@ -0,0 +1,217 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Room x night occupancy as bitsets: one row of {@code long} words per night, one bit per room.
+ * "Which rooms are taken at some point in [from, to)" is the OR of the rows of those nights,
+ * 64 rooms per instruction, with no per-reservation objects involved.
+ *
+ * Rows live in a ring indexed by epoch day modulo the horizon, so the window slides forward
+ * day by day without copying: the row of a day that has passed is reused for the new last day
+ * and refilled from the {@link RoomOccupancyIndex}, which holds stays beyond the horizon too.
+ * Ranges reaching outside the horizon are not answered here ({@link #covers}).
+ *
+ * The matrix follows the index rather than listening for changes itself: a rebuild of the
+ * index refills it from the rebuilt stays, with no change applied in between.
+ */
+@Component
+@Slf4j
+public class OccupancyMatrix implements RoomOccupancyIndex.Follower {
+
+    private final RoomOccupancyIndex occupancyIndex;
+    private final int horizonDays;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slotByRoomId = new HashMap<>();
+    private long[] roomIdBySlot = new long[64];
+    private int roomCount;
+
+    private long[][] rows;
+    private int wordsPerRow = 1;
+    private LocalDate firstDay;
+
+    public OccupancyMatrix(RoomOccupancyIndex occupancyIndex,
+                           @Value("${reservation.occupancy.horizon-days:400}") int horizonDays) {
+        this.occupancyIndex = occupancyIndex;
+        this.horizonDays = horizonDays;
+        this.rows = new long[horizonDays][wordsPerRow];
+        this.firstDay = LocalDate.now();
+        occupancyIndex.addFollower(this);
+    }
+
+    @Override
+    public void apply(ReservationChangedEvent event) {
+        if (event.previous() != null) {
+            update(event.previous(), false);
+        }
+        if (event.current() != null) {
+            update(event.current(), true);
+        }
+    }
+
+    public boolean covers(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return !from.isBefore(firstDay) && !to.isAfter(firstDay.plusDays(horizonDays));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of rooms occupied on at least one night of [from, to). Callers must check {@link #covers} first.
+     */
+    public Set<Long> occupiedRooms(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            long[] taken = new long[wordsPerRow];
+            for (LocalDate night = from; night.isBefore(to); night = night.plusDays(1)) {
+                long[] row = rows[rowOf(night)];
+                for (int w = 0; w < wordsPerRow; w++) {
+                    taken[w] |= row[w];
+                }
+            }
+            Set<Long> roomIds = new HashSet<>();
+            for (int w = 0; w < wordsPerRow; w++) {
+                long word = taken[w];
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    roomIds.add(roomIdBySlot[w * 64 + bit]);
+                    word &= word - 1;
+                }
+            }
+            return roomIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Occupancy of the given rooms for each night of [from, to), as {@code [room][night]}.
+     * Rooms the matrix has never seen booked are free throughout. Callers must check {@link #covers} first.
+     */
+    public boolean[][] nightsOccupied(List<Long> roomIds, LocalDate from, LocalDate to) {
+        int nights = (int) (to.toEpochDay() - from.toEpochDay());
+        boolean[][] occupied = new boolean[roomIds.size()][nights];
+        lock.readLock().lock();
+        try {
+            for (int r = 0; r < roomIds.size(); r++) {
+                Integer slot = slotByRoomId.get(roomIds.get(r));
+                if (slot == null) {
+                    continue;
+                }
+                int word = slot >>> 6;
+                long mask = 1L << (slot & 63);
+                int row = rowOf(from);
+                for (int n = 0; n < nights; n++) {
+                    occupied[r][n] = (rows[row][word] & mask) != 0;
+                    row = row + 1 == horizonDays ? 0 : row + 1;
+                }
+            }
+            return occupied;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild(Collection<Reservation> reservations) {
+        lock.writeLock().lock();
+        try {
+            firstDay = LocalDate.now();
+            for (long[] row : rows) {
+                Arrays.fill(row, 0L);
+            }
+            for (Reservation reservation : reservations) {
+                set(reservation, true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Occupancy matrix rebuilt: {} rooms x {} nights from {}", roomCount, horizonDays, firstDay);
+    }
+
+    /**
+     * Slides the window so that it starts at {@code today}, reusing the rows of the days left
+     * behind for the days that enter the horizon.
+     */
+    public void advanceTo(LocalDate today) {
+        lock.writeLock().lock();
+        try {
+            advance(today);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void update(Reservation reservation, boolean occupied) {
+        lock.writeLock().lock();
+        try {
+            advance(LocalDate.now());
+            set(reservation, occupied);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void advance(LocalDate today) {
+        while (firstDay.isBefore(today)) {
+            // The day entering the horizon shares its row with the day leaving it
+            LocalDate entering = firstDay.plusDays(horizonDays);
+            int row = rowOf(entering);
+            Arrays.fill(rows[row], 0L);
+            for (Long roomId : occupancyIndex.occupiedRooms(entering, entering.plusDays(1))) {
+                int slot = slotOf(roomId);
+                // slotOf may have widened the rows, so index them afresh
+                rows[row][slot >>> 6] |= 1L << (slot & 63);
+            }
+            firstDay = firstDay.plusDays(1);
+        }
+    }
+
+    private void set(Reservation reservation, boolean occupied) {
+        int slot = slotOf(reservation.getRoomId());
+        int word = slot >>> 6;
+        long mask = 1L << (slot & 63);
+        LocalDate from = reservation.getCheckInDate().isBefore(firstDay) ? firstDay : reservation.getCheckInDate();
+        LocalDate end = firstDay.plusDays(horizonDays);
+        LocalDate to = reservation.getCheckOutDate().isAfter(end) ? end : reservation.getCheckOutDate();
+        for (LocalDate night = from; night.isBefore(to); night = night.plusDays(1)) {
+            long[] row = rows[rowOf(night)];
+            row[word] = occupied ? row[word] | mask : row[word] & ~mask;
+        }
+    }
+
+    private int slotOf(Long roomId) {
+        Integer slot = slotByRoomId.get(roomId);
+        if (slot != null) {
+            return slot;
+        }
+        slot = roomCount++;
+        if (slot == roomIdBySlot.length) {
+            roomIdBySlot = Arrays.copyOf(roomIdBySlot, roomIdBySlot.length * 2);
+        }
+        roomIdBySlot[slot] = roomId;
+        slotByRoomId.put(roomId, slot);
+        if ((slot >>> 6) >= wordsPerRow) {
+            wordsPerRow = (slot >>> 6) + 1;
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = Arrays.copyOf(rows[i], wordsPerRow);
+            }
+        }
+        return slot;
+    }
+
+    private int rowOf(LocalDate night) {
+        return (int) Math.floorMod(night.toEpochDay(), (long) horizonDays);
+    }
+}
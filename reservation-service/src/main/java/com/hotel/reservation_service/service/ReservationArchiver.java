@@ -0,0 +1,135 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.entity.ArchivedReservation;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.entity.ReservationView;
+import com.hotel.reservation_service.repository.ArchivedReservationRepository;
+import com.hotel.reservation_service.repository.ReservationRepository;
+import com.hotel.reservation_service.repository.ReservationViewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves stays that ended more than the retention period ago, cancelled or not, from the
+ * reservation table to reservation_archive, so the reservation table, its view and the
+ * room-night ledger only hold current and recent stays. Each chunk is copied and deleted in
+ * one transaction; the archive is read through its own endpoint.
+ *
+ * Archived stays have long checked out, so no in-memory occupancy view holds them and their
+ * removal publishes no change event.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationArchiver {
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationViewRepository viewRepository;
+    private final ArchivedReservationRepository archiveRepository;
+    private final RoomNightLedger roomNightLedger;
+    private final ReservationViewProjector viewProjector;
+    private final RoomCatalogCache roomCatalog;
+    private final TransactionTemplate transactionTemplate;
+
+    // Stays that checked out more than this many days ago are archived
+    @Value("${reservation.archive.retention-days:90}")
+    private int retentionDays = 90;
+
+    @Value("${reservation.archive.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Scheduled(cron = "${reservation.archive.cron:0 0 4 * * *}")
+    public void archivePastStays() {
+        try {
+            archive(LocalDate.now().minusDays(retentionDays));
+        } catch (Exception e) {
+            // Whatever was archived stays archived; the next run continues from there
+            log.warn("Reservation archiving failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Archives every stay with a check-out date before {@code cutoff}. Returns the number of
+     * reservations archived.
+     */
+    int archive(LocalDate cutoff) {
+        int archived = 0;
+        List<Long> ids;
+        do {
+            ids = reservationRepository.findIdsCheckedOutBefore(cutoff, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Long> chunk = ids;
+            archived += transactionTemplate.execute(tx -> archiveChunk(chunk, cutoff));
+        } while (ids.size() == chunkSize);
+        log.info("Archived {} reservations that checked out before {}", archived, cutoff);
+        return archived;
+    }
+
+    // Runs in a transaction; rows are re-read under lock, as a concurrent change may have extended the stay
+    private int archiveChunk(List<Long> ids, LocalDate cutoff) {
+        List<Reservation> past = reservationRepository.lockAllById(ids).stream()
+                .filter(reservation -> reservation.getCheckOutDate().isBefore(cutoff))
+                .toList();
+        if (past.isEmpty()) {
+            return 0;
+        }
+        List<Long> pastIds = past.stream().map(Reservation::getId).toList();
+        Map<Long, ReservationView> views = viewRepository.findAllById(pastIds).stream()
+                .collect(Collectors.toMap(ReservationView::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        archiveRepository.saveAll(past.stream()
+                .map(reservation -> toArchived(reservation, views.get(reservation.getId()), now))
+                .toList());
+        roomNightLedger.releaseAll(pastIds);
+        viewProjector.remove(pastIds);
+        reservationRepository.deleteAllByIdInBatch(pastIds);
+        return past.size();
+    }
+
+    private ArchivedReservation toArchived(Reservation reservation, ReservationView view, LocalDateTime archivedAt) {
+        ArchivedReservation.ArchivedReservationBuilder archived = ArchivedReservation.builder()
+                .id(reservation.getId())
+                .code(reservation.getCode())
+                .numberOfChildren(reservation.getNumberOfChildren())
+                .numberOfAdults(reservation.getNumberOfAdults())
+                .checkInDate(reservation.getCheckInDate())
+                .checkOutDate(reservation.getCheckOutDate())
+                .status(reservation.getStatus())
+                .numberOfNights(reservation.getNumberOfNights())
+                .guestId(reservation.getGuestId())
+                .roomId(reservation.getRoomId())
+                .bookedRoomType(reservation.getBookedRoomType())
+                .archivedAt(archivedAt);
+        if (view != null) {
+            return archived
+                    .guestName(view.getGuestName())
+                    .guestEmail(view.getGuestEmail())
+                    .roomNumber(view.getRoomNumber())
+                    .roomType(view.getRoomType())
+                    .rate(view.getRate())
+                    .build();
+        }
+        // not backfilled into the view: room details from the catalog, no guest details
+        return roomCatalog.getCached(reservation.getRoomId())
+                .map(room -> archived
+                        .roomNumber(room.getRoomNumber())
+                        .roomType(room.getRoomType())
+                        .rate(room.getPricePerNight())
+                        .build())
+                .orElseGet(() -> archived.roomNumber("N/A").roomType("Unknown").build());
+    }
+}
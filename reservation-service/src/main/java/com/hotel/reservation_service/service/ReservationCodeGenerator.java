@@ -0,0 +1,114 @@
+package com.hotel.reservation_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Generates reservation codes such as {@code RESV-0F3KQ8Z1M2A7C}: a 63-bit id, Crockford
+ * base32 encoded to a fixed 13 characters, made of
+ * <pre>
+ *   41 bits  milliseconds since 2024-01-01T00:00:00Z
+ *   10 bits  sequence within the millisecond
+ *    7 bits  node id of the issuing instance
+ *    5 bits  shard, derived from the guest id
+ * </pre>
+ * Codes are unique as long as node ids are, so reservation.code.node-id must be set, and
+ * differ, on every instance; startup fails without it, except under the single-instance dev
+ * profile, which defaults it to 0. The codes issued by one instance sort in creation order;
+ * across instances they sort to the millisecond. The shard can be read
+ * back from a code with {@link #shardOf}, so a partitioned store can route a lookup by code
+ * without an index. It comes from the guest, which a reservation never changes, unlike its
+ * room.
+ */
+@Component
+public class ReservationCodeGenerator {
+
+    public static final String PREFIX = "RESV-";
+    public static final int SHARD_COUNT = 1 << 5;
+
+    private static final long EPOCH_MS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int SEQUENCE_BITS = 10;
+    private static final int NODE_BITS = 7;
+    private static final int SHARD_BITS = 5;
+    private static final int NODE_SHIFT = SHARD_BITS;
+    private static final int SEQUENCE_SHIFT = NODE_SHIFT + NODE_BITS;
+    private static final int TIMESTAMP_SHIFT = SEQUENCE_SHIFT + SEQUENCE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeId;
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    public ReservationCodeGenerator(@Value("${reservation.code.node-id}") int nodeId) {
+        if (nodeId < 0 || nodeId >= 1 << NODE_BITS) {
+            throw new IllegalStateException("reservation.code.node-id must be between 0 and "
+                    + ((1 << NODE_BITS) - 1) + ", was " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public String nextCode(Long guestId) {
+        long shard = guestId == null ? 0 : Math.floorMod(guestId, SHARD_COUNT);
+        long id;
+        synchronized (this) {
+            long timestamp = Math.max(System.currentTimeMillis() - EPOCH_MS, lastTimestamp);
+            if (timestamp == lastTimestamp) {
+                sequence = (sequence + 1) & SEQUENCE_MASK;
+                if (sequence == 0) {
+                    // Sequence exhausted for this millisecond: borrow the next one rather than wait
+                    timestamp++;
+                }
+            } else {
+                sequence = 0;
+            }
+            lastTimestamp = timestamp;
+            id = (timestamp << TIMESTAMP_SHIFT) | (sequence << SEQUENCE_SHIFT) | (nodeId << NODE_SHIFT) | shard;
+        }
+        return PREFIX + encode(id);
+    }
+
+    public static int shardOf(String code) {
+        return (int) (decode(code) & (SHARD_COUNT - 1));
+    }
+
+    public static Instant createdAt(String code) {
+        return Instant.ofEpochMilli((decode(code) >>> TIMESTAMP_SHIFT) + EPOCH_MS);
+    }
+
+    private static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static long decode(String code) {
+        if (code == null || !code.startsWith(PREFIX) || code.length() != PREFIX.length() + ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Not a generated reservation code: " + code);
+        }
+        long id = 0;
+        for (int i = PREFIX.length(); i < code.length(); i++) {
+            int value = indexOf(code.charAt(i));
+            if (value < 0) {
+                throw new IllegalArgumentException("Not a generated reservation code: " + code);
+            }
+            id = (id << 5) | value;
+        }
+        return id;
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,353 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.dto.ReservationStreamEvent;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.entity.ReservationChange;
+import com.hotel.reservation_service.event.RecordedReservationChangeEvent;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import com.hotel.reservation_service.repository.ReservationChangeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events feed of reservation changes, across all instances. Each change is recorded
+ * in the reservation_change table by the transaction that makes it, and every instance tails that
+ * table in id order, so all of them stream the same changes in the same order. The row id is
+ * the SSE event id: a client reconnecting to any instance with {@code Last-Event-ID} is sent
+ * what it missed from the last {@code buffer-size} changes. When the id has already left the
+ * buffer, or predates the instance's startup, the client gets a {@code reset} event and should
+ * reload the reservation list.
+ *
+ * Ids are handed out when a change is inserted but become visible when it commits, so a
+ * missing id holds the tail back for up to {@code gap-timeout-ms} before it is given up as a
+ * rolled-back insert. Each change is also published as a RecordedReservationChangeEvent, for
+ * listeners that must react to changes made on any instance.
+ *
+ * Each subscriber is caught up from the buffer by a thread of its own, one send at a time, so
+ * events reach every client in order and a slow client only delays itself; one that falls a
+ * whole buffer behind gets a {@code reset}.
+ */
+@Component
+@Slf4j
+public class ReservationEventStream {
+
+    public record Entry(long sequence, ReservationStreamEvent event) {
+    }
+
+    // Sequence of a Last-Event-ID that is not one of ours; always outside the buffer
+    static final long UNKNOWN_SEQUENCE = -1;
+    static final String PURGE_LOCK = "reservation-change-purge";
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final ReentrantLock sending = new ReentrantLock();
+        private final AtomicBoolean woken = new AtomicBoolean();
+        // Guarded by sending
+        private long lastSent;
+
+        Subscriber(SseEmitter emitter, long lastSent) {
+            this.emitter = emitter;
+            this.lastSent = lastSent;
+        }
+    }
+
+    private final ReservationChangeRepository changeRepository;
+    private final ClusterLock clusterLock;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int bufferSize;
+    private final long emitterTimeoutMs;
+    private final long gapTimeoutMs;
+    private final Duration retention;
+
+    // Latest changes, oldest first
+    private final ArrayDeque<Entry> buffer = new ArrayDeque<>();
+    // Changes up to this sequence have left the buffer, or were made before this instance started
+    private long baseline = UNKNOWN_SEQUENCE;
+    private long lastSequence = UNKNOWN_SEQUENCE;
+    // Only touched by the scheduler thread: when the next sequence was first found missing
+    private long gapSeenAt;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("reservation-stream-", 0).factory());
+
+    public ReservationEventStream(ReservationChangeRepository changeRepository,
+                                  ClusterLock clusterLock,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${reservation.stream.buffer-size:1024}") int bufferSize,
+                                  @Value("${reservation.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                                  @Value("${reservation.stream.gap-timeout-ms:5000}") long gapTimeoutMs,
+                                  @Value("${reservation.stream.retention:PT24H}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.clusterLock = clusterLock;
+        this.eventPublisher = eventPublisher;
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.gapTimeoutMs = gapTimeoutMs;
+        this.retention = retention;
+    }
+
+    /**
+     * Opens a stream for a client. With no {@code lastEventId} the client only receives
+     * changes from now on.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, lastEventId != null ? sequenceOf(lastEventId) : lastSequence());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        wake(subscriber);
+        log.debug("Reservation stream subscriber added, resuming after {}", subscriber.lastSent);
+        return emitter;
+    }
+
+    /**
+     * Records a change for the stream. Must be called inside the transaction that makes the
+     * change, last, so the change is streamed if and only if it commits, and its id is taken
+     * as shortly before the commit as possible.
+     */
+    public void record(ReservationChangedEvent event) {
+        changeRepository.save(toChange(event));
+    }
+
+    /**
+     * Records several changes made in one transaction; called like {@link #record}.
+     */
+    public void recordAll(Collection<ReservationChangedEvent> events) {
+        changeRepository.saveAll(events.stream().map(ReservationEventStream::toChange).toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            startAfter(changeRepository.findLastId());
+        } catch (Exception e) {
+            // the first poll retries
+            log.warn("Reservation stream could not read the last change at startup: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.stream.poll-interval-ms:500}")
+    public void poll() {
+        try {
+            if (lastSequence() == UNKNOWN_SEQUENCE) {
+                startAfter(changeRepository.findLastId());
+                return;
+            }
+            int appended = 0;
+            for (ReservationChange change : changeRepository.findByIdGreaterThanOrderByIdAsc(lastSequence(),
+                    PageRequest.of(0, bufferSize))) {
+                if (change.getId() != lastSequence() + 1 && !gapTimedOut()) {
+                    break;
+                }
+                gapSeenAt = 0;
+                append(change.getId(), toStreamEvent(change));
+                eventPublisher.publishEvent(new RecordedReservationChangeEvent(change));
+                appended++;
+            }
+            if (appended > 0) {
+                subscribers.forEach(this::wake);
+            }
+        } catch (Exception e) {
+            log.warn("Reservation stream poll failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.stream.purge-interval-ms:3600000}")
+    public void purgeOldChanges() {
+        clusterLock.runExclusively(PURGE_LOCK, () -> {
+            int purged = changeRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+            if (purged > 0) {
+                log.info("Purged {} streamed reservation changes", purged);
+            }
+        });
+    }
+
+    synchronized void startAfter(long sequence) {
+        if (lastSequence == UNKNOWN_SEQUENCE) {
+            baseline = sequence;
+            lastSequence = sequence;
+            log.info("Reservation stream starting after change {}", sequence);
+        }
+    }
+
+    synchronized void append(long sequence, ReservationStreamEvent event) {
+        buffer.addLast(new Entry(sequence, event));
+        lastSequence = sequence;
+        if (buffer.size() > bufferSize) {
+            baseline = buffer.removeFirst().sequence();
+        }
+    }
+
+    synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    // The sequence a Last-Event-ID stands for, or UNKNOWN_SEQUENCE
+    static long sequenceOf(String eventId) {
+        try {
+            return Long.parseLong(eventId);
+        } catch (NumberFormatException e) {
+            return UNKNOWN_SEQUENCE;
+        }
+    }
+
+    /**
+     * Entries after the given sequence, oldest first; empty when some of them have already
+     * left the buffer, or the sequence is not one this instance knows.
+     */
+    synchronized Optional<List<Entry>> eventsAfter(long sequence) {
+        if (lastSequence == UNKNOWN_SEQUENCE || sequence < baseline || sequence > lastSequence) {
+            return Optional.empty();
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (Entry entry : buffer) {
+            if (entry.sequence() > sequence) {
+                entries.add(entry);
+            }
+        }
+        return Optional.of(entries);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // Comment lines keep idle connections open through proxies and reveal dead clients
+    @Scheduled(fixedDelayString = "${reservation.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> senders.execute(() -> {
+            // a subscriber busy sending needs no heartbeat
+            if (subscriber.sending.tryLock()) {
+                try {
+                    send(subscriber, SseEmitter.event().comment("heartbeat"));
+                } finally {
+                    subscriber.sending.unlock();
+                }
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private boolean gapTimedOut() {
+        long now = System.currentTimeMillis();
+        if (gapSeenAt == 0) {
+            gapSeenAt = now;
+        }
+        return now - gapSeenAt >= gapTimeoutMs;
+    }
+
+    private void wake(Subscriber subscriber) {
+        if (subscriber.woken.compareAndSet(false, true)) {
+            senders.execute(() -> {
+                subscriber.sending.lock();
+                try {
+                    // cleared first, so a change appended while delivering wakes the subscriber again
+                    subscriber.woken.set(false);
+                    deliver(subscriber);
+                } finally {
+                    subscriber.sending.unlock();
+                }
+            });
+        }
+    }
+
+    // Caller holds the subscriber's sending lock
+    private void deliver(Subscriber subscriber) {
+        if (lastSequence() == UNKNOWN_SEQUENCE) {
+            // not started yet; the first change wakes it
+            return;
+        }
+        Optional<List<Entry>> pending = eventsAfter(subscriber.lastSent);
+        if (pending.isEmpty()) {
+            long resumeAfter = lastSequence();
+            if (send(subscriber, SseEmitter.event().name("reset").id(Long.toString(resumeAfter)).data("reset"))) {
+                subscriber.lastSent = resumeAfter;
+                deliver(subscriber);
+            }
+            return;
+        }
+        for (Entry entry : pending.get()) {
+            SseEmitter.SseEventBuilder event = SseEmitter.event()
+                    .id(Long.toString(entry.sequence()))
+                    .name(entry.event().getType())
+                    .data(entry.event(), MediaType.APPLICATION_JSON);
+            if (!send(subscriber, event)) {
+                return;
+            }
+            subscriber.lastSent = entry.sequence();
+        }
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+            return true;
+        } catch (Exception e) {
+            log.debug("Dropping reservation stream subscriber: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static ReservationChange toChange(ReservationChangedEvent event) {
+        Reservation reservation = event.current() != null ? event.current() : event.previous();
+        return ReservationChange.builder()
+                .type(event.type().name().toLowerCase(Locale.ROOT))
+                .reservationId(reservation.getId())
+                .code(reservation.getCode())
+                .status(event.type() == ReservationChangedEvent.Type.CANCELLED ? "Cancelled" : reservation.getStatus())
+                .guestId(reservation.getGuestId())
+                .roomId(reservation.getRoomId())
+                .checkInDate(reservation.getCheckInDate())
+                .checkOutDate(reservation.getCheckOutDate())
+                .numberOfNights(reservation.getNumberOfNights())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static ReservationStreamEvent toStreamEvent(ReservationChange change) {
+        return ReservationStreamEvent.builder()
+                .type(change.getType())
+                .reservationId(change.getReservationId())
+                .code(change.getCode())
+                .status(change.getStatus())
+                .guestId(change.getGuestId())
+                .roomId(change.getRoomId())
+                .checkInDate(change.getCheckInDate())
+                .checkOutDate(change.getCheckOutDate())
+                .numberOfNights(change.getNumberOfNights())
+                .build();
+    }
+}
@@ -1,142 +1,674 @@
 package com.hotel.reservation_service.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hotel.reservation_service.client.GuestClient;
 import com.hotel.reservation_service.client.RoomClient;
 import com.hotel.reservation_service.dto.*;
+import com.hotel.reservation_service.entity.ArchivedReservation;
 import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import com.hotel.reservation_service.exceptions.GuestNotFoundException;
 import com.hotel.reservation_service.exceptions.RoomNotAvailableException;
 import com.hotel.reservation_service.exceptions.RoomNotFoundException;
+import com.hotel.reservation_service.repository.ArchivedReservationRepository;
 import com.hotel.reservation_service.repository.ReservationRepository;
+import com.hotel.reservation_service.repository.ReservationViewRepository;
+import feign.FeignException;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.UUID;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReservationService {
 
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final ReservationRepository reservationRepository;
     private final RoomClient roomClient;
     private final GuestClient guestClient;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final OccupancyMatrix occupancyMatrix;
+    private final AvailabilityCounters availabilityCounters;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RoomCatalogCache roomCatalog;
+    private final SearchResultCache searchCache;
+    private final HoldExpiryScheduler holdExpiry;
+    private final ReservationCodeGenerator codeGenerator;
+    private final IdempotencyStore idempotencyStore;
+    private final RoomNightLedger roomNightLedger;
+    private final RoomAvailabilityOutbox roomAvailabilityOutbox;
+    private final ReservationViewProjector viewProjector;
+    private final ReservationEventStream eventStream;
+    private final ReservationViewRepository viewRepository;
+    private final ArchivedReservationRepository archiveRepository;
+    private final RoomAssigner roomAssigner;
+    private final TransactionTemplate transactionTemplate;
+    // Boot's task executor, running on virtual threads (spring.threads.virtual.enabled)
+    private final Executor applicationTaskExecutor;
+
+    @Value("${reservation.lookup-timeout-ms:3000}")
+    private long lookupTimeoutMs = 3000;
+
+    @Value("${reservation.hold.ttl:PT10M}")
+    private Duration holdTtl = Duration.ofMinutes(10);
+
+    @Value("${reservation.bulk-cancel.max-size:1000}")
+    private int bulkCancelLimit = 1000;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Reloads the in-memory occupancy views from the database: at startup, and periodically so
+     * that bookings made through other instances show up in search.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reservation.occupancy.resync-interval-ms:300000}",
+            initialDelayString = "${reservation.occupancy.resync-interval-ms:300000}")
+    public void rebuildOccupancy() {
+        // Read through the index, so the changes made while the snapshot is read are not lost;
+        // the index refills the occupancy matrix and the availability counters from its rebuilt state
+        occupancyIndex.rebuild(() -> reservationRepository.findByCheckOutDateAfter(LocalDate.now()));
+        // The rebuild may reveal bookings made by other instances
+        searchCache.invalidateAll();
+    }
 
     public List<RoomResponse> searchAvailableRooms(RoomSearchRequest request) {
         log.info("Searching for available rooms: guests={}, checkIn={}, checkOut={}",
                 request.getNumberOfGuests(), request.getCheckInDate(), request.getCheckOutDate());
+        // The cache holds every available room; each page is ranked from it.
+        List<RoomResponse> available = searchCache.getOrCompute(SearchResultCache.Key.of(request), () -> findAvailableRooms(request));
+        return rankPage(available, request);
+    }
 
-        List<RoomResponse> allRooms = roomClient.getAllRooms();
+    /**
+     * The requested page of the ranking, selected with a heap bounded to the rooms up to the end
+     * of that page: O(n log k) rather than a sort of every available room.
+     */
+    private static List<RoomResponse> rankPage(List<RoomResponse> available, RoomSearchRequest request) {
+        int offset = request.getPage() * request.getSize();
+        if (offset >= available.size()) {
+            return List.of();
+        }
+        int k = Math.min(offset + request.getSize(), available.size());
+        Comparator<RoomResponse> ranking = ranking(request);
+        // worst of the best k on top, so it is the one to displace
+        PriorityQueue<RoomResponse> best = new PriorityQueue<>(k, ranking.reversed());
+        for (RoomResponse room : available) {
+            if (best.size() < k) {
+                best.add(room);
+            } else if (ranking.compare(room, best.peek()) < 0) {
+                best.poll();
+                best.add(room);
+            }
+        }
+        List<RoomResponse> top = new ArrayList<>(best);
+        top.sort(ranking);
+        return top.subList(offset, k);
+    }
 
-        List<Reservation> reservedRooms = reservationRepository.findAll().stream()
-                .filter(r -> datesOverlap(r.getCheckInDate(), r.getCheckOutDate(), request.getCheckInDate(), request.getCheckOutDate()))
-                .toList();
+    private static Comparator<RoomResponse> ranking(RoomSearchRequest request) {
+        int guests = request.getNumberOfGuests();
+        Comparator<RoomResponse> byPrice = Comparator.comparingDouble(RoomResponse::getPricePerNight);
+        Comparator<RoomResponse> byWaste = Comparator.comparingInt(room -> room.getCapacity() - guests);
+        Comparator<RoomResponse> primary = request.getSort() == RoomSort.CHEAPEST
+                ? byPrice.thenComparing(byWaste)
+                : byWaste.thenComparing(byPrice);
+        return primary.thenComparing(RoomResponse::getId);
+    }
 
-        Set<Long> reservedRoomIds = reservedRooms.stream()
-                .map(Reservation::getRoomId)
-                .collect(Collectors.toSet());
+    /**
+     * Rooms left per room type for each night from {@code from}, answered from in-memory counters.
+     */
+    public AvailabilityCalendarResponse getAvailabilityCalendar(LocalDate from, int days) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        try {
+            return AvailabilityCalendarResponse.builder()
+                    .from(start)
+                    .days(days)
+                    .roomsLeft(availabilityCounters.roomsLeft(start, days))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Availability calendar request outside the horizon: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    public SearchCacheStats getSearchCacheStats() {
+        return searchCache.stats();
+    }
+
+    private List<RoomResponse> findAvailableRooms(RoomSearchRequest request) {
+        // Searches inside the matrix horizon are answered from memory; longer ones go to the database.
+        Set<Long> reservedRoomIds = occupancyMatrix.covers(request.getCheckInDate(), request.getCheckOutDate())
+                ? occupancyMatrix.occupiedRooms(request.getCheckInDate(), request.getCheckOutDate())
+                : reservationRepository.findReservedRoomIds(request.getCheckInDate(), request.getCheckOutDate());
 
         log.debug("Rooms already reserved for selected dates: {}", reservedRoomIds);
 
-        List<RoomResponse> unreservedRooms = allRooms.stream()
+        List<RoomResponse> result = roomCatalog.findByTypeAndMinCapacity(request.getRoomType(), request.getNumberOfGuests()).stream()
                 .filter(room -> !reservedRoomIds.contains(room.getId()))
-                .toList();
-
-        List<RoomResponse> result = unreservedRooms.stream()
-                .filter(room -> room.getCapacity() == request.getNumberOfGuests())
-                .filter(room-> room.getRoomType().equals(request.getRoomType()))
                 .collect(Collectors.toList());
 
         log.info("Found {} available rooms for request", result.size());
         return result;
     }
 
-    private boolean datesOverlap(LocalDate existingStart, LocalDate existingEnd, LocalDate newStart, LocalDate newEnd) {
-        return !(existingEnd.isBefore(newStart) || existingStart.isAfter(newEnd.minusDays(1)));
+    /**
+     * Start dates in the request window on which a room of the requested type is free for the
+     * whole stay: the earliest one, or all of them. One sweep over the window's nights tracks,
+     * per candidate room, the last occupied night; a start date works for a room when that
+     * night lies before it.
+     */
+    public List<FlexibleSearchResult> searchFlexibleDates(FlexibleSearchRequest request) {
+        log.info("Flexible search: {} nights of {} for {} guests between {} and {}", request.getNights(),
+                request.getRoomType(), request.getNumberOfGuests(), request.getWindowStart(), request.getWindowEnd());
+
+        List<RoomResponse> candidates = roomCatalog.findByTypeAndMinCapacity(request.getRoomType(), request.getNumberOfGuests());
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        List<Long> roomIds = candidates.stream().map(RoomResponse::getId).toList();
+        LocalDate from = request.getWindowStart();
+        LocalDate to = request.getWindowEnd();
+        boolean[][] occupied = occupancyMatrix.covers(from, to)
+                ? occupancyMatrix.nightsOccupied(roomIds, from, to)
+                : loadNightsOccupied(roomIds, from, to);
+
+        int windowNights = (int) ChronoUnit.DAYS.between(from, to);
+        int nights = request.getNights();
+        int[] lastBusy = new int[candidates.size()];
+        Arrays.fill(lastBusy, -1);
+        List<FlexibleSearchResult> results = new ArrayList<>();
+        for (int night = 0; night < windowNights; night++) {
+            for (int r = 0; r < candidates.size(); r++) {
+                if (occupied[r][night]) {
+                    lastBusy[r] = night;
+                }
+            }
+            int start = night - nights + 1;
+            if (start < 0) {
+                continue;
+            }
+            List<RoomResponse> free = new ArrayList<>();
+            for (int r = 0; r < candidates.size(); r++) {
+                if (lastBusy[r] < start) {
+                    free.add(candidates.get(r));
+                }
+            }
+            if (!free.isEmpty()) {
+                results.add(FlexibleSearchResult.builder()
+                        .checkInDate(from.plusDays(start))
+                        .checkOutDate(from.plusDays(start + nights))
+                        .rooms(free)
+                        .build());
+                if (!request.isAllStarts()) {
+                    break;
+                }
+            }
+        }
+        log.info("Flexible search found {} start dates", results.size());
+        return results;
+    }
+
+    // Windows reaching past the occupancy matrix horizon are read from the database.
+    private boolean[][] loadNightsOccupied(List<Long> roomIds, LocalDate from, LocalDate to) {
+        Map<Long, Integer> indexByRoomId = new HashMap<>();
+        for (int r = 0; r < roomIds.size(); r++) {
+            indexByRoomId.put(roomIds.get(r), r);
+        }
+        boolean[][] occupied = new boolean[roomIds.size()][(int) ChronoUnit.DAYS.between(from, to)];
+        for (Reservation stay : reservationRepository.findByRoomIdInAndCheckInDateLessThanAndCheckOutDateGreaterThan(roomIds, to, from)) {
+            boolean[] nights = occupied[indexByRoomId.get(stay.getRoomId())];
+            int first = (int) Math.max(0, ChronoUnit.DAYS.between(from, stay.getCheckInDate()));
+            int last = (int) Math.min(nights.length, ChronoUnit.DAYS.between(from, stay.getCheckOutDate()));
+            Arrays.fill(nights, first, last, true);
+        }
+        return occupied;
     }
 
-    private String generateReservationCode() {
-        String code = "RESV-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private String generateReservationCode(Long guestId) {
+        String code = codeGenerator.nextCode(guestId);
         log.debug("Generated reservation code: {}", code);
         return code;
     }
 
     public ReservationResponse makeReservation(ReservationRequest request) {
         log.info("Initiating reservation for guestId={}, roomId={}", request.getGuestId(), request.getRoomId());
+        return book(request, "Confirmed", null);
+    }
 
-        GuestResponse guest = guestClient.getGuestById(request.getGuestId());
-        log.info("Validated guest: {} ({})", guest.getName(), guest.getEmail());
+    /**
+     * Same as {@link #makeReservation(ReservationRequest)}, but a retry carrying the same
+     * Idempotency-Key returns the original reservation instead of booking again.
+     */
+    public ReservationResponse makeReservation(ReservationRequest request, String idempotencyKey) {
+        return idempotencyStore.execute("reservations", idempotencyKey, request,
+                new TypeReference<>() {
+                }, () -> makeReservation(request));
+    }
 
-        List<Reservation> conflictingReservations = reservationRepository.findAll().stream()
-                .filter(r -> r.getRoomId().equals(request.getRoomId()) &&
-                        datesOverlap(r.getCheckInDate(), r.getCheckOutDate(), request.getCheckInDate(), request.getCheckOutDate()))
-                .toList();
+    /**
+     * Holds the room while the guest completes payment. The hold blocks the nights like a
+     * confirmed booking until it is confirmed, cancelled or released on expiry.
+     */
+    public ReservationResponse holdReservation(ReservationRequest request) {
+        log.info("Placing hold for guestId={}, roomId={}", request.getGuestId(), request.getRoomId());
+        LocalDateTime expiresAt = LocalDateTime.now().plus(holdTtl);
+        ReservationResponse response = book(request, "Hold", expiresAt);
+        holdExpiry.schedule(response.getId(), expiresAt);
+        return response;
+    }
+
+    public ReservationResponse confirmHold(Long id) {
+        log.info("Confirming hold {}", id);
+        Optional<ReservationChangedEvent> confirmed = transactionTemplate.execute(status -> {
+            if (reservationRepository.confirmHold(id, LocalDateTime.now()) == 0) {
+                return Optional.<ReservationChangedEvent>empty();
+            }
+            viewProjector.updateStatus(id, "Confirmed", null);
+            Optional<ReservationChangedEvent> change = reservationRepository.findById(id)
+                    .map(current -> ReservationChangedEvent.modified(current.toBuilder().status("Hold").build(), current));
+            change.ifPresent(eventStream::record);
+            return change;
+        });
+        if (confirmed == null || confirmed.isEmpty()) {
+            log.warn("Hold {} cannot be confirmed: expired or unknown", id);
+            throw new RoomNotAvailableException("Hold has expired or does not exist: " + id);
+        }
+        holdExpiry.cancel(id);
+        eventPublisher.publishEvent(confirmed.get());
+        return getReservationById(id);
+    }
+
+    private ReservationResponse book(ReservationRequest request, String status, LocalDateTime holdExpiresAt) {
+
+        if (request.getCheckOutDate().isBefore(request.getCheckInDate())) {
+            log.error("Invalid date range: check-out {} is before check-in {}",
+                    request.getCheckOutDate(), request.getCheckInDate());
+            throw new IllegalArgumentException("Check-out date must be after check-in date.");
+        }
+        roomCatalog.requireLoaded();
+
+        Long roomId = request.getRoomId() != null ? request.getRoomId() : assignRoom(request);
+
+        // Guest, conflict and room lookups are independent, so they run concurrently and the
+        // booking waits for the slowest of them instead of their sum.
+        CompletableFuture<GuestResponse> guestLookup = lookup(() -> fetchGuest(request.getGuestId()));
+        CompletableFuture<Boolean> conflictLookup = lookup(() ->
+                hasConflict(roomId, request.getCheckInDate(), request.getCheckOutDate()));
+        CompletableFuture<Optional<RoomResponse>> roomLookup = lookup(() -> roomCatalog.findById(roomId));
 
-        if (!conflictingReservations.isEmpty()) {
+        GuestResponse guest = await(guestLookup, "guest " + request.getGuestId());
+        log.info("Validated guest: {} ({})", guest.getName(), guest.getEmail());
+
+        if (await(conflictLookup, "conflicts for room " + roomId)) {
             log.error("Conflict detected: room {} already reserved between {} and {}",
-                    request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate());
+                    roomId, request.getCheckInDate(), request.getCheckOutDate());
             throw new RoomNotAvailableException("Room is already reserved for the selected dates.");
         }
 
-        RoomResponse room = roomClient.getAllRooms().stream()
-                .filter(r -> r.getId().equals(request.getRoomId()))
-                .findFirst()
+        RoomResponse room = await(roomLookup, "room " + roomId)
                 .orElseThrow(() -> {
-                    log.error("Room {} not found while making reservation", request.getRoomId());
+                    log.error("Room {} not found while making reservation", roomId);
                     return new RoomNotFoundException("Room not available");
                 });
 
-        int totalGuests = request.getNumberOfAdults() + request.getNumberOfChildren();
+        int totalGuests = totalGuests(request);
         if (room.getCapacity() < totalGuests) {
             log.warn("Room {} has capacity {}, which is insufficient for {} guests",
                     room.getRoomNumber(), room.getCapacity(), totalGuests);
             throw new RoomNotAvailableException("Room capacity is insufficient for the number of guests.");
         }
 
-        if (request.getCheckOutDate().isBefore(request.getCheckInDate())) {
-            log.error("Invalid date range: check-out {} is before check-in {}",
-                    request.getCheckOutDate(), request.getCheckInDate());
-            throw new IllegalArgumentException("Check-out date must be after check-in date.");
-        }
-
         Reservation reservation = Reservation.builder()
-                .code(generateReservationCode())
+                .code(generateReservationCode(guest.getId()))
                 .numberOfChildren(request.getNumberOfChildren())
                 .numberOfAdults(request.getNumberOfAdults())
                 .checkInDate(request.getCheckInDate())
                 .checkOutDate(request.getCheckOutDate())
                 .numberOfNights((int) ChronoUnit.DAYS.between(request.getCheckInDate(), request.getCheckOutDate()))
-                .status("Confirmed")
+                .status(status)
                 .guestId(guest.getId())
                 .roomId(room.getId())
+                .holdExpiresAt(holdExpiresAt)
+                .bookedRoomType(request.getRoomId() == null ? room.getRoomType() : null)
                 .build();
 
-        Reservation saved = reservationRepository.save(reservation);
+        // Only the writes run in the transaction, so no connection is held across the remote lookups above.
+        // Room-service learns about the booking through the outbox once the transaction commits.
+        Reservation saved = transactionTemplate.execute(tx -> {
+            Reservation persisted = reservationRepository.save(reservation);
+            roomNightLedger.claim(persisted);
+            viewProjector.record(persisted, guest, room);
+            if (coversToday(persisted)) {
+                roomAvailabilityOutbox.enqueue(persisted.getRoomId(), false);
+            }
+            eventStream.record(ReservationChangedEvent.created(persisted));
+            return persisted;
+        });
+        eventPublisher.publishEvent(ReservationChangedEvent.created(saved));
         log.info("Reservation saved: ID={}, Code={}", saved.getId(), saved.getCode());
 
-        roomClient.updateRoomAvailability(room.getId(), false);
-        log.info("Room {} marked as unavailable", room.getRoomNumber());
+        return toResponse(saved, guest);
+    }
+
+    /**
+     * Books several rooms for one guest atomically: one guest lookup, rooms from one catalog
+     * snapshot, one conflict query over all rooms, and the reservations, room nights and views
+     * inserted as JDBC batches in one transaction.
+     */
+    public List<ReservationResponse> makeBatchReservation(BatchReservationRequest request) {
+        log.info("Initiating batch reservation of {} rooms for guestId={}", request.getRooms().size(), request.getGuestId());
+        List<BatchReservationRequest.Room> items = request.getRooms();
+        rejectOverlapsWithinBatch(items);
+        roomCatalog.requireLoaded();
+
+        Set<Long> roomIds = items.stream().map(BatchReservationRequest.Room::getRoomId).collect(Collectors.toSet());
+        LocalDate earliestCheckIn = items.stream().map(BatchReservationRequest.Room::getCheckInDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate latestCheckOut = items.stream().map(BatchReservationRequest.Room::getCheckOutDate).max(Comparator.naturalOrder()).orElseThrow();
+        CompletableFuture<GuestResponse> guestLookup = lookup(() -> fetchGuest(request.getGuestId()));
+        CompletableFuture<List<Reservation>> conflictLookup = lookup(() ->
+                reservationRepository.findByRoomIdInAndCheckInDateLessThanAndCheckOutDateGreaterThan(roomIds, latestCheckOut, earliestCheckIn));
+        Map<Long, RoomResponse> rooms = roomCatalog.findAllById(roomIds);
+
+        GuestResponse guest = await(guestLookup, "guest " + request.getGuestId());
+        if (rooms.size() < roomIds.size()) {
+            Set<Long> missing = new TreeSet<>(roomIds);
+            missing.removeAll(rooms.keySet());
+            log.error("Rooms {} not found while making batch reservation", missing);
+            throw new RoomNotFoundException("Rooms not available: " + missing);
+        }
+        Map<Long, List<Reservation>> staysByRoom = await(conflictLookup, "conflicts for " + roomIds.size() + " rooms").stream()
+                .collect(Collectors.groupingBy(Reservation::getRoomId));
+
+        List<Reservation> reservations = new ArrayList<>(items.size());
+        for (BatchReservationRequest.Room item : items) {
+            RoomResponse room = rooms.get(item.getRoomId());
+            int totalGuests = item.getNumberOfAdults() + item.getNumberOfChildren();
+            if (room.getCapacity() < totalGuests) {
+                log.warn("Room {} has capacity {}, which is insufficient for {} guests",
+                        room.getRoomNumber(), room.getCapacity(), totalGuests);
+                throw new RoomNotAvailableException("Room " + room.getRoomNumber() + " capacity is insufficient for the number of guests.");
+            }
+            boolean conflict = staysByRoom.getOrDefault(item.getRoomId(), List.of()).stream()
+                    .anyMatch(stay -> stay.getCheckInDate().isBefore(item.getCheckOutDate())
+                            && stay.getCheckOutDate().isAfter(item.getCheckInDate()));
+            if (conflict) {
+                log.error("Conflict detected: room {} already reserved between {} and {}",
+                        item.getRoomId(), item.getCheckInDate(), item.getCheckOutDate());
+                throw new RoomNotAvailableException("Room " + room.getRoomNumber() + " is already reserved for the selected dates.");
+            }
+            reservations.add(Reservation.builder()
+                    .code(generateReservationCode(guest.getId()))
+                    .numberOfChildren(item.getNumberOfChildren())
+                    .numberOfAdults(item.getNumberOfAdults())
+                    .checkInDate(item.getCheckInDate())
+                    .checkOutDate(item.getCheckOutDate())
+                    .numberOfNights((int) ChronoUnit.DAYS.between(item.getCheckInDate(), item.getCheckOutDate()))
+                    .status("Confirmed")
+                    .guestId(guest.getId())
+                    .roomId(room.getId())
+                    .build());
+        }
+
+        List<ReservationChangedEvent> changes = transactionTemplate.execute(tx -> {
+            reservationRepository.insertAll(reservations);
+            roomNightLedger.claimAll(reservations);
+            reservations.forEach(reservation -> viewProjector.record(reservation, guest, rooms.get(reservation.getRoomId())));
+            reservations.stream()
+                    .filter(ReservationService::coversToday)
+                    .forEach(reservation -> roomAvailabilityOutbox.enqueue(reservation.getRoomId(), false));
+            List<ReservationChangedEvent> created = reservations.stream().map(ReservationChangedEvent::created).toList();
+            eventStream.recordAll(created);
+            return created;
+        });
+        changes.forEach(eventPublisher::publishEvent);
+        log.info("Batch reservation saved: {} rooms for guestId={}", reservations.size(), guest.getId());
+
+        return reservations.stream()
+                .map(reservation -> toResponse(reservation, guest))
+                .collect(Collectors.toList());
+    }
 
-        return toResponse(saved);
+    public List<ReservationResponse> makeBatchReservation(BatchReservationRequest request, String idempotencyKey) {
+        return idempotencyStore.execute("reservation-batches", idempotencyKey, request,
+                new TypeReference<>() {
+                }, () -> makeBatchReservation(request));
     }
 
+    // Two items for the same room and overlapping nights would otherwise only fail on the ledger
+    private static void rejectOverlapsWithinBatch(List<BatchReservationRequest.Room> items) {
+        Map<Long, List<BatchReservationRequest.Room>> byRoom = items.stream()
+                .collect(Collectors.groupingBy(BatchReservationRequest.Room::getRoomId));
+        for (List<BatchReservationRequest.Room> sameRoom : byRoom.values()) {
+            List<BatchReservationRequest.Room> sorted = new ArrayList<>(sameRoom);
+            sorted.sort(Comparator.comparing(BatchReservationRequest.Room::getCheckInDate));
+            for (int i = 1; i < sorted.size(); i++) {
+                if (sorted.get(i).getCheckInDate().isBefore(sorted.get(i - 1).getCheckOutDate())) {
+                    throw new RoomNotAvailableException("Room " + sorted.get(i).getRoomId() + " is requested twice for overlapping dates.");
+                }
+            }
+        }
+    }
+
+    // Booking by room type: the best-fitting free room of that type, which the night audit may change later
+    private Long assignRoom(ReservationRequest request) {
+        return roomAssigner.chooseRoom(request.getRoomType(), totalGuests(request),
+                        request.getCheckInDate(), request.getCheckOutDate())
+                .map(RoomResponse::getId)
+                .orElseThrow(() -> {
+                    log.warn("No {} room free between {} and {}", request.getRoomType(),
+                            request.getCheckInDate(), request.getCheckOutDate());
+                    return new RoomNotAvailableException("No " + request.getRoomType() + " room is available for the selected dates.");
+                });
+    }
+
+    private static int totalGuests(ReservationRequest request) {
+        return request.getNumberOfAdults() + request.getNumberOfChildren();
+    }
+
+    // The local index rejects known conflicts without a query; the database has the final say
+    // since other instances may have booked the room since this index was built.
+    private boolean hasConflict(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        return occupancyIndex.isOccupied(roomId, checkIn, checkOut)
+                || reservationRepository.existsByRoomIdAndCheckInDateLessThanAndCheckOutDateGreaterThan(roomId, checkOut, checkIn);
+    }
+
+    // A room's availability flag reflects whether it is occupied tonight; later stays are left to
+    // RoomAvailabilityReconciler, which flips the flag when they start.
+    private static boolean coversToday(Reservation reservation) {
+        return reservation.coversNight(LocalDate.now());
+    }
+
+    private GuestResponse fetchGuest(Long guestId) {
+        try {
+            return guestClient.getGuestById(guestId);
+        } catch (FeignException.NotFound e) {
+            log.error("Guest {} not found while making reservation", guestId);
+            throw new GuestNotFoundException("Guest not found with ID: " + guestId);
+        }
+    }
+
+    private <T> CompletableFuture<T> lookup(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, applicationTaskExecutor)
+                .orTimeout(lookupTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private <T> T await(CompletableFuture<T> lookup, String what) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                log.error("Timed out after {} ms looking up {}", lookupTimeoutMs, what);
+                throw new RoomNotAvailableException("Reservation could not be validated in time, please retry.");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Reads by id, code or in bulk are served from the reservation_view read model without remote calls.
     public List<ReservationResponse> getAllReservations() {
         log.debug("Fetching all reservations");
-        List<ReservationResponse> reservations = reservationRepository.findAll().stream()
-                .map(this::toResponse)
+        List<ReservationResponse> reservations = viewRepository.findAllByOrderByIdAsc().stream()
+                .map(ReservationViewProjector::toResponse)
                 .collect(Collectors.toList());
 
         log.info("Retrieved {} reservations", reservations.size());
         return reservations;
     }
 
+    public ReservationPage getReservationPage(Long afterId, int limit, ReservationFilter filter) {
+        log.debug("Fetching reservation page after ID {} (limit {}) with filter {}", afterId, limit, filter);
+
+        // One extra row tells us whether another page follows without a count query.
+        List<Reservation> rows = reservationRepository.findPage(afterId != null ? afterId : 0L,
+                filter.getStatus(), filter.getRoomId(), filter.getFrom(), filter.getTo(),
+                PageRequest.of(0, limit + 1));
+
+        boolean hasMore = rows.size() > limit;
+        List<Reservation> page = hasMore ? rows.subList(0, limit) : rows;
+
+        return ReservationPage.builder()
+                .items(toResponses(page))
+                .nextCursor(hasMore ? page.get(page.size() - 1).getId() : null)
+                .build();
+    }
+
+    // Stays moved out by ReservationArchiver are only found here, not by the lookups above
+    public ReservationPage getArchivedReservationPage(Long afterId, int limit, ReservationFilter filter, Long guestId) {
+        log.debug("Fetching archived reservation page after ID {} (limit {}) with filter {} and guest {}",
+                afterId, limit, filter, guestId);
+
+        List<ArchivedReservation> rows = archiveRepository.findPage(afterId != null ? afterId : 0L,
+                filter.getStatus(), filter.getRoomId(), guestId, filter.getFrom(), filter.getTo(),
+                PageRequest.of(0, limit + 1));
+
+        boolean hasMore = rows.size() > limit;
+        List<ArchivedReservation> page = hasMore ? rows.subList(0, limit) : rows;
+
+        return ReservationPage.builder()
+                .items(page.stream().map(ReservationService::toResponse).toList())
+                .nextCursor(hasMore ? page.get(page.size() - 1).getId() : null)
+                .build();
+    }
+
+    public ReservationResponse getArchivedByCode(String code) {
+        log.debug("Looking up archived reservation by code: {}", code);
+
+        return archiveRepository.findByCode(code)
+                .map(ReservationService::toResponse)
+                .orElseThrow(() -> {
+                    log.warn("No archived reservation found for code {}", code);
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, "Archived reservation not found for code: " + code);
+                });
+    }
+
+    /**
+     * Writes every matching reservation as one JSON object per line. Rows are read from a
+     * database cursor and hydrated in fixed-size chunks, so memory stays flat regardless of
+     * how many reservations match.
+     */
+    @Transactional(readOnly = true)
+    public void exportReservations(ReservationFilter filter, OutputStream out) throws IOException {
+        log.info("Exporting reservations with filter {}", filter);
+
+        List<Reservation> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        int exported = 0;
+        try (Stream<Reservation> rows = reservationRepository.streamAll(
+                filter.getStatus(), filter.getRoomId(), filter.getFrom(), filter.getTo())) {
+            Iterator<Reservation> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Reservation reservation = iterator.next();
+                // keep the persistence context from growing with the export
+                entityManager.detach(reservation);
+                chunk.add(reservation);
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    exported += writeLines(chunk, out);
+                    chunk.clear();
+                }
+            }
+        }
+        exported += writeLines(chunk, out);
+        log.info("Exported {} reservations", exported);
+    }
+
+    private int writeLines(List<Reservation> chunk, OutputStream out) throws IOException {
+        for (ReservationResponse response : toResponses(chunk)) {
+            out.write(objectMapper.writeValueAsBytes(response));
+            out.write('\n');
+        }
+        out.flush();
+        return chunk.size();
+    }
+
+    /**
+     * Maps a batch of reservations, resolving all of their guests with a single guest-service call.
+     */
+    private List<ReservationResponse> toResponses(List<Reservation> reservations) {
+        Set<Long> guestIds = reservations.stream()
+                .map(Reservation::getGuestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<Long, GuestResponse> guests = new HashMap<>();
+        if (!guestIds.isEmpty()) {
+            try {
+                guestClient.getGuestsByIds(guestIds).forEach(guest -> guests.put(guest.getId(), guest));
+            } catch (Exception e) {
+                log.warn("Failed to fetch {} guests for reservation batch: {}", guestIds.size(), e.getMessage());
+            }
+        }
+
+        return reservations.stream()
+                .map(reservation -> toResponse(reservation, guests.get(reservation.getGuestId())))
+                .collect(Collectors.toList());
+    }
+
     private ReservationResponse toResponse(Reservation reservation) {
         GuestResponse guest = null;
         try {
@@ -144,11 +676,11 @@ public class ReservationService {
         } catch (Exception e) {
             log.warn("Failed to fetch guest {} for reservation ID {}: {}", reservation.getGuestId(), reservation.getId(), e.getMessage());
         }
+        return toResponse(reservation, guest);
+    }
 
-        RoomResponse room = roomClient.getAllRooms().stream()
-                .filter(r -> r.getId().equals(reservation.getRoomId()))
-                .findFirst()
-                .orElse(null);
+    private ReservationResponse toResponse(Reservation reservation, GuestResponse guest) {
+        RoomResponse room = roomCatalog.getCached(reservation.getRoomId()).orElse(null);
 
         if (room == null) {
             log.warn("Room {} not found for reservation ID {}. Returning partial reservation data.", reservation.getRoomId(), reservation.getId());
@@ -170,62 +702,277 @@ public class ReservationService {
                 .numberOfNights(reservation.getNumberOfNights())
                 .guestId(reservation.getGuestId())
                 .roomId(reservation.getRoomId())
-                .guestName(guest.getName())
-                .guestEmail(guest.getEmail())
+                .guestName(guest != null ? guest.getName() : null)
+                .guestEmail(guest != null ? guest.getEmail() : null)
 //                .roomNumber(room.getRoomNumber())
 //                .roomType(room.getRoomType())
 //                .rate(room.getPricePerNight())
                 .roomNumber(room != null ? room.getRoomNumber() : "N/A")
                 .roomType(room != null ? room.getRoomType() : "Unknown")
                 .rate(room != null ? room.getPricePerNight() : 0.0)
+                .holdExpiresAt(reservation.getHoldExpiresAt())
 
                 .build();
     }
 
-    public void updateRoomAvailability(Long roomId, boolean available) {
-        log.info("Evaluating availability update for room ID {} to {}", roomId, available);
+    private static ReservationResponse toResponse(ArchivedReservation archived) {
+        return ReservationResponse.builder()
+                .id(archived.getId())
+                .code(archived.getCode())
+                .numberOfChildren(archived.getNumberOfChildren())
+                .numberOfAdults(archived.getNumberOfAdults())
+                .checkInDate(archived.getCheckInDate())
+                .checkOutDate(archived.getCheckOutDate())
+                .status(archived.getStatus())
+                .numberOfNights(archived.getNumberOfNights())
+                .guestId(archived.getGuestId())
+                .roomId(archived.getRoomId())
+                .guestName(archived.getGuestName())
+                .guestEmail(archived.getGuestEmail())
+                .roomNumber(archived.getRoomNumber())
+                .roomType(archived.getRoomType())
+                .rate(archived.getRate())
+                .build();
+    }
 
-        boolean stillReserved = reservationRepository.findAll().stream()
-                .anyMatch(reservation -> reservation.getRoomId().equals(roomId) &&
-                        reservation.getCheckOutDate().isAfter(LocalDate.now()));
+    // Nights [from, to) of a stay
+    private record NightRange(LocalDate from, LocalDate to) {
+    }
 
-        if (!stillReserved) {
-            log.info("Room ID {} has no active reservations. Marking available.", roomId);
-            roomClient.updateRoomAvailability(roomId, true);
-        } else {
-            log.info("Room ID {} is still reserved. Keeping as unavailable.", roomId);
-            roomClient.updateRoomAvailability(roomId, false);
+    /**
+     * Changes the dates, room or guest counts of a reservation in place, keeping its id and
+     * code. Only the nights that change are touched: nights added to the stay are checked
+     * against the occupancy index and claimed, nights it gives up are released, and the nights
+     * kept stay claimed throughout, so no one else can take the room mid-change.
+     */
+    public ReservationResponse updateReservation(Long id, ReservationUpdateRequest request) {
+        log.info("Updating reservation {} with {}", id, request);
+        Reservation previous = reservationRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("Reservation not found with ID: {}", id);
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, "Reservation not found with id: " + id);
+                });
+        if ("Cancelled".equals(previous.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A cancelled reservation cannot be changed.");
+        }
+        Reservation updated = previous.toBuilder()
+                .checkInDate(Objects.requireNonNullElse(request.getCheckInDate(), previous.getCheckInDate()))
+                .checkOutDate(Objects.requireNonNullElse(request.getCheckOutDate(), previous.getCheckOutDate()))
+                .roomId(Objects.requireNonNullElse(request.getRoomId(), previous.getRoomId()))
+                .numberOfAdults(Objects.requireNonNullElse(request.getNumberOfAdults(), previous.getNumberOfAdults()))
+                .numberOfChildren(Objects.requireNonNullElse(request.getNumberOfChildren(), previous.getNumberOfChildren()))
+                .build();
+        boolean roomChanged = !updated.getRoomId().equals(previous.getRoomId());
+        if (roomChanged) {
+            // pinned to the room asked for; the night audit no longer moves it
+            updated.setBookedRoomType(null);
+        }
+        validateUpdate(previous, updated, roomChanged);
+        roomCatalog.requireLoaded();
+        updated.setNumberOfNights((int) ChronoUnit.DAYS.between(updated.getCheckInDate(), updated.getCheckOutDate()));
+
+        RoomResponse room = roomCatalog.findById(updated.getRoomId())
+                .orElseThrow(() -> {
+                    log.error("Room {} not found while updating reservation {}", updated.getRoomId(), id);
+                    return new RoomNotFoundException("Room not available");
+                });
+        int totalGuests = updated.getNumberOfAdults() + updated.getNumberOfChildren();
+        if (room.getCapacity() < totalGuests) {
+            log.warn("Room {} has capacity {}, which is insufficient for {} guests",
+                    room.getRoomNumber(), room.getCapacity(), totalGuests);
+            throw new RoomNotAvailableException("Room capacity is insufficient for the number of guests.");
+        }
+
+        List<NightRange> added = roomChanged ? List.of(nightsOf(updated)) : nightsNotIn(updated, previous);
+        List<NightRange> dropped = roomChanged ? List.of(nightsOf(previous)) : nightsNotIn(previous, updated);
+        for (NightRange nights : added) {
+            boolean taken = occupancyIndex.overlapping(updated.getRoomId(), nights.from(), nights.to()).stream()
+                    .anyMatch(stay -> !id.equals(stay.reservationId()));
+            if (taken) {
+                log.error("Conflict detected: room {} already reserved between {} and {}",
+                        updated.getRoomId(), nights.from(), nights.to());
+                throw new RoomNotAvailableException("Room is already reserved for the selected dates.");
+            }
+        }
+
+        ReservationChangedEvent change = ReservationChangedEvent.modified(previous, updated);
+        // The ledger has the final say on the added nights, as for a new booking
+        transactionTemplate.executeWithoutResult(tx -> {
+            Reservation current = reservationRepository.lockAllById(List.of(id)).stream().findFirst()
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Reservation not found with id: " + id));
+            if (!sameStay(current, previous)) {
+                throw new RoomNotAvailableException("Reservation was changed concurrently, please retry.");
+            }
+            dropped.forEach(nights -> roomNightLedger.release(id, nights.from(), nights.to()));
+            added.forEach(nights -> roomNightLedger.claim(updated, nights.from(), nights.to()));
+            current.setCheckInDate(updated.getCheckInDate());
+            current.setCheckOutDate(updated.getCheckOutDate());
+            current.setNumberOfNights(updated.getNumberOfNights());
+            current.setNumberOfAdults(updated.getNumberOfAdults());
+            current.setNumberOfChildren(updated.getNumberOfChildren());
+            current.setRoomId(updated.getRoomId());
+            current.setBookedRoomType(updated.getBookedRoomType());
+            viewProjector.updateStay(updated);
+            if (roomChanged) {
+                viewProjector.moveToRoom(id, room);
+            }
+            boolean wasTonight = coversToday(previous);
+            boolean isTonight = coversToday(updated);
+            if (wasTonight && (!isTonight || roomChanged)) {
+                roomAvailabilityOutbox.enqueue(previous.getRoomId(), true);
+            }
+            if (isTonight && (!wasTonight || roomChanged)) {
+                roomAvailabilityOutbox.enqueue(updated.getRoomId(), false);
+            }
+            eventStream.record(change);
+        });
+        eventPublisher.publishEvent(change);
+        log.info("Reservation {} updated: {} nights claimed, {} released", id,
+                added.stream().mapToLong(ReservationService::nightCount).sum(),
+                dropped.stream().mapToLong(ReservationService::nightCount).sum());
+        return getReservationById(id);
+    }
+
+    private static void validateUpdate(Reservation previous, Reservation updated, boolean roomChanged) {
+        LocalDate today = LocalDate.now();
+        if (!updated.getCheckOutDate().isAfter(updated.getCheckInDate())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Check-out date must be after check-in date.");
+        }
+        if (previous.getCheckInDate().isBefore(today)) {
+            if (roomChanged || !updated.getCheckInDate().equals(previous.getCheckInDate())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The stay has started: only its check-out date can change.");
+            }
+            if (!updated.getCheckOutDate().isAfter(today)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Check-out date must be after today.");
+            }
+        } else if (updated.getCheckInDate().isBefore(today)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Check-in date must be today or later.");
         }
     }
 
+    private static boolean sameStay(Reservation a, Reservation b) {
+        return a.getRoomId().equals(b.getRoomId())
+                && a.getCheckInDate().equals(b.getCheckInDate())
+                && a.getCheckOutDate().equals(b.getCheckOutDate())
+                && a.getNumberOfAdults() == b.getNumberOfAdults()
+                && a.getNumberOfChildren() == b.getNumberOfChildren()
+                && Objects.equals(a.getStatus(), b.getStatus());
+    }
+
+    private static NightRange nightsOf(Reservation reservation) {
+        return new NightRange(reservation.getCheckInDate(), reservation.getCheckOutDate());
+    }
+
+    // Nights of a's stay that b's stay does not cover: at most one range before b and one after it
+    private static List<NightRange> nightsNotIn(Reservation a, Reservation b) {
+        List<NightRange> ranges = new ArrayList<>(2);
+        if (a.getCheckInDate().isBefore(b.getCheckInDate())) {
+            LocalDate to = a.getCheckOutDate().isBefore(b.getCheckInDate()) ? a.getCheckOutDate() : b.getCheckInDate();
+            ranges.add(new NightRange(a.getCheckInDate(), to));
+        }
+        if (a.getCheckOutDate().isAfter(b.getCheckOutDate())) {
+            LocalDate from = a.getCheckInDate().isAfter(b.getCheckOutDate()) ? a.getCheckInDate() : b.getCheckOutDate();
+            ranges.add(new NightRange(from, a.getCheckOutDate()));
+        }
+        return ranges;
+    }
+
+    private static long nightCount(NightRange nights) {
+        return ChronoUnit.DAYS.between(nights.from(), nights.to());
+    }
+
+    /**
+     * Cancels a reservation by marking it "Cancelled": the row stays for history, its nights are
+     * released and it no longer counts in search or conflict checks. Cancelling an already
+     * cancelled reservation does nothing.
+     */
     public void cancelReservation(Long id) {
         log.warn("Cancelling reservation ID {}", id);
 
-        Reservation reservation = reservationRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.error("Reservation {} not found for cancellation", id);
-                    return new RuntimeException("Reservation not found");
-                });
+        if (!reservationRepository.existsById(id)) {
+            log.error("Reservation {} not found for cancellation", id);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Reservation not found with id: " + id);
+        }
 
-        try {
-            roomClient.updateRoomAvailability(reservation.getRoomId(), true);
-            log.info("Room {} marked available", reservation.getRoomId());
-        } catch (Exception e) {
-            log.warn("Failed to update room availability for room {}: {}", reservation.getRoomId(), e.getMessage());
+        if (cancel(List.of(id)).isEmpty()) {
+            log.info("Reservation {} was already cancelled", id);
+            return;
         }
+        log.info("Reservation {} successfully cancelled", id);
+    }
 
-        reservationRepository.deleteById(id);
-        log.info("Reservation {} successfully cancelled", reservation.getId());
+    /**
+     * Cancels the reservations picked by ids, codes or a filter in one transaction: one status
+     * update, one ledger release and one view update for all of them, and one outbox update per
+     * room freed tonight, which the outbox delivers to room-service in a single batched call.
+     */
+    public BulkCancelResponse cancelReservations(BulkCancelRequest request) {
+        List<Long> ids;
+        int requested;
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            ids = request.getIds().stream().distinct().toList();
+            requested = ids.size();
+        } else if (request.getCodes() != null && !request.getCodes().isEmpty()) {
+            List<String> codes = request.getCodes().stream().distinct().toList();
+            ids = reservationRepository.findIdsByCodeIn(codes);
+            requested = codes.size();
+        } else {
+            ReservationFilter filter = request.getFilter();
+            // Stays that have checked out are never cancelled, whatever the filter's range
+            LocalDate today = LocalDate.now();
+            LocalDate from = filter.getFrom() == null || filter.getFrom().isBefore(today) ? today : filter.getFrom();
+            ids = reservationRepository.findActiveIds(filter.getStatus(), filter.getRoomId(),
+                    from, filter.getTo(), PageRequest.of(0, bulkCancelLimit + 1));
+            if (ids.size() > bulkCancelLimit) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Filter matches more than " + bulkCancelLimit + " reservations, narrow it down.");
+            }
+            requested = ids.size();
+        }
+        log.warn("Bulk cancelling {} reservations", ids.size());
+
+        List<Long> cancelledIds = ids.isEmpty() ? List.of() : cancel(ids).stream()
+                .map(Reservation::getId)
+                .sorted()
+                .toList();
+        log.info("Bulk cancel: {} reservations cancelled, {} skipped", cancelledIds.size(), requested - cancelledIds.size());
+        return BulkCancelResponse.builder()
+                .cancelledIds(cancelledIds)
+                .skipped(requested - cancelledIds.size())
+                .build();
+    }
 
+    // Cancels those of the given reservations not cancelled yet; returns them as they were before
+    private List<Reservation> cancel(Collection<Long> ids) {
+        List<Reservation> cancelled = transactionTemplate.execute(tx -> {
+            List<Reservation> active = reservationRepository.lockActiveById(ids);
+            if (active.isEmpty()) {
+                return active;
+            }
+            List<Long> activeIds = active.stream().map(Reservation::getId).toList();
+            reservationRepository.cancelAll(activeIds);
+            roomNightLedger.releaseAll(activeIds);
+            viewProjector.markCancelled(activeIds);
+            roomAvailabilityOutbox.enqueueAll(active.stream()
+                    .filter(ReservationService::coversToday)
+                    .map(Reservation::getRoomId)
+                    .toList(), true);
+            eventStream.recordAll(active.stream().map(ReservationChangedEvent::cancelled).toList());
+            return active;
+        });
+        cancelled.stream()
+                .filter(reservation -> "Hold".equals(reservation.getStatus()))
+                .forEach(reservation -> holdExpiry.cancel(reservation.getId()));
+        cancelled.forEach(reservation -> eventPublisher.publishEvent(ReservationChangedEvent.cancelled(reservation)));
+        return cancelled;
     }
 
     public ReservationResponse getByCode(String code) {
         log.debug("Looking up reservation by code: {}", code);
 
-        return reservationRepository.findAll().stream()
-                .filter(r -> r.getCode().equals(code))
-                .findFirst()
-                .map(this::toResponse)
+        return viewRepository.findByCode(code)
+                .map(ReservationViewProjector::toResponse)
+                .or(() -> reservationRepository.findByCode(code).map(this::toResponse))
                 .orElseThrow(() -> {
                     log.warn("No reservation found for code {}", code);
                     return new ResponseStatusException(HttpStatus.NOT_FOUND, "Reservation not found for code: " + code);
@@ -235,8 +982,10 @@ public class ReservationService {
     public ReservationResponse getReservationById(Long id) {
         log.debug("Fetching reservation by ID: {}", id);
 
-        return reservationRepository.findById(id)
-                .map(this::toResponse)
+        return viewRepository.findById(id)
+                .map(ReservationViewProjector::toResponse)
+                // reservations not yet backfilled into the view
+                .or(() -> reservationRepository.findById(id).map(this::toResponse))
                 .orElseThrow(() -> {
                     log.warn("Reservation not found with ID: {}", id);
                     return new ResponseStatusException(HttpStatus.NOT_FOUND, "Reservation not found with id: ");
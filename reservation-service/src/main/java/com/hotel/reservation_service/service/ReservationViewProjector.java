@@ -0,0 +1,206 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.client.GuestClient;
+import com.hotel.reservation_service.dto.GuestChange;
+import com.hotel.reservation_service.dto.GuestResponse;
+import com.hotel.reservation_service.dto.ReservationResponse;
+import com.hotel.reservation_service.dto.RoomResponse;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.entity.ReservationView;
+import com.hotel.reservation_service.event.RoomDetailsChangedEvent;
+import com.hotel.reservation_service.repository.ReservationRepository;
+import com.hotel.reservation_service.repository.ReservationViewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the reservation_view read model. Reservation writes call {@link #record} and
+ * {@link #remove} inside their own transaction, so the view never disagrees with the
+ * reservation table. Guest names and emails follow guest-service through its change feed;
+ * room details follow the room catalog reloads.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationViewProjector {
+
+    private static final int BACKFILL_CHUNK_SIZE = 500;
+
+    private final ReservationViewRepository viewRepository;
+    private final ReservationRepository reservationRepository;
+    private final GuestClient guestClient;
+    private final RoomCatalogCache roomCatalog;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${reservation.view.guest-sync-batch-size:500}")
+    private int guestSyncBatchSize = 500;
+
+    // How far back the first poll after startup looks, to catch changes made while this instance was down
+    @Value("${reservation.view.guest-sync-lookback:PT24H}")
+    private Duration guestSyncLookback = Duration.ofHours(24);
+
+    private LocalDateTime guestCursor;
+
+    /**
+     * Writes the view row for a new reservation. Must run in the reservation's transaction.
+     */
+    public void record(Reservation reservation, GuestResponse guest, RoomResponse room) {
+        viewRepository.save(ReservationView.builder()
+                .id(reservation.getId())
+                .code(reservation.getCode())
+                .numberOfChildren(reservation.getNumberOfChildren())
+                .numberOfAdults(reservation.getNumberOfAdults())
+                .checkInDate(reservation.getCheckInDate())
+                .checkOutDate(reservation.getCheckOutDate())
+                .status(reservation.getStatus())
+                .numberOfNights(reservation.getNumberOfNights())
+                .holdExpiresAt(reservation.getHoldExpiresAt())
+                .guestId(reservation.getGuestId())
+                .guestName(guest != null ? guest.getName() : null)
+                .guestEmail(guest != null ? guest.getEmail() : null)
+                .roomId(reservation.getRoomId())
+                .roomNumber(room != null ? room.getRoomNumber() : "N/A")
+                .roomType(room != null ? room.getRoomType() : "Unknown")
+                .rate(room != null ? room.getPricePerNight() : 0.0)
+                .build());
+    }
+
+    public void updateStatus(Long reservationId, String status, LocalDateTime holdExpiresAt) {
+        viewRepository.updateStatus(reservationId, status, holdExpiresAt);
+    }
+
+    public void markCancelled(Collection<Long> reservationIds) {
+        if (!reservationIds.isEmpty()) {
+            viewRepository.updateStatusIn(reservationIds, "Cancelled");
+        }
+    }
+
+    public void updateStay(Reservation reservation) {
+        viewRepository.updateStay(reservation.getId(), reservation.getCheckInDate(), reservation.getCheckOutDate(),
+                reservation.getNumberOfNights(), reservation.getNumberOfAdults(), reservation.getNumberOfChildren());
+    }
+
+    public void moveToRoom(Long reservationId, RoomResponse room) {
+        viewRepository.moveToRoom(reservationId, room.getId(), room.getRoomNumber(), room.getRoomType(), room.getPricePerNight());
+    }
+
+    public void remove(Collection<Long> reservationIds) {
+        if (!reservationIds.isEmpty()) {
+            viewRepository.deleteByIdIn(reservationIds);
+        }
+    }
+
+    public static ReservationResponse toResponse(ReservationView view) {
+        return ReservationResponse.builder()
+                .id(view.getId())
+                .code(view.getCode())
+                .numberOfChildren(view.getNumberOfChildren())
+                .numberOfAdults(view.getNumberOfAdults())
+                .checkInDate(view.getCheckInDate())
+                .checkOutDate(view.getCheckOutDate())
+                .status(view.getStatus())
+                .numberOfNights(view.getNumberOfNights())
+                .guestId(view.getGuestId())
+                .roomId(view.getRoomId())
+                .guestName(view.getGuestName())
+                .guestEmail(view.getGuestEmail())
+                .roomNumber(view.getRoomNumber())
+                .roomType(view.getRoomType())
+                .rate(view.getRate())
+                .holdExpiresAt(view.getHoldExpiresAt())
+                .build();
+    }
+
+    @EventListener
+    public void onRoomDetailsChanged(RoomDetailsChangedEvent event) {
+        Integer updated = transactionTemplate.execute(status -> event.rooms().stream()
+                .mapToInt(room -> viewRepository.updateRoom(room.getId(), room.getRoomNumber(),
+                        room.getRoomType(), room.getPricePerNight()))
+                .sum());
+        log.info("Refreshed room details of {} reservation views for {} changed rooms", updated, event.rooms().size());
+    }
+
+    /**
+     * Applies guest-service's change feed to the view. Entries at the cursor's own timestamp are
+     * fetched again on the next poll, which is harmless since applying one is idempotent.
+     */
+    @Scheduled(fixedDelayString = "${reservation.view.guest-sync-interval-ms:10000}",
+            initialDelayString = "${reservation.view.guest-sync-interval-ms:10000}")
+    public void syncGuestChanges() {
+        if (guestCursor == null) {
+            guestCursor = LocalDateTime.now().minus(guestSyncLookback);
+        }
+        try {
+            List<GuestChange> changes;
+            do {
+                LocalDateTime since = guestCursor;
+                changes = guestClient.getGuestChanges(since.toString(), guestSyncBatchSize);
+                if (changes.isEmpty()) {
+                    return;
+                }
+                List<GuestChange> batch = changes;
+                transactionTemplate.executeWithoutResult(status -> batch.forEach(change ->
+                        viewRepository.updateGuest(change.getId(), change.getName(), change.getEmail())));
+                guestCursor = changes.get(changes.size() - 1).getUpdatedAt();
+                if (changes.size() == guestSyncBatchSize && guestCursor.equals(since)) {
+                    // A full batch sharing one timestamp: stepping past it is the only way forward
+                    log.warn("More than {} guest changes at {}, some may be skipped", guestSyncBatchSize, since);
+                    guestCursor = since.plusNanos(1000);
+                }
+            } while (changes.size() == guestSyncBatchSize);
+        } catch (Exception e) {
+            log.warn("Guest change sync failed, retrying from {}: {}", guestCursor, e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the missing view rows for reservations made before the read model existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        List<Long> missing = viewRepository.findReservationIdsWithoutView();
+        if (missing.isEmpty()) {
+            return;
+        }
+        log.info("Backfilling {} reservation views", missing.size());
+        for (int from = 0; from < missing.size(); from += BACKFILL_CHUNK_SIZE) {
+            List<Long> chunk = missing.subList(from, Math.min(from + BACKFILL_CHUNK_SIZE, missing.size()));
+            try {
+                backfillChunk(chunk);
+            } catch (Exception e) {
+                // Reads fall back to the reservation table for these until the next startup
+                log.warn("Failed to backfill {} reservation views: {}", chunk.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void backfillChunk(List<Long> reservationIds) {
+        Set<Long> guestIds = reservationRepository.findAllById(reservationIds).stream()
+                .map(Reservation::getGuestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, GuestResponse> guests = new HashMap<>();
+        guestClient.getGuestsByIds(guestIds).forEach(guest -> guests.put(guest.getId(), guest));
+
+        // Re-read in the transaction, so a reservation cancelled during the guest lookup gets no view
+        transactionTemplate.executeWithoutResult(status -> reservationRepository.findAllById(reservationIds)
+                .forEach(reservation -> record(reservation, guests.get(reservation.getGuestId()),
+                        roomCatalog.getCached(reservation.getRoomId()).orElse(null))));
+    }
+}
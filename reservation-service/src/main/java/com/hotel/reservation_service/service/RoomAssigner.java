@@ -0,0 +1,184 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.dto.RoomResponse;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import com.hotel.reservation_service.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Picks and re-picks physical rooms for bookings made by room type, using
+ * {@link RoomAssignmentOptimizer}. A booking gets the best-fitting free room at once; the
+ * night audit then repacks each type's future type-booked stays, since the best choice for
+ * a booking depends on the bookings that came after it.
+ *
+ * Stays booked for a specific room, holds, and stays that have started are never moved. The
+ * audit runs on one instance at a time, under a {@link ClusterLock}, so two instances never
+ * repack the same type at once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomAssigner {
+
+    static final String NIGHT_AUDIT_LOCK = "night-audit";
+
+    private final RoomCatalogCache roomCatalog;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final ReservationRepository reservationRepository;
+    private final RoomNightLedger roomNightLedger;
+    private final ReservationViewProjector viewProjector;
+    private final ReservationEventStream eventStream;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterLock clusterLock;
+
+    /**
+     * The room of the given type for a new stay, as seen by this instance's occupancy index;
+     * the booking's conflict check and room-night claim still have the final say.
+     */
+    public Optional<RoomResponse> chooseRoom(String roomType, int guests, LocalDate checkIn, LocalDate checkOut) {
+        Map<Long, RoomResponse> candidates = new LinkedHashMap<>();
+        roomCatalog.findByTypeAndMinCapacity(roomType, guests).forEach(room -> candidates.put(room.getId(), room));
+        List<RoomAssignmentOptimizer.Room> rooms = candidates.values().stream()
+                .map(room -> new RoomAssignmentOptimizer.Room(room.getId(), room.getCapacity()))
+                .toList();
+        return RoomAssignmentOptimizer.bestFit(rooms,
+                        new RoomAssignmentOptimizer.Stay(null, checkIn, checkOut, guests), occupancyIndex)
+                .map(room -> candidates.get(room.id()));
+    }
+
+    @Scheduled(cron = "${reservation.assignment.night-audit-cron:0 30 3 * * *}")
+    public void nightAudit() {
+        clusterLock.runExclusively(NIGHT_AUDIT_LOCK, this::auditAllTypes);
+    }
+
+    private void auditAllTypes() {
+        LocalDate today = LocalDate.now();
+        Map<String, List<RoomResponse>> roomsByType = roomCatalog.getAll().stream()
+                .collect(Collectors.groupingBy(RoomResponse::getRoomType, TreeMap::new, Collectors.toList()));
+        int moved = 0;
+        for (Map.Entry<String, List<RoomResponse>> type : roomsByType.entrySet()) {
+            try {
+                moved += reassign(type.getKey(), type.getValue(), today);
+            } catch (RuntimeException e) {
+                // Typically a booking claimed one of the target nights meanwhile; next audit retries
+                log.warn("Room reassignment for type {} skipped: {}", type.getKey(), e.getMessage());
+            }
+        }
+        log.info("Night audit moved {} stays across {} room types", moved, roomsByType.size());
+    }
+
+    /**
+     * Repacks the future type-booked stays of one room type. Applied only when it leaves fewer
+     * gaps than the current assignment, as one transaction. Returns the number of stays moved.
+     */
+    int reassign(String roomType, List<RoomResponse> rooms, LocalDate today) {
+        Map<Long, RoomResponse> roomsById = rooms.stream()
+                .collect(Collectors.toMap(RoomResponse::getId, room -> room, (a, b) -> a, LinkedHashMap::new));
+        List<Reservation> stays = reservationRepository.findByRoomIdInAndCheckOutDateAfter(roomsById.keySet(), today);
+
+        Map<Long, List<RoomAssignmentOptimizer.Stay>> fixedByRoom = new HashMap<>();
+        Map<Long, List<RoomAssignmentOptimizer.Stay>> currentByRoom = new HashMap<>();
+        List<RoomAssignmentOptimizer.Stay> movable = new ArrayList<>();
+        Map<Long, Reservation> movableById = new HashMap<>();
+        for (Reservation reservation : stays) {
+            RoomAssignmentOptimizer.Stay stay = toStay(reservation);
+            currentByRoom.computeIfAbsent(reservation.getRoomId(), id -> new ArrayList<>()).add(stay);
+            if (isMovable(reservation, roomType, today)) {
+                movable.add(stay);
+                movableById.put(reservation.getId(), reservation);
+            } else {
+                fixedByRoom.computeIfAbsent(reservation.getRoomId(), id -> new ArrayList<>()).add(stay);
+            }
+        }
+        if (movable.isEmpty()) {
+            return 0;
+        }
+
+        List<RoomAssignmentOptimizer.Room> optimizerRooms = roomsById.values().stream()
+                .map(room -> new RoomAssignmentOptimizer.Room(room.getId(), room.getCapacity()))
+                .toList();
+        Optional<Map<Long, Long>> repacked = RoomAssignmentOptimizer.repack(optimizerRooms, fixedByRoom, movable);
+        if (repacked.isEmpty()) {
+            log.info("No complete reassignment found for room type {}, keeping current rooms", roomType);
+            return 0;
+        }
+
+        Map<Long, List<RoomAssignmentOptimizer.Stay>> repackedByRoom = new HashMap<>();
+        fixedByRoom.forEach((roomId, fixed) -> repackedByRoom.computeIfAbsent(roomId, id -> new ArrayList<>()).addAll(fixed));
+        movable.forEach(stay -> repackedByRoom.computeIfAbsent(repacked.get().get(stay.reservationId()), id -> new ArrayList<>()).add(stay));
+        int gapsBefore = RoomAssignmentOptimizer.countGaps(currentByRoom, today);
+        int gapsAfter = RoomAssignmentOptimizer.countGaps(repackedByRoom, today);
+        if (gapsAfter >= gapsBefore) {
+            log.debug("Room type {} already packed: {} gaps, repack would leave {}", roomType, gapsBefore, gapsAfter);
+            return 0;
+        }
+
+        Map<Long, Long> moves = new HashMap<>();
+        repacked.get().forEach((reservationId, roomId) -> {
+            if (!roomId.equals(movableById.get(reservationId).getRoomId())) {
+                moves.put(reservationId, roomId);
+            }
+        });
+        List<ReservationChangedEvent> moved = transactionTemplate.execute(tx -> applyMoves(moves, movableById, roomsById));
+        moved.forEach(eventPublisher::publishEvent);
+        log.info("Room type {}: moved {} stays, gaps {} -> {}", roomType, moved.size(), gapsBefore, gapsAfter);
+        return moved.size();
+    }
+
+    // Runs in a transaction; any stay changed since it was read aborts the whole type
+    private List<ReservationChangedEvent> applyMoves(Map<Long, Long> moves, Map<Long, Reservation> readById, Map<Long, RoomResponse> roomsById) {
+        if (moves.isEmpty()) {
+            return List.of();
+        }
+        List<Reservation> locked = reservationRepository.lockAllById(moves.keySet());
+        for (Reservation reservation : locked) {
+            Reservation read = readById.get(reservation.getId());
+            if (!"Confirmed".equals(reservation.getStatus())) {
+                throw new IllegalStateException("Reservation " + reservation.getId() + " was cancelled during the audit");
+            }
+            if (!reservation.getRoomId().equals(read.getRoomId())
+                    || !reservation.getCheckInDate().equals(read.getCheckInDate())
+                    || !reservation.getCheckOutDate().equals(read.getCheckOutDate())) {
+                throw new IllegalStateException("Reservation " + reservation.getId() + " changed during the audit");
+            }
+        }
+        if (locked.size() != moves.size()) {
+            throw new IllegalStateException("Some reservations were removed during the audit");
+        }
+        // Release first: moves between two rooms swap nights that the claims below take over
+        roomNightLedger.releaseAll(moves.keySet());
+        List<ReservationChangedEvent> moved = new ArrayList<>();
+        for (Reservation reservation : locked) {
+            Long roomId = moves.get(reservation.getId());
+            reservationRepository.updateRoom(reservation.getId(), roomId);
+            Reservation current = readById.get(reservation.getId()).toBuilder().roomId(roomId).build();
+            roomNightLedger.claim(current);
+            viewProjector.moveToRoom(current.getId(), roomsById.get(roomId));
+            moved.add(ReservationChangedEvent.modified(readById.get(current.getId()), current));
+        }
+        eventStream.recordAll(moved);
+        return moved;
+    }
+
+    private static boolean isMovable(Reservation reservation, String roomType, LocalDate today) {
+        return roomType.equals(reservation.getBookedRoomType())
+                && "Confirmed".equals(reservation.getStatus())
+                && reservation.getCheckInDate().isAfter(today);
+    }
+
+    private static RoomAssignmentOptimizer.Stay toStay(Reservation reservation) {
+        return new RoomAssignmentOptimizer.Stay(reservation.getId(), reservation.getCheckInDate(),
+                reservation.getCheckOutDate(), reservation.getNumberOfAdults() + reservation.getNumberOfChildren());
+    }
+}
@@ -0,0 +1,205 @@
+package com.hotel.reservation_service.service;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Assignment of stays to the physical rooms of one room type, for bookings that reserved a
+ * type rather than a room. The aim is to keep free nights together: a stay that fills a gap
+ * between two others leaves whole rooms free for long stays, one dropped in the middle of an
+ * empty stretch leaves two short gaps that may never sell.
+ *
+ * {@link #bestFit} is the incremental step run on each booking; {@link #repack} is the full
+ * pass of the night audit. Both work on day numbers and plain arrays, with no I/O.
+ */
+public final class RoomAssignmentOptimizer {
+
+    public record Room(Long id, int capacity) {
+    }
+
+    public record Stay(Long reservationId, LocalDate checkInDate, LocalDate checkOutDate, int guests) {
+    }
+
+    // A side of a free stretch with no stay counts as this many nights when scoring a fit
+    static final long OPEN_SIDE_NIGHTS = 30;
+
+    // Room indexes are packed below the day number in the sweep's ordering keys
+    private static final int ROOM_BITS = 21;
+    private static final long NEVER_USED = Integer.MIN_VALUE;
+
+    private RoomAssignmentOptimizer() {
+    }
+
+    /**
+     * The room for a new stay: among the rooms free for it with enough capacity, the one whose
+     * free stretch around the stay is shortest, so the stay fills a gap rather than splits one.
+     * Ties go to the earlier room of the list.
+     */
+    public static Optional<Room> bestFit(List<Room> rooms, Stay stay, RoomOccupancyIndex index) {
+        long checkIn = stay.checkInDate().toEpochDay();
+        long checkOut = stay.checkOutDate().toEpochDay();
+        Room best = null;
+        long bestScore = Long.MAX_VALUE;
+        for (Room room : rooms) {
+            if (room.capacity() < stay.guests()) {
+                continue;
+            }
+            Optional<RoomOccupancyIndex.Gap> gap = index.gapAround(room.id(), stay.checkInDate(), stay.checkOutDate());
+            if (gap.isEmpty()) {
+                continue;
+            }
+            long before = gap.get().from() != null
+                    ? Math.min(checkIn - gap.get().from().toEpochDay(), OPEN_SIDE_NIGHTS) : OPEN_SIDE_NIGHTS;
+            long after = gap.get().to() != null
+                    ? Math.min(gap.get().to().toEpochDay() - checkOut, OPEN_SIDE_NIGHTS) : OPEN_SIDE_NIGHTS;
+            if (before + after < bestScore) {
+                best = room;
+                bestScore = before + after;
+                if (bestScore == 0) {
+                    break;
+                }
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Re-places every movable stay of a room type around the fixed ones, which keep their room.
+     * Stays are swept in check-in order. Each goes to the room that became free most recently,
+     * and among those to the one whose next fixed stay starts soonest after it, so stays are
+     * packed end to end and fixed stays far ahead are left room to be reached; an unused room
+     * is only opened when no used one fits. Without fixed stays and capacity differences this
+     * places every stay whenever no night has more stays than rooms.
+     *
+     * Returns the room id per movable reservation id, or empty when some stay found no room,
+     * which can happen around fixed stays; the current assignment is then kept.
+     */
+    public static Optional<Map<Long, Long>> repack(List<Room> rooms, Map<Long, List<Stay>> fixedByRoom, List<Stay> movable) {
+        if (rooms.size() >= 1 << ROOM_BITS) {
+            throw new IllegalArgumentException("Too many rooms of one type: " + rooms.size());
+        }
+        Sweep sweep = new Sweep(rooms, fixedByRoom);
+        List<Stay> sorted = new ArrayList<>(movable);
+        sorted.sort(Comparator.comparing(Stay::checkInDate).thenComparing(Stay::checkOutDate, Comparator.reverseOrder()));
+
+        Map<Long, Long> assignment = new HashMap<>();
+        for (Stay stay : sorted) {
+            long checkIn = stay.checkInDate().toEpochDay();
+            long checkOut = stay.checkOutDate().toEpochDay();
+            sweep.startFixedStaysUpTo(checkIn);
+            int room = sweep.place(checkIn, checkOut, stay.guests());
+            if (room < 0) {
+                return Optional.empty();
+            }
+            assignment.put(stay.reservationId(), rooms.get(room).id());
+        }
+        return Optional.of(assignment);
+    }
+
+    /**
+     * Free stretches bounded by a stay on the right, counted from {@code from}: the gaps that
+     * only a stay of a given length or less can fill. Fewer of them means more whole free rooms.
+     */
+    public static int countGaps(Map<Long, List<Stay>> staysByRoom, LocalDate from) {
+        int gaps = 0;
+        for (List<Stay> stays : staysByRoom.values()) {
+            List<Stay> sorted = new ArrayList<>(stays);
+            sorted.sort(Comparator.comparing(Stay::checkInDate));
+            LocalDate freeFrom = from;
+            for (Stay stay : sorted) {
+                if (stay.checkInDate().isAfter(freeFrom)) {
+                    gaps++;
+                }
+                if (stay.checkOutDate().isAfter(freeFrom)) {
+                    freeFrom = stay.checkOutDate();
+                }
+            }
+        }
+        return gaps;
+    }
+
+    private static long key(long day, int room) {
+        return (day << ROOM_BITS) | room;
+    }
+
+    private static int roomOf(long key) {
+        return (int) (key & ((1L << ROOM_BITS) - 1));
+    }
+
+    /**
+     * Rooms by the day they become free (the end of their last stay so far), then by the start
+     * of their next fixed stay; both as day numbers, rooms as indexes into the room list.
+     */
+    private static final class Sweep {
+        private final List<Room> rooms;
+        private final long[] lastEnd;
+        private final long[][] fixedStarts;
+        private final int[] nextFixed;
+        // start, end, room index of every fixed stay, by start
+        private final List<long[]> fixedStays = new ArrayList<>();
+        private int fixedStarted;
+        private final TreeMap<Long, TreeSet<Long>> byLastEnd = new TreeMap<>();
+
+        Sweep(List<Room> rooms, Map<Long, List<Stay>> fixedByRoom) {
+            this.rooms = rooms;
+            this.lastEnd = new long[rooms.size()];
+            this.fixedStarts = new long[rooms.size()][];
+            this.nextFixed = new int[rooms.size()];
+            for (int i = 0; i < rooms.size(); i++) {
+                List<Stay> fixed = new ArrayList<>(fixedByRoom.getOrDefault(rooms.get(i).id(), List.of()));
+                fixed.sort(Comparator.comparing(Stay::checkInDate));
+                fixedStarts[i] = new long[fixed.size()];
+                for (int f = 0; f < fixed.size(); f++) {
+                    fixedStarts[i][f] = fixed.get(f).checkInDate().toEpochDay();
+                    fixedStays.add(new long[]{fixedStarts[i][f], fixed.get(f).checkOutDate().toEpochDay(), i});
+                }
+                lastEnd[i] = NEVER_USED;
+                index(i);
+            }
+            fixedStays.sort(Comparator.comparingLong(stay -> stay[0]));
+        }
+
+        void startFixedStaysUpTo(long day) {
+            for (; fixedStarted < fixedStays.size() && fixedStays.get(fixedStarted)[0] <= day; fixedStarted++) {
+                long[] stay = fixedStays.get(fixedStarted);
+                int room = (int) stay[2];
+                unindex(room);
+                lastEnd[room] = Math.max(lastEnd[room], stay[1]);
+                nextFixed[room]++;
+                index(room);
+            }
+        }
+
+        // Returns the room index the stay went to, or -1
+        int place(long checkIn, long checkOut, int guests) {
+            for (Map.Entry<Long, TreeSet<Long>> bucket : byLastEnd.headMap(checkIn, true).descendingMap().entrySet()) {
+                for (long key : bucket.getValue().tailSet(key(checkOut, 0), true)) {
+                    int room = roomOf(key);
+                    if (rooms.get(room).capacity() >= guests) {
+                        unindex(room);
+                        lastEnd[room] = checkOut;
+                        index(room);
+                        return room;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private long nextFixedStart(int room) {
+            return nextFixed[room] < fixedStarts[room].length ? fixedStarts[room][nextFixed[room]] : Integer.MAX_VALUE;
+        }
+
+        private void index(int room) {
+            byLastEnd.computeIfAbsent(lastEnd[room], day -> new TreeSet<>()).add(key(nextFixedStart(room), room));
+        }
+
+        private void unindex(int room) {
+            TreeSet<Long> bucket = byLastEnd.get(lastEnd[room]);
+            bucket.remove(key(nextFixedStart(room), room));
+            if (bucket.isEmpty()) {
+                byLastEnd.remove(lastEnd[room]);
+            }
+        }
+    }
+}
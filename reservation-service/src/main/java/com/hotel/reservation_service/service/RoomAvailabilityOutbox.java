@@ -0,0 +1,119 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.client.RoomClient;
+import com.hotel.reservation_service.entity.RoomAvailabilityUpdate;
+import com.hotel.reservation_service.repository.RoomAvailabilityUpdateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox for room availability. Reservation changes {@link #enqueue} an update
+ * inside their own transaction; {@link #dispatch} later delivers pending updates to room-service
+ * in batches, keeping only the latest value per room.
+ *
+ * Updates are delivered in id order. Ids are assigned at insert, not at commit, so a transaction
+ * that commits after a batch was read can still hold a lower id than an update already sent; its
+ * older value is then delivered last, and the flag stays stale until the
+ * {@link RoomAvailabilityReconciler} corrects it. Only one instance dispatches at a time, under a
+ * {@link ClusterLock}, so two instances never send the same update or overtake each other; an
+ * update is sent again only if deleting it after a successful delivery fails, and setting a flag
+ * twice is harmless. When room-service cannot be reached the whole outbox backs off
+ * exponentially and retries from the oldest pending update.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomAvailabilityOutbox {
+
+    static final String DISPATCH_LOCK = "room-availability-outbox";
+
+    private final RoomAvailabilityUpdateRepository updateRepository;
+    private final RoomClient roomClient;
+    private final ClusterLock clusterLock;
+
+    @Value("${reservation.outbox.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${reservation.outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMs = 1000;
+
+    @Value("${reservation.outbox.max-backoff-ms:60000}")
+    private long maxBackoffMs = 60000;
+
+    // Only touched by the scheduler thread
+    private int consecutiveFailures;
+    private long retryAt;
+
+    /**
+     * Records that the room's availability should change. Must be called inside the
+     * transaction that changes the reservation.
+     */
+    public void enqueue(Long roomId, boolean available) {
+        updateRepository.save(RoomAvailabilityUpdate.builder()
+                .roomId(roomId)
+                .available(available)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Records the same availability for several rooms, one update per room, e.g. for the rooms
+     * freed by a bulk cancellation. Must be called inside the transaction that changes them.
+     */
+    public void enqueueAll(Collection<Long> roomIds, boolean available) {
+        LocalDateTime now = LocalDateTime.now();
+        updateRepository.saveAll(roomIds.stream()
+                .distinct()
+                .map(roomId -> RoomAvailabilityUpdate.builder()
+                        .roomId(roomId)
+                        .available(available)
+                        .createdAt(now)
+                        .build())
+                .toList());
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        if (System.currentTimeMillis() < retryAt) {
+            return;
+        }
+        clusterLock.runExclusively(DISPATCH_LOCK, this::deliverPending);
+    }
+
+    private void deliverPending() {
+        List<RoomAvailabilityUpdate> batch;
+        do {
+            batch = updateRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+            Map<Long, Boolean> latest = new LinkedHashMap<>();
+            batch.forEach(update -> latest.put(update.getRoomId(), update.isAvailable()));
+
+            try {
+                roomClient.updateRoomsAvailability(latest);
+            } catch (Exception e) {
+                consecutiveFailures++;
+                long backoff = Math.min(initialBackoffMs << Math.min(consecutiveFailures - 1, 16), maxBackoffMs);
+                retryAt = System.currentTimeMillis() + backoff;
+                log.warn("Failed to deliver {} room availability updates (attempt {}), retrying in {} ms: {}",
+                        batch.size(), consecutiveFailures, backoff, e.getMessage());
+                return;
+            }
+
+            updateRepository.deleteAllInBatch(batch);
+            consecutiveFailures = 0;
+            log.debug("Delivered {} room availability updates for {} rooms", batch.size(), latest.size());
+        } while (batch.size() == batchSize);
+    }
+}
@@ -0,0 +1,78 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.client.RoomClient;
+import com.hotel.reservation_service.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps room-service's availability flags in line with the reservations. Stays start and end
+ * without any API call, so the flags drift; this job periodically computes the rooms occupied
+ * tonight with one indexed query, diffs them against the flags and enqueues only the rooms that
+ * changed on the RoomAvailabilityOutbox. Only the flags are fetched from room-service, not the
+ * rooms: the room catalog snapshot cannot stand in for them, as flag changes do not reload it.
+ *
+ * It runs under the outbox's dispatch lock, so one instance reconciles at a time and never
+ * while updates are being delivered; its corrections are queued behind the pending updates and
+ * delivered after them. An update committed late with a lower id may still land after a
+ * correction, and is caught by the next run.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomAvailabilityReconciler {
+
+    private final ReservationRepository reservationRepository;
+    private final RoomClient roomClient;
+    private final RoomAvailabilityOutbox outbox;
+    private final ClusterLock clusterLock;
+
+    @Scheduled(fixedDelayString = "${reservation.reconciler.interval-ms:60000}",
+            initialDelayString = "${reservation.reconciler.initial-delay-ms:30000}")
+    public void scheduledReconcile() {
+        try {
+            clusterLock.runExclusively(RoomAvailabilityOutbox.DISPATCH_LOCK, this::reconcile);
+        } catch (Exception e) {
+            log.warn("Room availability reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    public Map<Long, Boolean> reconcile() {
+        Set<Long> occupied = reservationRepository.findRoomIdsOccupiedOn(LocalDate.now());
+
+        Map<Long, Boolean> changes = new HashMap<>();
+        roomClient.getAvailabilityFlags().forEach((roomId, flag) -> {
+            boolean available = !occupied.contains(roomId);
+            if (flag != available) {
+                changes.put(roomId, available);
+            }
+        });
+
+        if (changes.isEmpty()) {
+            log.debug("Room availability in sync: {} rooms occupied tonight", occupied.size());
+            return changes;
+        }
+        enqueue(changes, true);
+        enqueue(changes, false);
+        log.info("Reconciled availability of {} rooms ({} occupied tonight)", changes.size(), occupied.size());
+        return changes;
+    }
+
+    private void enqueue(Map<Long, Boolean> changes, boolean available) {
+        List<Long> roomIds = changes.entrySet().stream()
+                .filter(change -> change.getValue() == available)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!roomIds.isEmpty()) {
+            outbox.enqueueAll(roomIds, available);
+        }
+    }
+}
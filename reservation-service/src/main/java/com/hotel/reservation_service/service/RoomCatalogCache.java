@@ -0,0 +1,191 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.client.RoomClient;
+import com.hotel.reservation_service.dto.RoomResponse;
+import com.hotel.reservation_service.event.RoomDetailsChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local copy of the room-service catalog, indexed by room id and by (roomType, capacity).
+ * Lookups are served from an immutable snapshot; the snapshot is swapped in the background
+ * when room-service reports a new catalog version, so request threads never wait on a
+ * full catalog download. Until the first load succeeds the snapshot is empty: lookups find
+ * no rooms, bookings are refused by {@link #requireLoaded}, and the version check keeps
+ * retrying the load.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomCatalogCache {
+
+    private final RoomClient roomClient;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private record Snapshot(Long version,
+                            Map<Long, RoomResponse> byId,
+                            Map<String, NavigableMap<Integer, List<RoomResponse>>> byTypeAndCapacity) {
+
+        static final Snapshot EMPTY = new Snapshot(null, Map.of(), Map.of());
+
+        static Snapshot of(Long version, List<RoomResponse> rooms) {
+            Map<Long, RoomResponse> byId = new HashMap<>();
+            Map<String, NavigableMap<Integer, List<RoomResponse>>> byTypeAndCapacity = new HashMap<>();
+            for (RoomResponse room : rooms) {
+                byId.put(room.getId(), room);
+                byTypeAndCapacity.computeIfAbsent(room.getRoomType(), type -> new TreeMap<>())
+                        .computeIfAbsent(room.getCapacity(), capacity -> new ArrayList<>())
+                        .add(room);
+            }
+            return new Snapshot(version, byId, byTypeAndCapacity);
+        }
+    }
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    // Incremented on every reload, so results derived from an older catalog can be recognised
+    private final AtomicLong generation = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Room catalog could not be loaded at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Fails fast, with 503, while no catalog has been loaded yet, for writes that must not
+     * take an empty snapshot for "no such room".
+     */
+    public void requireLoaded() {
+        if (snapshot == Snapshot.EMPTY) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Room catalog is not loaded yet, please retry shortly.");
+        }
+    }
+
+    /**
+     * Returns the room from the snapshot, falling back to a single-room fetch for rooms
+     * added since the last refresh.
+     */
+    public Optional<RoomResponse> findById(Long roomId) {
+        RoomResponse room = snapshot.byId().get(roomId);
+        if (room != null) {
+            return Optional.of(room);
+        }
+        try {
+            return Optional.ofNullable(roomClient.getRoomById(roomId));
+        } catch (Exception e) {
+            log.debug("Room {} not found in room-service: {}", roomId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Snapshot-only lookup, for read paths that can render a partial response rather than call out.
+     */
+    public Optional<RoomResponse> getCached(Long roomId) {
+        return Optional.ofNullable(snapshot.byId().get(roomId));
+    }
+
+    /**
+     * The given rooms as found in one snapshot; rooms missing from it are left out.
+     */
+    public Map<Long, RoomResponse> findAllById(Collection<Long> roomIds) {
+        Map<Long, RoomResponse> byId = snapshot.byId();
+        Map<Long, RoomResponse> found = new HashMap<>();
+        for (Long roomId : roomIds) {
+            RoomResponse room = byId.get(roomId);
+            if (room != null) {
+                found.put(roomId, room);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Rooms of the given type, or of any type when null, that sleep at least {@code minCapacity}.
+     */
+    public List<RoomResponse> findByTypeAndMinCapacity(String roomType, int minCapacity) {
+        Map<String, NavigableMap<Integer, List<RoomResponse>>> byType = snapshot.byTypeAndCapacity();
+        Collection<NavigableMap<Integer, List<RoomResponse>>> types = roomType == null
+                ? byType.values()
+                : Optional.ofNullable(byType.get(roomType)).map(List::of).orElse(List.of());
+        List<RoomResponse> rooms = new ArrayList<>();
+        for (NavigableMap<Integer, List<RoomResponse>> byCapacity : types) {
+            byCapacity.tailMap(minCapacity, true).values().forEach(rooms::addAll);
+        }
+        return rooms;
+    }
+
+    public Collection<RoomResponse> getAll() {
+        return snapshot.byId().values();
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.room-catalog.version-check-interval-ms:5000}")
+    public void refreshIfChanged() {
+        try {
+            long version = roomClient.getCatalogVersion();
+            if (!Objects.equals(version, snapshot.version())) {
+                log.info("Room catalog version changed from {} to {}, reloading", snapshot.version(), version);
+                load(version);
+            }
+        } catch (Exception e) {
+            log.warn("Room catalog version check failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.room-catalog.full-refresh-interval-ms:600000}",
+            initialDelayString = "${reservation.room-catalog.full-refresh-interval-ms:600000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Scheduled room catalog refresh failed: {}", e.getMessage());
+        }
+    }
+
+    public void refresh() {
+        load(roomClient.getCatalogVersion());
+    }
+
+    private void load(Long version) {
+        List<RoomResponse> rooms = roomClient.getAllRooms();
+        Snapshot previous = snapshot;
+        snapshot = Snapshot.of(version, rooms);
+        generation.incrementAndGet();
+        log.info("Room catalog loaded: {} rooms (version {})", rooms.size(), version);
+
+        if (previous != Snapshot.EMPTY) {
+            List<RoomResponse> changed = rooms.stream()
+                    .filter(room -> detailsChanged(previous.byId().get(room.getId()), room))
+                    .toList();
+            if (!changed.isEmpty()) {
+                eventPublisher.publishEvent(new RoomDetailsChangedEvent(changed));
+            }
+        }
+    }
+
+    // New rooms have no reservations yet, so only rooms present in both snapshots count
+    private static boolean detailsChanged(RoomResponse before, RoomResponse after) {
+        return before != null
+                && (!Objects.equals(before.getRoomNumber(), after.getRoomNumber())
+                || !Objects.equals(before.getRoomType(), after.getRoomType())
+                || before.getPricePerNight() != after.getPricePerNight());
+    }
+}
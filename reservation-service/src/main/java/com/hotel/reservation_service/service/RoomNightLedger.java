@@ -0,0 +1,114 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.entity.RoomNightClaim;
+import com.hotel.reservation_service.exceptions.RoomNotAvailableException;
+import com.hotel.reservation_service.repository.ReservationRepository;
+import com.hotel.reservation_service.repository.RoomNightClaimRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Claims the nights of a reservation in the room_night_claim table. Must be called inside
+ * the transaction that saves the reservation, so the booking and its claims commit or roll
+ * back together. Bookings for different rooms touch different keys and never wait on each other.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomNightLedger {
+
+    private final RoomNightClaimRepository claimRepository;
+    private final ReservationRepository reservationRepository;
+
+    public void claim(Reservation reservation) {
+        claim(reservation, reservation.getCheckInDate(), reservation.getCheckOutDate());
+    }
+
+    /**
+     * Inserts one claim per night in [from, to) as a single JDBC batch. A night already held by
+     * another reservation fails the batch on its primary key.
+     */
+    public void claim(Reservation reservation, LocalDate from, LocalDate to) {
+        List<RoomNightClaim> claims = from.datesUntil(to)
+                .map(night -> new RoomNightClaim(reservation.getRoomId(), night, reservation.getId()))
+                .toList();
+        if (claims.isEmpty()) {
+            return;
+        }
+        try {
+            claimRepository.saveAllAndFlush(claims);
+        } catch (DataIntegrityViolationException e) {
+            log.error("Room {} already claimed for some night between {} and {}", reservation.getRoomId(), from, to);
+            throw new RoomNotAvailableException("Room is already reserved for the selected dates.");
+        }
+    }
+
+    /**
+     * Claims the nights of several reservations as one JDBC batch, e.g. for a group booking.
+     */
+    public void claimAll(Collection<Reservation> reservations) {
+        List<RoomNightClaim> claims = reservations.stream()
+                .flatMap(reservation -> reservation.getCheckInDate().datesUntil(reservation.getCheckOutDate())
+                        .map(night -> new RoomNightClaim(reservation.getRoomId(), night, reservation.getId())))
+                .toList();
+        if (claims.isEmpty()) {
+            return;
+        }
+        try {
+            claimRepository.saveAllAndFlush(claims);
+        } catch (DataIntegrityViolationException e) {
+            log.error("Some room night of {} reservations is already claimed", reservations.size());
+            throw new RoomNotAvailableException("A room is already reserved for the selected dates.");
+        }
+    }
+
+    public void release(Long reservationId) {
+        int released = claimRepository.deleteByReservationId(reservationId);
+        log.debug("Released {} room nights of reservation {}", released, reservationId);
+    }
+
+    /**
+     * Releases the reservation's claims on the nights in [from, to) only, e.g. when a stay is shortened.
+     */
+    public void release(Long reservationId, LocalDate from, LocalDate to) {
+        int released = claimRepository.deleteByReservationIdBetween(reservationId, from, to);
+        log.debug("Released {} room nights of reservation {} between {} and {}", released, reservationId, from, to);
+    }
+
+    public void releaseAll(Collection<Long> reservationIds) {
+        int released = claimRepository.deleteByReservationIdIn(reservationIds);
+        log.debug("Released {} room nights of {} reservations", released, reservationIds.size());
+    }
+
+    /**
+     * Claims the remaining nights of reservations made before the ledger existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (claimRepository.count() > 0) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        List<Reservation> active = reservationRepository.findByCheckOutDateAfter(today);
+        int claimed = 0;
+        for (Reservation reservation : active) {
+            LocalDate from = reservation.getCheckInDate().isBefore(today) ? today : reservation.getCheckInDate();
+            try {
+                claim(reservation, from, reservation.getCheckOutDate());
+                claimed++;
+            } catch (RoomNotAvailableException e) {
+                log.warn("Reservation {} overlaps another stay in room {}; left unclaimed", reservation.getId(), reservation.getRoomId());
+            }
+        }
+        log.info("Room night ledger backfilled for {} of {} active reservations", claimed, active.size());
+    }
+}
@@ -0,0 +1,283 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of stays per room, used to answer overlap queries without scanning
+ * the reservation table. Stays are kept sorted by check-in date, and the stays of a room do
+ * not overlap, so a query for [from, to) starts at the last stay checking in before the
+ * window and walks forward until a stay checks in at or after its end: O(log n + k) per room.
+ *
+ * Date ranges are half-open: a stay occupies the nights from check-in up to, but not
+ * including, check-out, so a check-out and a check-in on the same day do not conflict.
+ *
+ * A rebuild fills a new map from a database snapshot and swaps it in. Changes applied while
+ * the snapshot is read are recorded and replayed onto the new map before the swap, so a stay
+ * booked meanwhile is not lost until the next resync.
+ *
+ * Views derived from the index follow it: each change reaches them in the same step as the
+ * index, and a rebuild refills them from the rebuilt map before any later change is applied,
+ * so they never miss a change nor apply one twice.
+ */
+@Component
+@Slf4j
+public class RoomOccupancyIndex {
+
+    public record Stay(Long reservationId, LocalDate checkInDate, LocalDate checkOutDate) {
+        boolean overlaps(LocalDate from, LocalDate to) {
+            return checkInDate.isBefore(to) && checkOutDate.isAfter(from);
+        }
+    }
+
+    /**
+     * Free stretch of a room: from the check-out of the stay before to the check-in of the stay
+     * after, a bound being null when there is no stay on that side.
+     */
+    public record Gap(LocalDate from, LocalDate to) {
+    }
+
+    /**
+     * View kept in step with the index. Both methods are called under the index's change lock,
+     * so changes arrive one at a time and never overlap a refill.
+     */
+    public interface Follower {
+        void apply(ReservationChangedEvent event);
+
+        void rebuild(Collection<Reservation> stays);
+    }
+
+    private static final Comparator<Stay> BY_CHECK_IN = Comparator.comparing(Stay::checkInDate)
+            .thenComparing(Stay::reservationId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private static final class RoomStays {
+        private final TreeSet<Stay> stays = new TreeSet<>(BY_CHECK_IN);
+        private final Map<Long, Stay> byReservationId = new HashMap<>();
+    }
+
+    private volatile Map<Long, RoomStays> rooms = new ConcurrentHashMap<>();
+
+    // Guards changesDuringRebuild and the swap of rooms, so no change falls between the two maps
+    private final Object changeLock = new Object();
+    private final Object rebuildLock = new Object();
+    // Changes applied since the running rebuild started, in order; null when none is running
+    private List<Consumer<Map<Long, RoomStays>>> changesDuringRebuild;
+    private final List<Follower> followers = new CopyOnWriteArrayList<>();
+
+    public void addFollower(Follower follower) {
+        followers.add(follower);
+    }
+
+    /** Refills {@code follower} from the stays the index holds now. */
+    public void refill(Follower follower) {
+        synchronized (changeLock) {
+            follower.rebuild(staysOf(rooms));
+        }
+    }
+
+    // Ahead of the search cache, which must only invalidate once the views show the change
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        apply(target -> {
+            if (event.previous() != null) {
+                remove(target, event.previous());
+            }
+            if (event.current() != null) {
+                add(target, event.current());
+            }
+        }, event);
+    }
+
+    public void add(Reservation reservation) {
+        onReservationChanged(ReservationChangedEvent.created(reservation));
+    }
+
+    public void remove(Reservation reservation) {
+        onReservationChanged(ReservationChangedEvent.cancelled(reservation));
+    }
+
+    public boolean isOccupied(Long roomId, LocalDate from, LocalDate to) {
+        return !overlapping(roomId, from, to).isEmpty();
+    }
+
+    public List<Stay> overlapping(Long roomId, LocalDate from, LocalDate to) {
+        RoomStays roomStays = rooms.get(roomId);
+        if (roomStays == null) {
+            return List.of();
+        }
+        synchronized (roomStays) {
+            return collectOverlapping(roomStays, from, to);
+        }
+    }
+
+    /**
+     * The free stretch of the room that contains [from, to), or empty when the room is occupied
+     * on some night of it.
+     */
+    public Optional<Gap> gapAround(Long roomId, LocalDate from, LocalDate to) {
+        RoomStays roomStays = rooms.get(roomId);
+        if (roomStays == null) {
+            return Optional.of(new Gap(null, null));
+        }
+        synchronized (roomStays) {
+            if (!collectOverlapping(roomStays, from, to).isEmpty()) {
+                return Optional.empty();
+            }
+            // Stays of a room do not overlap, so the last one starting before [from, to) also ends last
+            Stay before = roomStays.stays.lower(new Stay(null, from, null));
+            Stay after = roomStays.stays.ceiling(new Stay(null, to, null));
+            return Optional.of(new Gap(before != null ? before.checkOutDate() : null,
+                    after != null ? after.checkInDate() : null));
+        }
+    }
+
+    public Set<Long> occupiedRooms(LocalDate from, LocalDate to) {
+        Set<Long> occupied = new HashSet<>();
+        rooms.forEach((roomId, roomStays) -> {
+            synchronized (roomStays) {
+                if (!collectOverlapping(roomStays, from, to).isEmpty()) {
+                    occupied.add(roomId);
+                }
+            }
+        });
+        return occupied;
+    }
+
+    public void rebuild(Collection<Reservation> reservations) {
+        rebuild(() -> reservations);
+    }
+
+    /**
+     * Rebuilds the index from the stays {@code snapshot} reads, then refills the followers from
+     * the rebuilt index. Replaying a change the snapshot already
+     * contains is harmless: a stay replaces the one with the same reservation id, and removing
+     * a stay that is gone does nothing.
+     */
+    public void rebuild(Supplier<? extends Collection<Reservation>> snapshot) {
+        synchronized (rebuildLock) {
+            synchronized (changeLock) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            try {
+                Collection<Reservation> reservations = snapshot.get();
+                Map<Long, RoomStays> rebuilt = new ConcurrentHashMap<>();
+                for (Reservation reservation : reservations) {
+                    insert(rebuilt.computeIfAbsent(reservation.getRoomId(), id -> new RoomStays()), toStay(reservation));
+                }
+                int replayed;
+                synchronized (changeLock) {
+                    replayed = changesDuringRebuild.size();
+                    changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                    rooms = rebuilt;
+                    if (!followers.isEmpty()) {
+                        List<Reservation> stays = staysOf(rebuilt);
+                        followers.forEach(follower -> follower.rebuild(stays));
+                    }
+                }
+                log.info("Occupancy index rebuilt with {} reservations across {} rooms, {} changes replayed",
+                        reservations.size(), rebuilt.size(), replayed);
+            } finally {
+                synchronized (changeLock) {
+                    changesDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    // Applies a change to the current map and the followers, recording it for the running rebuild if any
+    private void apply(Consumer<Map<Long, RoomStays>> change, ReservationChangedEvent event) {
+        synchronized (changeLock) {
+            change.accept(rooms);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+            followers.forEach(follower -> follower.apply(event));
+        }
+    }
+
+    private static List<Reservation> staysOf(Map<Long, RoomStays> source) {
+        List<Reservation> stays = new ArrayList<>();
+        source.forEach((roomId, roomStays) -> {
+            synchronized (roomStays) {
+                for (Stay stay : roomStays.stays) {
+                    stays.add(Reservation.builder()
+                            .id(stay.reservationId())
+                            .roomId(roomId)
+                            .checkInDate(stay.checkInDate())
+                            .checkOutDate(stay.checkOutDate())
+                            .build());
+                }
+            }
+        });
+        return stays;
+    }
+
+    private static void add(Map<Long, RoomStays> target, Reservation reservation) {
+        Stay stay = toStay(reservation);
+        RoomStays roomStays = target.computeIfAbsent(reservation.getRoomId(), id -> new RoomStays());
+        synchronized (roomStays) {
+            insert(roomStays, stay);
+        }
+    }
+
+    private static void remove(Map<Long, RoomStays> target, Reservation reservation) {
+        RoomStays roomStays = target.get(reservation.getRoomId());
+        if (roomStays == null) {
+            return;
+        }
+        synchronized (roomStays) {
+            Stay stay = reservation.getId() != null
+                    ? roomStays.byReservationId.remove(reservation.getId())
+                    : toStay(reservation);
+            if (stay != null) {
+                roomStays.stays.remove(stay);
+            }
+        }
+    }
+
+    private static void insert(RoomStays roomStays, Stay stay) {
+        if (stay.reservationId() != null) {
+            Stay previous = roomStays.byReservationId.put(stay.reservationId(), stay);
+            if (previous != null) {
+                roomStays.stays.remove(previous);
+            }
+        }
+        roomStays.stays.add(stay);
+    }
+
+    private static List<Stay> collectOverlapping(RoomStays roomStays, LocalDate from, LocalDate to) {
+        if (roomStays.stays.isEmpty()) {
+            return List.of();
+        }
+        // Only the last stay checking in before the window can reach into it
+        Stay start = new Stay(null, from, null);
+        Stay before = roomStays.stays.lower(start);
+        List<Stay> result = new ArrayList<>();
+        for (Stay stay : roomStays.stays.tailSet(before != null ? before : start, true)) {
+            if (!stay.checkInDate().isBefore(to)) {
+                break;
+            }
+            if (stay.overlaps(from, to)) {
+                result.add(stay);
+            }
+        }
+        return result;
+    }
+
+    private static Stay toStay(Reservation reservation) {
+        return new Stay(reservation.getId(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+    }
+}
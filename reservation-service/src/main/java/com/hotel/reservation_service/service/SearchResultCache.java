@@ -0,0 +1,142 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.dto.RoomResponse;
+import com.hotel.reservation_service.dto.RoomSearchRequest;
+import com.hotel.reservation_service.dto.SearchCacheStats;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of room search results, keyed by (roomType, guests, checkIn, checkOut).
+ * Entries expire after a TTL and are evicted precisely when a reservation changes: only
+ * searches for the booked room's type whose dates intersect the stay are dropped.
+ *
+ * A result computed while an invalidation happened is not stored, since it may have been
+ * read before the change it should reflect. That guard only holds if the occupancy views
+ * already show the change when it is invalidated, so the listener runs last.
+ */
+@Component
+@Slf4j
+public class SearchResultCache {
+
+    public record Key(String roomType, int guests, LocalDate checkIn, LocalDate checkOut) {
+        public static Key of(RoomSearchRequest request) {
+            return new Key(request.getRoomType(), request.getNumberOfGuests(),
+                    request.getCheckInDate(), request.getCheckOutDate());
+        }
+
+        boolean intersects(LocalDate from, LocalDate to) {
+            return checkIn.isBefore(to) && checkOut.isAfter(from);
+        }
+    }
+
+    private record Entry(List<RoomResponse> rooms, long expiresAt, long catalogGeneration) {
+    }
+
+    private final RoomCatalogCache roomCatalog;
+    private final long ttlMs;
+    private final Map<Key, Entry> entries;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public SearchResultCache(RoomCatalogCache roomCatalog,
+                             @Value("${reservation.search-cache.max-entries:10000}") int maxEntries,
+                             @Value("${reservation.search-cache.ttl-ms:30000}") long ttlMs) {
+        this.roomCatalog = roomCatalog;
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public List<RoomResponse> getOrCompute(Key key, Supplier<List<RoomResponse>> search) {
+        long now = System.currentTimeMillis();
+        long generation = roomCatalog.generation();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > now && entry.catalogGeneration() == generation) {
+                hits.incrementAndGet();
+                return entry.rooms();
+            }
+        }
+        misses.incrementAndGet();
+
+        long invalidationsBefore = invalidations.get();
+        List<RoomResponse> rooms = List.copyOf(search.get());
+        synchronized (entries) {
+            if (invalidations.get() == invalidationsBefore) {
+                entries.put(key, new Entry(rooms, now + ttlMs, generation));
+            }
+        }
+        return rooms;
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.previous() != null) {
+            invalidate(event.previous());
+        }
+        if (event.current() != null) {
+            invalidate(event.current());
+        }
+    }
+
+    public void invalidate(Reservation reservation) {
+        // A room missing from the catalog snapshot could be of any type
+        String roomType = roomCatalog.getCached(reservation.getRoomId())
+                .map(RoomResponse::getRoomType)
+                .orElse(null);
+        int evicted = 0;
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            Iterator<Key> keys = entries.keySet().iterator();
+            while (keys.hasNext()) {
+                Key key = keys.next();
+                if ((roomType == null || key.roomType() == null || roomType.equals(key.roomType()))
+                        && key.intersects(reservation.getCheckInDate(), reservation.getCheckOutDate())) {
+                    keys.remove();
+                    evicted++;
+                }
+            }
+        }
+        log.debug("Evicted {} cached searches for room {} ({}) between {} and {}", evicted,
+                reservation.getRoomId(), roomType, reservation.getCheckInDate(), reservation.getCheckOutDate());
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public SearchCacheStats stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long total = hitCount + missCount;
+        return new SearchCacheStats(hitCount, missCount, size, total == 0 ? 0 : (double) hitCount / total);
+    }
+}
@@ -0,0 +1,329 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.dto.ReservationRequest;
+import com.hotel.reservation_service.dto.ReservationResponse;
+import com.hotel.reservation_service.dto.RoomResponse;
+import com.hotel.reservation_service.dto.WaitlistEntryResponse;
+import com.hotel.reservation_service.dto.WaitlistRequest;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.entity.ReservationChange;
+import com.hotel.reservation_service.entity.WaitlistEntry;
+import com.hotel.reservation_service.event.RecordedReservationChangeEvent;
+import com.hotel.reservation_service.exceptions.GuestNotFoundException;
+import com.hotel.reservation_service.exceptions.RoomNotAvailableException;
+import com.hotel.reservation_service.repository.WaitlistEntryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guests waiting for a room type over a date range, promoted to a hold when a room frees up.
+ * Entries are indexed per room type by each night they want, and ordered first come, first
+ * served; a cancellation or released hold only visits the entries that want one of the
+ * nights it freed, and holds the freed room for each of them it can now take, in order.
+ *
+ * Entries are stored in the waitlist_entry table; the per-night index is rebuilt from it at
+ * startup and every {@code resync-interval-ms}, which also brings in entries joined through
+ * other instances. Every instance reacts to the cancellations recorded by any instance, as
+ * streamed by ReservationEventStream, and claims an entry in the table before promoting it, so
+ * an entry is promoted by one instance only.
+ *
+ * Promotions run on one background thread, so nothing waits for them and two promotions on
+ * this instance never race for the same entry. The freed reservation itself is ignored when
+ * checking whether an entry's nights are free, as the occupancy index may not have dropped it
+ * yet. When a hold is refused because the room looks taken, the freed room is offered again a
+ * little later, a few times, before those entries wait for the next cancellation.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class Waitlist {
+
+    public record Entry(long id, Long guestId, String roomType, LocalDate checkInDate, LocalDate checkOutDate,
+                        int numberOfAdults, int numberOfChildren, LocalDateTime createdAt) {
+        int guests() {
+            return numberOfAdults + numberOfChildren;
+        }
+    }
+
+    private static final Comparator<Entry> FIRST_COME = Comparator.comparingLong(Entry::id);
+
+    private final ReservationService reservationService;
+    private final RoomCatalogCache roomCatalog;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final WaitlistEntryRepository entryRepository;
+
+    @Value("${reservation.waitlist.retry-delay-ms:2000}")
+    private long retryDelayMs = 2000;
+
+    @Value("${reservation.waitlist.max-retries:3}")
+    private int maxRetries = 3;
+
+    // An instance that died while promoting an entry lets it wait again after this
+    @Value("${reservation.waitlist.claim-lease:PT1M}")
+    private Duration claimLease = Duration.ofMinutes(1);
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // room type -> night -> entries wanting that night
+    private final Map<String, TreeMap<LocalDate, TreeSet<Entry>>> byTypeAndNight = new HashMap<>();
+
+    private final ScheduledExecutorService promoter = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("waitlist-promoter").daemon().factory());
+
+    public WaitlistEntryResponse join(WaitlistRequest request) {
+        Entry entry = toEntry(entryRepository.save(WaitlistEntry.builder()
+                .guestId(request.getGuestId())
+                .roomType(request.getRoomType())
+                .checkInDate(request.getCheckInDate())
+                .checkOutDate(request.getCheckOutDate())
+                .numberOfAdults(request.getNumberOfAdults())
+                .numberOfChildren(request.getNumberOfChildren())
+                .createdAt(LocalDateTime.now())
+                .build()));
+        index(entry);
+        log.info("Guest {} waitlisted for a {} room from {} to {} as entry {}",
+                entry.guestId(), entry.roomType(), entry.checkInDate(), entry.checkOutDate(), entry.id());
+        return toResponse(entry);
+    }
+
+    // Read from the table, as the index only picks up entries joined elsewhere on resync
+    public List<WaitlistEntryResponse> getAll() {
+        return entryRepository.findAll(Sort.by("id")).stream()
+                .map(Waitlist::toEntry)
+                .map(Waitlist::toResponse)
+                .toList();
+    }
+
+    public void leave(Long id) {
+        if (entryRepository.deleteEntry(id) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Waitlist entry not found with id: " + id);
+        }
+        unindex(id);
+        log.info("Waitlist entry {} removed", id);
+    }
+
+    // Hold expiry records a cancellation too, so an unconfirmed promotion passes the room on
+    @EventListener
+    public void onRecordedChange(RecordedReservationChangeEvent event) {
+        ReservationChange change = event.change();
+        if ("cancelled".equals(change.getType())) {
+            Reservation freed = Reservation.builder()
+                    .id(change.getReservationId())
+                    .roomId(change.getRoomId())
+                    .checkInDate(change.getCheckInDate())
+                    .checkOutDate(change.getCheckOutDate())
+                    .build();
+            promoter.execute(() -> promote(freed));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        resync();
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.waitlist.resync-interval-ms:60000}",
+            initialDelayString = "${reservation.waitlist.resync-interval-ms:60000}")
+    public void resync() {
+        try {
+            rebuild(entryRepository.findAll());
+        } catch (Exception e) {
+            log.warn("Could not load the waitlist, keeping the current index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Offers the room and nights a cancelled reservation freed to the entries wanting any of
+     * those nights, first come first served. Returns the number of entries promoted.
+     */
+    int promote(Reservation freed) {
+        return promote(freed, 0);
+    }
+
+    private int promote(Reservation freed, int attempt) {
+        RoomResponse room = roomCatalog.getCached(freed.getRoomId()).orElse(null);
+        LocalDate today = LocalDate.now();
+        if (room == null || !freed.getCheckOutDate().isAfter(today)) {
+            return 0;
+        }
+        LocalDate from = freed.getCheckInDate().isBefore(today) ? today : freed.getCheckInDate();
+        int promoted = 0;
+        boolean refused = false;
+        for (Entry entry : candidates(room.getRoomType(), from, freed.getCheckOutDate())) {
+            if (entry.checkInDate().isBefore(today)) {
+                drop(entry.id());
+                continue;
+            }
+            if (entry.guests() > room.getCapacity() || isOccupiedBesides(freed, room.getId(), entry) || !claim(entry)) {
+                continue;
+            }
+            try {
+                ReservationResponse hold = reservationService.holdReservation(toReservationRequest(entry, room.getId()));
+                drop(entry.id());
+                promoted++;
+                log.info("Waitlist entry {} promoted to hold {} in room {}", entry.id(), hold.getId(), room.getRoomNumber());
+            } catch (GuestNotFoundException e) {
+                log.warn("Dropping waitlist entry {}: guest {} no longer exists", entry.id(), entry.guestId());
+                drop(entry.id());
+            } catch (RoomNotAvailableException e) {
+                // taken by a booking this instance has not seen yet, or the freed nights are not released yet
+                log.debug("Room {} not available for waitlist entry {}: {}", room.getId(), entry.id(), e.getMessage());
+                entryRepository.release(entry.id());
+                refused = true;
+            } catch (RuntimeException e) {
+                log.warn("Could not promote waitlist entry {}, keeping it: {}", entry.id(), e.getMessage());
+                entryRepository.release(entry.id());
+            }
+        }
+        if (refused && attempt < maxRetries && !promoter.isShutdown()) {
+            promoter.schedule(() -> promote(freed, attempt + 1), retryDelayMs, TimeUnit.MILLISECONDS);
+        }
+        return promoted;
+    }
+
+    private boolean isOccupiedBesides(Reservation freed, Long roomId, Entry entry) {
+        return occupancyIndex.overlapping(roomId, entry.checkInDate(), entry.checkOutDate()).stream()
+                .anyMatch(stay -> !freed.getId().equals(stay.reservationId()));
+    }
+
+    // False when another instance is promoting the entry, or already promoted or removed it
+    private boolean claim(Entry entry) {
+        LocalDateTime now = LocalDateTime.now();
+        if (entryRepository.claim(entry.id(), now, now.plus(claimLease)) == 1) {
+            return true;
+        }
+        if (!entryRepository.existsById(entry.id())) {
+            unindex(entry.id());
+        }
+        return false;
+    }
+
+    private void drop(Long id) {
+        entryRepository.deleteEntry(id);
+        unindex(id);
+    }
+
+    // Nobody can be given a stay that has already started; every instance may run it
+    @Scheduled(cron = "${reservation.waitlist.purge-cron:0 5 0 * * *}")
+    public void purgeStarted() {
+        LocalDate today = LocalDate.now();
+        int purged = entryRepository.deleteCheckingInBefore(today);
+        List<Long> started;
+        synchronized (this) {
+            started = entries.values().stream()
+                    .filter(entry -> entry.checkInDate().isBefore(today))
+                    .map(Entry::id)
+                    .toList();
+        }
+        started.forEach(this::unindex);
+        if (purged > 0) {
+            log.info("Removed {} waitlist entries whose stay has started", purged);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        promoter.shutdownNow();
+    }
+
+    // Entries wanting at least one night of [from, to), in priority order
+    private synchronized List<Entry> candidates(String roomType, LocalDate from, LocalDate to) {
+        TreeMap<LocalDate, TreeSet<Entry>> nights = byTypeAndNight.get(roomType);
+        if (nights == null) {
+            return List.of();
+        }
+        TreeSet<Entry> wanting = new TreeSet<>(FIRST_COME);
+        nights.subMap(from, true, to, false).values().forEach(wanting::addAll);
+        return new ArrayList<>(wanting);
+    }
+
+    /**
+     * Replaces the index with the stored entries. Entries joined through this instance after
+     * the table was read are kept.
+     */
+    synchronized void rebuild(List<WaitlistEntry> stored) {
+        long loadedUpTo = stored.stream().mapToLong(WaitlistEntry::getId).max().orElse(0);
+        List<Entry> joinedSince = entries.values().stream()
+                .filter(entry -> entry.id() > loadedUpTo)
+                .toList();
+        entries.clear();
+        byTypeAndNight.clear();
+        stored.stream().map(Waitlist::toEntry).forEach(this::index);
+        joinedSince.forEach(this::index);
+        log.debug("Waitlist index rebuilt with {} entries", entries.size());
+    }
+
+    private synchronized void index(Entry entry) {
+        entries.put(entry.id(), entry);
+        TreeMap<LocalDate, TreeSet<Entry>> nights = byTypeAndNight.computeIfAbsent(entry.roomType(), type -> new TreeMap<>());
+        entry.checkInDate().datesUntil(entry.checkOutDate())
+                .forEach(night -> nights.computeIfAbsent(night, n -> new TreeSet<>(FIRST_COME)).add(entry));
+    }
+
+    private synchronized void unindex(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        TreeMap<LocalDate, TreeSet<Entry>> nights = byTypeAndNight.get(entry.roomType());
+        entry.checkInDate().datesUntil(entry.checkOutDate()).forEach(night -> {
+            TreeSet<Entry> wanting = nights.get(night);
+            if (wanting != null && wanting.remove(entry) && wanting.isEmpty()) {
+                nights.remove(night);
+            }
+        });
+        if (nights.isEmpty()) {
+            byTypeAndNight.remove(entry.roomType());
+        }
+    }
+
+    private static ReservationRequest toReservationRequest(Entry entry, Long roomId) {
+        ReservationRequest request = new ReservationRequest();
+        request.setGuestId(entry.guestId());
+        request.setRoomId(roomId);
+        request.setCheckInDate(entry.checkInDate());
+        request.setCheckOutDate(entry.checkOutDate());
+        request.setNumberOfAdults(entry.numberOfAdults());
+        request.setNumberOfChildren(entry.numberOfChildren());
+        return request;
+    }
+
+    private static Entry toEntry(WaitlistEntry stored) {
+        return new Entry(stored.getId(), stored.getGuestId(), stored.getRoomType(),
+                stored.getCheckInDate(), stored.getCheckOutDate(),
+                stored.getNumberOfAdults(), stored.getNumberOfChildren(), stored.getCreatedAt());
+    }
+
+    private static WaitlistEntryResponse toResponse(Entry entry) {
+        return WaitlistEntryResponse.builder()
+                .id(entry.id())
+                .guestId(entry.guestId())
+                .roomType(entry.roomType())
+                .checkInDate(entry.checkInDate())
+                .checkOutDate(entry.checkOutDate())
+                .numberOfAdults(entry.numberOfAdults())
+                .numberOfChildren(entry.numberOfChildren())
+                .createdAt(entry.createdAt())
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.hotel.reservation_service.benchmark;
+
+import com.hotel.reservation_service.dto.RoomResponse;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.service.OccupancyMatrix;
+import com.hotel.reservation_service.service.RoomOccupancyIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the original searchAvailableRooms stream pipeline (filter every reservation for
+ * overlap, then filter the catalog) with the bitset occupancy matrix, for a 3-night stay
+ * anywhere in the next six months.
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main AvailabilitySearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilitySearchBenchmark {
+
+    private static final String[] ROOM_TYPES = {"Standard", "Deluxe", "Suite"};
+
+    @Param({"200", "2000"})
+    private int rooms;
+
+    // past and future stays per room; the stream pipeline has to look at all of them
+    @Param({"50"})
+    private int staysPerRoom;
+
+    private List<RoomResponse> catalog;
+    private List<Reservation> reservations;
+    private OccupancyMatrix matrix;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        catalog = new ArrayList<>();
+        reservations = new ArrayList<>();
+        long reservationId = 1;
+        for (long roomId = 1; roomId <= rooms; roomId++) {
+            catalog.add(new RoomResponse(roomId, "R" + roomId, ROOM_TYPES[(int) (roomId % 3)], 1 + (int) (roomId % 4), 1000, true));
+            LocalDate cursor = today.minusDays(staysPerRoom * 4L);
+            for (int i = 0; i < staysPerRoom; i++) {
+                cursor = cursor.plusDays(1 + random.nextInt(6));
+                LocalDate end = cursor.plusDays(1 + random.nextInt(4));
+                reservations.add(Reservation.builder()
+                        .id(reservationId++).roomId(roomId).checkInDate(cursor).checkOutDate(end).build());
+                cursor = end;
+            }
+        }
+        matrix = new OccupancyMatrix(new RoomOccupancyIndex(), 400);
+        matrix.rebuild(reservations.stream().filter(r -> r.getCheckOutDate().isAfter(today)).toList());
+        checkIn = today.plusDays(1 + random.nextInt(180));
+        checkOut = checkIn.plusDays(3);
+    }
+
+    @Benchmark
+    public List<RoomResponse> streamPipeline() {
+        Set<Long> reserved = reservations.stream()
+                .filter(r -> r.getCheckInDate().isBefore(checkOut) && r.getCheckOutDate().isAfter(checkIn))
+                .map(Reservation::getRoomId)
+                .collect(Collectors.toSet());
+        return catalog.stream()
+                .filter(room -> !reserved.contains(room.getId()))
+                .filter(room -> room.getCapacity() == 2)
+                .filter(room -> room.getRoomType().equals("Deluxe"))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<RoomResponse> occupancyMatrix() {
+        Set<Long> reserved = matrix.occupiedRooms(checkIn, checkOut);
+        List<RoomResponse> result = new ArrayList<>();
+        for (RoomResponse room : catalog) {
+            if (room.getCapacity() == 2 && room.getRoomType().equals("Deluxe") && !reserved.contains(room.getId())) {
+                result.add(room);
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AvailabilitySearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.hotel.reservation_service.benchmark;
+
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.service.RoomAssignmentOptimizer;
+import com.hotel.reservation_service.service.RoomOccupancyIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Room assignment for one room type of 10k rooms with six months of bookings: the best-fit
+ * choice made on each booking, and the night audit's full repack. A tenth of the stays are
+ * fixed (booked for a specific room); the rest were booked by type.
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main RoomAssignmentBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomAssignmentBenchmark {
+
+    @Param({"10000"})
+    private int rooms;
+
+    // future stays per room
+    @Param({"20"})
+    private int staysPerRoom;
+
+    private List<RoomAssignmentOptimizer.Room> roomList;
+    private Map<Long, List<RoomAssignmentOptimizer.Stay>> fixedByRoom;
+    private List<RoomAssignmentOptimizer.Stay> movable;
+    private RoomOccupancyIndex index;
+    private RoomAssignmentOptimizer.Stay newStay;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        roomList = new ArrayList<>();
+        fixedByRoom = new HashMap<>();
+        movable = new ArrayList<>();
+        List<Reservation> reservations = new ArrayList<>();
+        long reservationId = 1;
+        for (long roomId = 1; roomId <= rooms; roomId++) {
+            roomList.add(new RoomAssignmentOptimizer.Room(roomId, 2 + (int) (roomId % 3)));
+            LocalDate cursor = today;
+            for (int i = 0; i < staysPerRoom; i++) {
+                cursor = cursor.plusDays(1 + random.nextInt(6));
+                LocalDate end = cursor.plusDays(1 + random.nextInt(4));
+                RoomAssignmentOptimizer.Stay stay = new RoomAssignmentOptimizer.Stay(reservationId, cursor, end, 2);
+                if (random.nextInt(10) == 0) {
+                    fixedByRoom.computeIfAbsent(roomId, id -> new ArrayList<>()).add(stay);
+                } else {
+                    movable.add(stay);
+                }
+                reservations.add(Reservation.builder()
+                        .id(reservationId++).roomId(roomId).checkInDate(cursor).checkOutDate(end).build());
+                cursor = end;
+            }
+        }
+        index = new RoomOccupancyIndex();
+        index.rebuild(reservations);
+        LocalDate checkIn = today.plusDays(1 + random.nextInt(90));
+        newStay = new RoomAssignmentOptimizer.Stay(null, checkIn, checkIn.plusDays(2), 2);
+    }
+
+    @Benchmark
+    public Optional<RoomAssignmentOptimizer.Room> bestFitOnBooking() {
+        return RoomAssignmentOptimizer.bestFit(roomList, newStay, index);
+    }
+
+    @Benchmark
+    public Optional<Map<Long, Long>> repackAtNightAudit() {
+        return RoomAssignmentOptimizer.repack(roomList, fixedByRoom, movable);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RoomAssignmentBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
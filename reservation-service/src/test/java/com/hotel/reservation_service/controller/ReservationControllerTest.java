@@ -2,19 +2,29 @@ package com.hotel.reservation_service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hotel.reservation_service.dto.*;
+import com.hotel.reservation_service.service.ReservationEventStream;
 import com.hotel.reservation_service.service.ReservationService;
+import com.hotel.reservation_service.service.Waitlist;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,6 +38,12 @@ class ReservationControllerTest {
     @MockitoBean
     private ReservationService reservationService;
 
+    @MockitoBean
+    private ReservationEventStream reservationEventStream;
+
+    @MockitoBean
+    private Waitlist waitlist;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -77,7 +93,7 @@ class ReservationControllerTest {
                 .rate(1500.0)
                 .build();
 
-        when(reservationService.makeReservation(any(ReservationRequest.class))).thenReturn(response);
+        when(reservationService.makeReservation(any(ReservationRequest.class), isNull())).thenReturn(response);
 
         mockMvc.perform(post("/api/reservations")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -135,20 +151,274 @@ class ReservationControllerTest {
     }
 
     @Test
-    void shouldUpdateRoomAvailabilityViaReservation() throws Exception {
-        doNothing().when(reservationService).updateRoomAvailability(5L, false);
+    void shouldCancelReservation() throws Exception {
+        doNothing().when(reservationService).cancelReservation(6L);
 
-        mockMvc.perform(put("/api/reservations/5/availability?available=false"))
+        mockMvc.perform(delete("/api/reservations/6"))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Room availability updated via Reservation-Service."));
+                .andExpect(content().string("Reservation cancelled successfully."));
     }
 
     @Test
-    void shouldCancelReservation() throws Exception {
-        doNothing().when(reservationService).cancelReservation(6L);
+    void shouldGetReservationPage() throws Exception {
+        ReservationPage page = ReservationPage.builder()
+                .items(List.of(ReservationResponse.builder().id(21L).code("RSV-0021").build()))
+                .nextCursor(21L)
+                .build();
 
-        mockMvc.perform(delete("/api/reservations/6"))
+        when(reservationService.getReservationPage(eq(20L), eq(1), any(ReservationFilter.class))).thenReturn(page);
+
+        mockMvc.perform(get("/api/reservations/page?afterId=20&limit=1&status=Confirmed"))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Reservation cancelled successfully."));
+                .andExpect(jsonPath("$.items[0].code").value("RSV-0021"))
+                .andExpect(jsonPath("$.nextCursor").value(21));
+    }
+
+    @Test
+    void shouldRejectOversizedPage() throws Exception {
+        mockMvc.perform(get("/api/reservations/page?limit=5000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldGetSearchCacheStats() throws Exception {
+        when(reservationService.getSearchCacheStats()).thenReturn(new SearchCacheStats(3, 1, 2, 0.75));
+
+        mockMvc.perform(get("/api/reservations/search-rooms/cache-stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(3))
+                .andExpect(jsonPath("$.hitRate").value(0.75));
+    }
+
+    @Test
+    void shouldConfirmHold() throws Exception {
+        ReservationResponse response = new ReservationResponse();
+        response.setId(5L);
+        response.setStatus("Confirmed");
+
+        when(reservationService.confirmHold(5L)).thenReturn(response);
+
+        mockMvc.perform(post("/api/reservations/5/confirm"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("Confirmed"));
+    }
+
+    @Test
+    void shouldPassIdempotencyKeyToService() throws Exception {
+        ReservationRequest request = new ReservationRequest();
+        request.setGuestId(1L);
+        request.setRoomId(2L);
+        request.setCheckInDate(LocalDate.now().plusDays(1));
+        request.setCheckOutDate(LocalDate.now().plusDays(3));
+        request.setNumberOfAdults(2);
+
+        ReservationResponse response = ReservationResponse.builder().id(10L).code("RSV-0001").build();
+        when(reservationService.makeReservation(any(ReservationRequest.class), eq("retry-1"))).thenReturn(response);
+
+        mockMvc.perform(post("/api/reservations")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(10));
+    }
+
+    @Test
+    void shouldOpenStreamResumingFromLastEventId() throws Exception {
+        when(reservationEventStream.subscribe("42")).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/reservations/stream")
+                        .header("Last-Event-ID", "42")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void shouldReturnAvailabilityCalendar() throws Exception {
+        LocalDate from = LocalDate.now();
+        when(reservationService.getAvailabilityCalendar(from, 3))
+                .thenReturn(new AvailabilityCalendarResponse(from, 3, Map.of("Deluxe", new int[]{4, 3, 4})));
+
+        mockMvc.perform(get("/api/reservations/availability-calendar")
+                        .param("from", from.toString())
+                        .param("days", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomsLeft.Deluxe[1]").value(3));
+    }
+
+    @Test
+    void shouldRejectFlexibleSearchWindowShorterThanStay() throws Exception {
+        FlexibleSearchRequest request = new FlexibleSearchRequest();
+        request.setWindowStart(LocalDate.now().plusDays(1));
+        request.setWindowEnd(LocalDate.now().plusDays(3));
+        request.setNights(4);
+        request.setNumberOfGuests(2);
+        request.setRoomType("Deluxe");
+
+        mockMvc.perform(post("/api/reservations/search-rooms/flexible")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldJoinWaitlist() throws Exception {
+        WaitlistRequest request = new WaitlistRequest();
+        request.setGuestId(1L);
+        request.setRoomType("Deluxe");
+        request.setCheckInDate(LocalDate.now().plusDays(1));
+        request.setCheckOutDate(LocalDate.now().plusDays(3));
+        request.setNumberOfAdults(2);
+
+        when(waitlist.join(any(WaitlistRequest.class)))
+                .thenReturn(WaitlistEntryResponse.builder().id(7L).guestId(1L).roomType("Deluxe").build());
+
+        mockMvc.perform(post("/api/reservations/waitlist")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(7));
+    }
+
+    @Test
+    void shouldRejectWaitlistEntryWithoutRoomType() throws Exception {
+        WaitlistRequest request = new WaitlistRequest();
+        request.setGuestId(1L);
+        request.setCheckInDate(LocalDate.now().plusDays(1));
+        request.setCheckOutDate(LocalDate.now().plusDays(3));
+        request.setNumberOfAdults(2);
+
+        mockMvc.perform(post("/api/reservations/waitlist")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldMakeBatchReservation() throws Exception {
+        BatchReservationRequest.Room item = new BatchReservationRequest.Room();
+        item.setRoomId(2L);
+        item.setNumberOfAdults(2);
+        item.setCheckInDate(LocalDate.now().plusDays(1));
+        item.setCheckOutDate(LocalDate.now().plusDays(3));
+        BatchReservationRequest request = new BatchReservationRequest();
+        request.setGuestId(1L);
+        request.setRooms(List.of(item));
+
+        when(reservationService.makeBatchReservation(any(BatchReservationRequest.class), isNull()))
+                .thenReturn(List.of(ReservationResponse.builder().id(10L).roomId(2L).build()));
+
+        mockMvc.perform(post("/api/reservations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(10));
+    }
+
+    @Test
+    void shouldRejectBatchItemWithCheckOutBeforeCheckIn() throws Exception {
+        BatchReservationRequest.Room item = new BatchReservationRequest.Room();
+        item.setRoomId(2L);
+        item.setNumberOfAdults(2);
+        item.setCheckInDate(LocalDate.now().plusDays(3));
+        item.setCheckOutDate(LocalDate.now().plusDays(1));
+        BatchReservationRequest request = new BatchReservationRequest();
+        request.setGuestId(1L);
+        request.setRooms(List.of(item));
+
+        mockMvc.perform(post("/api/reservations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldUpdateReservation() throws Exception {
+        ReservationUpdateRequest request = new ReservationUpdateRequest();
+        request.setCheckOutDate(LocalDate.now().plusDays(5));
+
+        when(reservationService.updateReservation(eq(10L), any(ReservationUpdateRequest.class)))
+                .thenReturn(ReservationResponse.builder().id(10L).code("RSV-0001").numberOfNights(4).build());
+
+        mockMvc.perform(patch("/api/reservations/10")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("RSV-0001"))
+                .andExpect(jsonPath("$.numberOfNights").value(4));
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenUpdatingUnknownReservation() throws Exception {
+        ReservationUpdateRequest request = new ReservationUpdateRequest();
+        request.setNumberOfAdults(1);
+
+        when(reservationService.updateReservation(eq(99L), any(ReservationUpdateRequest.class)))
+                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Reservation not found with id: 99"));
+
+        mockMvc.perform(patch("/api/reservations/99")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldRejectEmptyUpdate() throws Exception {
+        mockMvc.perform(patch("/api/reservations/10")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldBulkCancelReservations() throws Exception {
+        BulkCancelRequest request = new BulkCancelRequest();
+        request.setIds(List.of(1L, 2L));
+
+        when(reservationService.cancelReservations(any(BulkCancelRequest.class)))
+                .thenReturn(BulkCancelResponse.builder().cancelledIds(List.of(1L)).skipped(1).build());
+
+        mockMvc.perform(post("/api/reservations/cancel")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cancelledIds[0]").value(1))
+                .andExpect(jsonPath("$.skipped").value(1));
+    }
+
+    @Test
+    void shouldRejectBulkCancelWithSeveralSelectors() throws Exception {
+        BulkCancelRequest request = new BulkCancelRequest();
+        request.setIds(List.of(1L));
+        request.setCodes(List.of("RSV-0001"));
+
+        mockMvc.perform(post("/api/reservations/cancel")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        verify(reservationService, never()).cancelReservations(any());
+    }
+
+    @Test
+    void shouldRejectBulkCancelWithEmptyFilter() throws Exception {
+        mockMvc.perform(post("/api/reservations/cancel")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\": {}}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnArchivedReservationPage() throws Exception {
+        ReservationPage page = ReservationPage.builder()
+                .items(List.of(ReservationResponse.builder().id(3L).code("RESV-3").build()))
+                .nextCursor(3L)
+                .build();
+        when(reservationService.getArchivedReservationPage(isNull(), eq(1), any(ReservationFilter.class), eq(7L)))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/api/reservations/archive").param("limit", "1").param("guestId", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].code").value("RESV-3"))
+                .andExpect(jsonPath("$.nextCursor").value(3));
     }
 }
@@ -0,0 +1,129 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.dto.RoomResponse;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityCountersTest {
+
+    @Mock
+    private RoomCatalogCache roomCatalog;
+
+    private final RoomOccupancyIndex occupancyIndex = new RoomOccupancyIndex();
+    private AvailabilityCounters counters;
+    private final LocalDate today = LocalDate.now();
+
+    private final RoomResponse deluxe1 = new RoomResponse(1L, "101", "Deluxe", 2, 1000, true);
+    private final RoomResponse deluxe2 = new RoomResponse(2L, "102", "Deluxe", 2, 1000, true);
+    private final RoomResponse suite = new RoomResponse(3L, "201", "Suite", 4, 3000, true);
+
+    @BeforeEach
+    void setUp() {
+        counters = new AvailabilityCounters(roomCatalog, occupancyIndex, 30);
+        lenient().when(roomCatalog.generation()).thenReturn(1L);
+        lenient().when(roomCatalog.getAll()).thenReturn(List.of(deluxe1, deluxe2, suite));
+        counters.rebuild(List.of());
+    }
+
+    private Reservation stay(long id, long roomId, int fromDay, int toDay) {
+        return Reservation.builder()
+                .id(id)
+                .roomId(roomId)
+                .checkInDate(today.plusDays(fromDay))
+                .checkOutDate(today.plusDays(toDay))
+                .build();
+    }
+
+    @Test
+    void shouldCountRoomsLeftPerTypeAndNight() {
+        occupancyIndex.onReservationChanged(ReservationChangedEvent.created(stay(1L, 1L, 1, 3)));
+        occupancyIndex.onReservationChanged(ReservationChangedEvent.created(stay(2L, 2L, 2, 4)));
+
+        Map<String, int[]> left = counters.roomsLeft(today, 5);
+
+        assertArrayEquals(new int[]{2, 1, 0, 1, 2}, left.get("Deluxe"));
+        assertArrayEquals(new int[]{1, 1, 1, 1, 1}, left.get("Suite"));
+    }
+
+    @Test
+    void shouldGiveNightsBackOnCancellation() {
+        Reservation reservation = stay(1L, 3L, 0, 2);
+        occupancyIndex.onReservationChanged(ReservationChangedEvent.created(reservation));
+        occupancyIndex.onReservationChanged(ReservationChangedEvent.cancelled(reservation));
+
+        assertArrayEquals(new int[]{1, 1}, counters.roomsLeft(today, 2).get("Suite"));
+    }
+
+    @Test
+    void shouldCountRoomsAddedToCatalog() {
+        RoomResponse suite2 = new RoomResponse(4L, "202", "Suite", 4, 3000, true);
+        when(roomCatalog.generation()).thenReturn(2L);
+        when(roomCatalog.getAll()).thenReturn(List.of(deluxe1, deluxe2, suite, suite2));
+
+        assertArrayEquals(new int[]{2}, counters.roomsLeft(today, 1).get("Suite"));
+    }
+
+    @Test
+    void shouldRebuildWhenRoomChangesType() {
+        RoomResponse upgraded = new RoomResponse(1L, "101", "Suite", 2, 1000, true);
+        Reservation booked = stay(1L, 1L, 0, 1);
+        occupancyIndex.onReservationChanged(ReservationChangedEvent.created(booked));
+        when(roomCatalog.generation()).thenReturn(2L);
+        when(roomCatalog.getAll()).thenReturn(List.of(upgraded, deluxe2, suite));
+
+        Map<String, int[]> left = counters.roomsLeft(today, 1);
+
+        assertArrayEquals(new int[]{1}, left.get("Deluxe"));
+        assertArrayEquals(new int[]{1}, left.get("Suite"));
+    }
+
+    @Test
+    void shouldCountEachStayOnceAcrossARebuild() {
+        Reservation cancelled = stay(1L, 1L, 0, 2);
+        Reservation booked = stay(2L, 2L, 0, 2);
+        occupancyIndex.add(cancelled);
+
+        // the cancellation and the booking commit while the snapshot is read, which still
+        // holds the cancelled stay and, read a moment later, the booked one too
+        occupancyIndex.rebuild(() -> {
+            occupancyIndex.remove(cancelled);
+            occupancyIndex.add(booked);
+            return List.of(cancelled, booked);
+        });
+
+        assertArrayEquals(new int[]{1, 1}, counters.roomsLeft(today, 2).get("Deluxe"));
+    }
+
+    @Test
+    void shouldCountTheNightEnteringTheHorizonWhenAdvancing() {
+        // booked across the horizon edge: only the nights up to day 30 are counted
+        Reservation reservation = stay(1L, 1L, 28, 33);
+        occupancyIndex.add(reservation);
+        occupancyIndex.add(stay(2L, 3L, 31, 32));
+
+        counters.advanceTo(today.plusDays(2));
+
+        Map<String, int[]> left = counters.roomsLeft(today.plusDays(29), 3);
+        assertArrayEquals(new int[]{1, 1, 1}, left.get("Deluxe"));
+        assertArrayEquals(new int[]{1, 1, 0}, left.get("Suite"));
+    }
+
+    @Test
+    void shouldRejectRangesOutsideHorizon() {
+        assertThrows(IllegalArgumentException.class, () -> counters.roomsLeft(today, 31));
+        assertThrows(IllegalArgumentException.class, () -> counters.roomsLeft(today.minusDays(1), 2));
+    }
+}
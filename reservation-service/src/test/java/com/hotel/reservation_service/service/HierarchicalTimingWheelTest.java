@@ -0,0 +1,74 @@
+package com.hotel.reservation_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_000_000;
+
+    @Test
+    void shouldFireAtEndOfDeadlineTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 8, START);
+        wheel.schedule("a", START + 25);
+
+        assertTrue(wheel.advanceTo(START + 29).isEmpty());
+        assertEquals(List.of("a"), wheel.advanceTo(START + 30));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldCascadeTimersBeyondFirstLevel() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 8, START);
+        // 8 * 8 * 10 ms per second-level turn, so this lands two levels up
+        wheel.schedule("late", START + 1_234);
+
+        assertTrue(wheel.advanceTo(START + 1_229).isEmpty());
+        assertEquals(List.of("late"), wheel.advanceTo(START + 1_240));
+    }
+
+    @Test
+    void shouldNotFireCancelledTimer() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 8, START);
+        HierarchicalTimingWheel.Timer<String> timer = wheel.schedule("a", START + 500);
+        wheel.schedule("b", START + 500);
+
+        assertTrue(wheel.cancel(timer));
+        assertFalse(wheel.cancel(timer));
+        assertEquals(List.of("b"), wheel.advanceTo(START + 600));
+    }
+
+    @Test
+    void shouldFireEveryTimerNeverEarlyAndWithinOneTick() {
+        Random random = new Random(42);
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(10, 8, START);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        long now = START;
+        List<Integer> fired = new ArrayList<>();
+        int next = 0;
+        while (now < START + 50_000) {
+            for (int i = 0; i < 3; i++) {
+                long deadline = now + random.nextInt(20_000);
+                deadlines.put(next, deadline);
+                wheel.schedule(next++, deadline);
+            }
+            now += 1 + random.nextInt(40);
+            for (Integer id : wheel.advanceTo(now)) {
+                long deadline = deadlines.get(id);
+                assertTrue(deadline <= now, "fired early: " + id);
+                assertTrue(now - deadline < 10 + 40, "fired late: " + id);
+                fired.add(id);
+            }
+        }
+        fired.addAll(wheel.advanceTo(now + 30_000));
+        assertEquals(next, fired.size());
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,145 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import com.hotel.reservation_service.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HoldExpirySchedulerTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private RoomNightLedger roomNightLedger;
+
+    @Mock
+    private RoomAvailabilityOutbox roomAvailabilityOutbox;
+
+    @Mock
+    private ReservationViewProjector viewProjector;
+
+    @Mock
+    private ReservationEventStream eventStream;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ClusterLock clusterLock;
+
+    private HoldExpiryScheduler scheduler;
+
+    private final Reservation hold = Reservation.builder()
+            .id(7L)
+            .roomId(3L)
+            .status("Hold")
+            .checkInDate(LocalDate.now())
+            .checkOutDate(LocalDate.now().plusDays(2))
+            .holdExpiresAt(LocalDateTime.now().minusSeconds(1))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new HoldExpiryScheduler(reservationRepository, roomNightLedger, roomAvailabilityOutbox,
+                viewProjector, eventStream, transactionTemplate, eventPublisher, clusterLock, 1, 8, 2);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void shouldReleaseExpiredHoldOnTick() throws InterruptedException {
+        when(reservationRepository.lockExpiredHolds(eq(List.of(7L)), any())).thenReturn(List.of(hold));
+
+        scheduler.schedule(7L, hold.getHoldExpiresAt());
+        Thread.sleep(5);
+        scheduler.tick();
+
+        verify(reservationRepository).cancelAll(List.of(7L));
+        verify(roomNightLedger).releaseAll(List.of(7L));
+        verify(viewProjector).markCancelled(List.of(7L));
+        verify(reservationRepository, never()).deleteAllInBatch(any());
+        verify(roomAvailabilityOutbox).enqueue(3L, true);
+        verify(eventStream).recordAll(List.of(ReservationChangedEvent.cancelled(hold)));
+        verify(eventPublisher).publishEvent(any(ReservationChangedEvent.class));
+        assertEquals(0, scheduler.pendingHolds());
+    }
+
+    @Test
+    void shouldNotReleaseCancelledHold() throws InterruptedException {
+        scheduler.schedule(7L, hold.getHoldExpiresAt());
+        scheduler.cancel(7L);
+        Thread.sleep(5);
+        scheduler.tick();
+
+        verifyNoInteractions(reservationRepository, roomNightLedger);
+    }
+
+    @Test
+    void shouldSkipHoldsConfirmedMeanwhile() {
+        when(reservationRepository.lockExpiredHolds(eq(List.of(7L)), any())).thenReturn(List.of());
+
+        assertEquals(0, scheduler.release(List.of(7L)));
+        verify(reservationRepository, never()).cancelAll(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldReleaseExpiredHoldsInBatches() throws InterruptedException {
+        when(reservationRepository.lockExpiredHolds(anyCollection(), any())).thenReturn(List.of());
+        LocalDateTime past = LocalDateTime.now().minusSeconds(1);
+        for (long id = 1; id <= 5; id++) {
+            scheduler.schedule(id, past);
+        }
+        Thread.sleep(5);
+        scheduler.tick();
+
+        verify(reservationRepository, times(3)).lockExpiredHolds(anyCollection(), any());
+    }
+
+    @Test
+    void shouldSweepExpiredHoldsNoTimerKnowsAbout() {
+        when(clusterLock.runExclusively(eq(HoldExpiryScheduler.SWEEP_LOCK), any())).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(1).run();
+            return true;
+        });
+        when(reservationRepository.findExpiredHoldIds(any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(5L, 7L), List.of(9L));
+        when(reservationRepository.lockExpiredHolds(anyCollection(), any())).thenReturn(List.of(hold));
+
+        scheduler.sweepExpiredHolds();
+
+        verify(reservationRepository).lockExpiredHolds(eq(List.of(5L, 7L)), any());
+        verify(reservationRepository).lockExpiredHolds(eq(List.of(9L)), any());
+        verify(reservationRepository, times(2)).findExpiredHoldIds(any(), any());
+    }
+
+    @Test
+    void shouldNotSweepWhileAnotherInstanceHoldsTheLock() {
+        when(clusterLock.runExclusively(eq(HoldExpiryScheduler.SWEEP_LOCK), any())).thenReturn(false);
+
+        scheduler.sweepExpiredHolds();
+
+        verifyNoInteractions(reservationRepository);
+    }
+}
@@ -0,0 +1,179 @@
+package com.hotel.reservation_service.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.reservation_service.entity.IdempotencyRecord;
+import com.hotel.reservation_service.exceptions.IdempotencyKeyConflictException;
+import com.hotel.reservation_service.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Kept identical to the copy in the other service, apart from the package and imports
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    private static final TypeReference<Map<String, String>> RESPONSE = new TypeReference<>() {
+    };
+
+    @Mock
+    private IdempotencyRecordRepository recordRepository;
+
+    private IdempotencyStore store;
+    private final AtomicInteger runs = new AtomicInteger();
+    private final Map<String, Object> request = Map.of("roomId", 2, "amount", 5000);
+    private final Map<String, String> result = Map.of("id", "R-1", "status", "Created");
+    private final Supplier<Map<String, String>> action = () -> {
+        runs.incrementAndGet();
+        return result;
+    };
+
+    @BeforeEach
+    void setUp() {
+        store = newStore();
+    }
+
+    @Test
+    void shouldRunOnceAndReplayFromMemory() {
+        Map<String, String> first = store.execute("orders", "k1", request, RESPONSE, action);
+        Map<String, String> second = store.execute("orders", "k1", request, RESPONSE, action);
+
+        assertEquals(1, runs.get());
+        assertEquals(first, second);
+        verify(recordRepository).saveAndFlush(any(IdempotencyRecord.class));
+        verify(recordRepository).complete(anyString(), contains("R-1"));
+        verify(recordRepository, times(1)).findById(anyString());
+    }
+
+    @Test
+    void shouldReplayResponseStoredByAnotherInstance() throws Exception {
+        store.execute("orders", "k1", request, RESPONSE, action);
+        IdempotencyRecord stored = captureInserted();
+        String body = new ObjectMapper().writeValueAsString(result);
+        when(recordRepository.findById(stored.getId())).thenReturn(Optional.of(
+                new IdempotencyRecord(stored.getId(), stored.getRequestHash(), body, LocalDateTime.now(), null)));
+
+        Map<String, String> replayed = newStore().execute("orders", "k1", request, RESPONSE, action);
+
+        assertEquals("R-1", replayed.get("id"));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentRequest() {
+        store.execute("orders", "k1", request, RESPONSE, action);
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> store.execute("orders", "k1", Map.of("roomId", 3, "amount", 9000), RESPONSE, action));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void shouldRejectKeyOfRequestStillInProgress() {
+        when(recordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> store.execute("orders", "k1", request, RESPONSE, action));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void shouldTakeOverKeyLeftPendingPastItsLease() {
+        when(recordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(recordRepository.takeOverExpired(anyString(), anyString(), any(), any(), any())).thenReturn(1);
+
+        Map<String, String> response = store.execute("orders", "k1", request, RESPONSE, action);
+
+        assertEquals("R-1", response.get("id"));
+        assertEquals(1, runs.get());
+        verify(recordRepository).complete(anyString(), contains("R-1"));
+    }
+
+    @Test
+    void shouldReuseKeyWhoseResponseIsPastRetention() {
+        when(recordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        // completed a day and more ago, not purged yet
+        when(recordRepository.findById(anyString())).thenReturn(Optional.of(new IdempotencyRecord(
+                "id", "other request", "{\"id\":\"R-0\"}", LocalDateTime.now().minusHours(25), null)));
+        when(recordRepository.takeOverExpired(anyString(), anyString(), any(), any(), any())).thenReturn(1);
+
+        Map<String, String> response = store.execute("orders", "k1", request, RESPONSE, action);
+
+        assertEquals("R-1", response.get("id"));
+        assertEquals(1, runs.get());
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(recordRepository).takeOverExpired(anyString(), anyString(), now.capture(), cutoff.capture(), any());
+        assertEquals(Duration.ofHours(24), Duration.between(cutoff.getValue(), now.getValue()));
+    }
+
+    @Test
+    void shouldNotRunAgainWhenResponseCouldNotBeStored() {
+        when(recordRepository.complete(anyString(), anyString()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        Map<String, String> first = store.execute("orders", "k1", request, RESPONSE, action);
+        Map<String, String> second = store.execute("orders", "k1", request, RESPONSE, action);
+
+        assertEquals("R-1", first.get("id"));
+        assertEquals(first, second);
+        assertEquals(1, runs.get());
+        verify(recordRepository, never()).deletePending(anyString());
+    }
+
+    @Test
+    void shouldLeaseNewKeyUntilRequestCompletes() {
+        store.execute("orders", "k1", request, RESPONSE, action);
+
+        IdempotencyRecord inserted = captureInserted();
+        assertNull(inserted.getResponseBody());
+        assertEquals(Duration.ofMinutes(2), Duration.between(inserted.getCreatedAt(), inserted.getPendingUntil()));
+    }
+
+    @Test
+    void shouldFreeKeyWhenRequestFails() {
+        assertThrows(IllegalStateException.class, () -> store.execute("orders", "k1", request, RESPONSE, () -> {
+            throw new IllegalStateException("failed");
+        }));
+
+        verify(recordRepository).deletePending(anyString());
+        verify(recordRepository, never()).complete(anyString(), anyString());
+    }
+
+    @Test
+    void shouldRunWithoutKey() {
+        store.execute("orders", null, request, RESPONSE, action);
+
+        assertEquals(1, runs.get());
+        verifyNoInteractions(recordRepository);
+    }
+
+    private IdempotencyStore newStore() {
+        return new IdempotencyStore(recordRepository, new ObjectMapper(), 100, Duration.ofHours(24), Duration.ofMinutes(2));
+    }
+
+    private IdempotencyRecord captureInserted() {
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(recordRepository).saveAndFlush(captor.capture());
+        return captor.getValue();
+    }
+}
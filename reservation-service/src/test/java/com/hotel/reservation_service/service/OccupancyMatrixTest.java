@@ -0,0 +1,119 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyMatrixTest {
+
+    private final RoomOccupancyIndex occupancyIndex = new RoomOccupancyIndex();
+    private final OccupancyMatrix matrix = new OccupancyMatrix(occupancyIndex, 30);
+    private final LocalDate today = LocalDate.now();
+
+    private Reservation stay(long id, long roomId, int fromDay, int toDay) {
+        return Reservation.builder()
+                .id(id)
+                .roomId(roomId)
+                .checkInDate(today.plusDays(fromDay))
+                .checkOutDate(today.plusDays(toDay))
+                .build();
+    }
+
+    @Test
+    void shouldReportRoomsTakenOnAnyNightOfTheRange() {
+        occupancyIndex.add(stay(1L, 10L, 2, 4));
+        occupancyIndex.add(stay(2L, 20L, 6, 8));
+
+        assertEquals(Set.of(10L), matrix.occupiedRooms(today, today.plusDays(3)));
+        assertEquals(Set.of(10L, 20L), matrix.occupiedRooms(today.plusDays(3), today.plusDays(7)));
+        assertTrue(matrix.occupiedRooms(today.plusDays(4), today.plusDays(6)).isEmpty());
+    }
+
+    @Test
+    void shouldFreeNightsOnCancellation() {
+        Reservation reservation = stay(1L, 10L, 2, 4);
+        occupancyIndex.onReservationChanged(ReservationChangedEvent.created(reservation));
+
+        occupancyIndex.onReservationChanged(ReservationChangedEvent.cancelled(reservation));
+
+        assertTrue(matrix.occupiedRooms(today, today.plusDays(10)).isEmpty());
+    }
+
+    @Test
+    void shouldGrowPastOneWordOfRooms() {
+        List<Reservation> reservations = new ArrayList<>();
+        for (long roomId = 1; roomId <= 130; roomId++) {
+            reservations.add(stay(roomId, roomId, 1, 2));
+        }
+        matrix.rebuild(reservations);
+
+        assertEquals(130, matrix.occupiedRooms(today, today.plusDays(5)).size());
+        assertTrue(matrix.occupiedRooms(today.plusDays(2), today.plusDays(5)).isEmpty());
+    }
+
+    @Test
+    void shouldRefillFromTheIndexAfterItsRebuild() {
+        Reservation cancelled = stay(1L, 10L, 2, 4);
+        Reservation booked = stay(2L, 20L, 2, 4);
+        occupancyIndex.add(cancelled);
+
+        // both changes commit while the snapshot, which still holds the cancelled stay, is read
+        occupancyIndex.rebuild(() -> {
+            occupancyIndex.remove(cancelled);
+            occupancyIndex.add(booked);
+            return List.of(cancelled);
+        });
+
+        assertEquals(Set.of(20L), matrix.occupiedRooms(today, today.plusDays(10)));
+    }
+
+    @Test
+    void shouldOnlyCoverRangesInsideTheHorizon() {
+        assertTrue(matrix.covers(today, today.plusDays(30)));
+        assertFalse(matrix.covers(today, today.plusDays(31)));
+        assertFalse(matrix.covers(today.minusDays(1), today.plusDays(2)));
+    }
+
+    @Test
+    void shouldClearDaysLeftBehindWhenAdvancing() {
+        occupancyIndex.add(stay(1L, 10L, 0, 1));
+
+        matrix.advanceTo(today.plusDays(1));
+
+        // the row that held today now stands for the new last day of the horizon
+        assertTrue(matrix.occupiedRooms(today.plusDays(29), today.plusDays(31)).isEmpty());
+    }
+
+    @Test
+    void shouldFillTheDayEnteringTheHorizonWhenAdvancing() {
+        // booked across the horizon edge: the matrix only holds the nights up to day 30
+        Reservation reservation = stay(1L, 10L, 28, 33);
+        occupancyIndex.add(reservation);
+        occupancyIndex.add(stay(2L, 20L, 31, 32));
+
+        matrix.advanceTo(today.plusDays(2));
+
+        assertTrue(matrix.covers(today.plusDays(30), today.plusDays(32)));
+        assertEquals(Set.of(10L, 20L), matrix.occupiedRooms(today.plusDays(31), today.plusDays(32)));
+        assertEquals(Set.of(10L), matrix.occupiedRooms(today.plusDays(30), today.plusDays(31)));
+        assertTrue(matrix.occupiedRooms(today.plusDays(2), today.plusDays(28)).isEmpty());
+    }
+
+    @Test
+    void shouldReportNightsOccupiedPerRoom() {
+        occupancyIndex.add(stay(1L, 10L, 1, 3));
+
+        boolean[][] occupied = matrix.nightsOccupied(List.of(10L, 99L), today, today.plusDays(4));
+
+        assertArrayEquals(new boolean[]{false, true, true, false}, occupied[0]);
+        // never booked, so free throughout
+        assertArrayEquals(new boolean[]{false, false, false, false}, occupied[1]);
+    }
+}
@@ -0,0 +1,105 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.entity.ArchivedReservation;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.entity.ReservationView;
+import com.hotel.reservation_service.repository.ArchivedReservationRepository;
+import com.hotel.reservation_service.repository.ReservationRepository;
+import com.hotel.reservation_service.repository.ReservationViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationArchiverTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private ReservationViewRepository viewRepository;
+
+    @Mock
+    private ArchivedReservationRepository archiveRepository;
+
+    @Mock
+    private RoomNightLedger roomNightLedger;
+
+    @Mock
+    private ReservationViewProjector viewProjector;
+
+    @Mock
+    private RoomCatalogCache roomCatalog;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ReservationArchiver archiver;
+
+    private final LocalDate cutoff = LocalDate.now().minusDays(90);
+
+    private Reservation stay(long id, LocalDate checkOut) {
+        return Reservation.builder()
+                .id(id).code("RESV-" + id).roomId(2L).guestId(1L).status("Confirmed")
+                .checkInDate(checkOut.minusDays(2)).checkOutDate(checkOut).numberOfNights(2)
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void shouldMovePastStaysToArchiveWithTheirViewDetails() {
+        when(reservationRepository.findIdsCheckedOutBefore(cutoff, PageRequest.of(0, 500))).thenReturn(List.of(1L, 2L));
+        when(reservationRepository.lockAllById(List.of(1L, 2L)))
+                .thenReturn(List.of(stay(1L, cutoff.minusDays(1)), stay(2L, cutoff.minusDays(30))));
+        when(viewRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(ReservationView.builder()
+                .id(1L).guestName("John Doe").roomNumber("301").roomType("Deluxe").rate(1200.0).build()));
+        when(roomCatalog.getCached(2L)).thenReturn(Optional.empty());
+
+        assertEquals(2, archiver.archive(cutoff));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ArchivedReservation>> archived = ArgumentCaptor.forClass(List.class);
+        verify(archiveRepository).saveAll(archived.capture());
+        assertEquals("John Doe", archived.getValue().get(0).getGuestName());
+        assertEquals("301", archived.getValue().get(0).getRoomNumber());
+        assertEquals("N/A", archived.getValue().get(1).getRoomNumber());
+        assertEquals("RESV-2", archived.getValue().get(1).getCode());
+        verify(roomNightLedger).releaseAll(List.of(1L, 2L));
+        verify(viewProjector).remove(List.of(1L, 2L));
+        verify(reservationRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void shouldKeepStayExtendedSinceItWasSelected() {
+        ReflectionTestUtils.setField(archiver, "chunkSize", 2);
+        when(reservationRepository.findIdsCheckedOutBefore(cutoff, PageRequest.of(0, 2))).thenReturn(List.of(1L));
+        when(reservationRepository.lockAllById(List.of(1L))).thenReturn(List.of(stay(1L, LocalDate.now().plusDays(1))));
+
+        assertEquals(0, archiver.archive(cutoff));
+
+        verifyNoInteractions(archiveRepository, roomNightLedger, viewProjector);
+        verify(reservationRepository, never()).deleteAllByIdInBatch(any());
+    }
+}
@@ -0,0 +1,52 @@
+package com.hotel.reservation_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationCodeGeneratorTest {
+
+    private final ReservationCodeGenerator generator = new ReservationCodeGenerator(5);
+
+    @Test
+    void shouldGenerateUniqueTimeOrderedCodes() {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            codes.add(generator.nextCode((long) i));
+        }
+
+        Set<String> unique = new HashSet<>(codes);
+        assertEquals(codes.size(), unique.size());
+        for (int i = 1; i < codes.size(); i++) {
+            assertTrue(codes.get(i - 1).compareTo(codes.get(i)) < 0, "out of order at " + i);
+        }
+    }
+
+    @Test
+    void shouldEncodeShardAndCreationTime() {
+        String code = generator.nextCode(37L);
+
+        assertTrue(code.matches("RESV-[0-9A-HJKMNP-TV-Z]{13}"), code);
+        assertEquals(37 % ReservationCodeGenerator.SHARD_COUNT, ReservationCodeGenerator.shardOf(code));
+        assertTrue(Duration.between(ReservationCodeGenerator.createdAt(code), Instant.now()).abs().toSeconds() < 5);
+    }
+
+    @Test
+    void shouldRequireNodeIdInRange() {
+        assertThrows(IllegalStateException.class, () -> new ReservationCodeGenerator(-1));
+        assertThrows(IllegalStateException.class, () -> new ReservationCodeGenerator(128));
+        assertDoesNotThrow(() -> new ReservationCodeGenerator(127));
+    }
+
+    @Test
+    void shouldRejectForeignCodes() {
+        assertThrows(IllegalArgumentException.class, () -> ReservationCodeGenerator.shardOf("RESV-1A2B3C4D"));
+    }
+}
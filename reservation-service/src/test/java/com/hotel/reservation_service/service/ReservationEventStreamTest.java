@@ -0,0 +1,167 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.dto.ReservationStreamEvent;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.entity.ReservationChange;
+import com.hotel.reservation_service.event.RecordedReservationChangeEvent;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import com.hotel.reservation_service.repository.ReservationChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationEventStreamTest {
+
+    @Mock
+    private ReservationChangeRepository changeRepository;
+
+    @Mock
+    private ClusterLock clusterLock;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ReservationEventStream stream;
+
+    @BeforeEach
+    void setUp() {
+        stream = newStream(60000);
+        stream.startAfter(100);
+    }
+
+    private ReservationEventStream newStream(long gapTimeoutMs) {
+        return new ReservationEventStream(changeRepository, clusterLock, eventPublisher, 4, 60000, gapTimeoutMs, Duration.ofHours(24));
+    }
+
+    private static ReservationStreamEvent event(long reservationId) {
+        return ReservationStreamEvent.builder().type("created").reservationId(reservationId).build();
+    }
+
+    private static ReservationChange change(long id) {
+        return ReservationChange.builder().id(id).type("created").reservationId(id * 10).status("Confirmed").build();
+    }
+
+    private static List<Long> sequences(List<ReservationEventStream.Entry> entries) {
+        return entries.stream().map(ReservationEventStream.Entry::sequence).toList();
+    }
+
+    @Test
+    void shouldReplayEventsAfterLastEventId() {
+        stream.append(101, event(1));
+        stream.append(102, event(2));
+        stream.append(103, event(3));
+
+        List<ReservationEventStream.Entry> missed = stream.eventsAfter(101).orElseThrow();
+
+        assertEquals(List.of(2L, 3L), missed.stream().map(entry -> entry.event().getReservationId()).toList());
+        assertEquals(103, missed.get(1).sequence());
+        assertTrue(stream.eventsAfter(stream.lastSequence()).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void shouldReportGapOnceEventsLeftTheBuffer() {
+        for (int i = 1; i <= 6; i++) {
+            stream.append(100 + i, event(i));
+        }
+
+        // buffer of 4 holds 103..106: resuming after 102 is still complete, after 101 is not
+        assertEquals(4, stream.eventsAfter(102).orElseThrow().size());
+        assertTrue(stream.eventsAfter(101).isEmpty());
+    }
+
+    @Test
+    void shouldReportGapForIdsBeforeStartupOrNotYetSeen() {
+        stream.append(101, event(1));
+
+        assertTrue(stream.eventsAfter(100).isPresent());
+        assertTrue(stream.eventsAfter(99).isEmpty());
+        assertTrue(stream.eventsAfter(stream.lastSequence() + 10).isEmpty());
+        assertEquals(ReservationEventStream.UNKNOWN_SEQUENCE, ReservationEventStream.sequenceOf("k3x9-42"));
+        assertTrue(stream.eventsAfter(ReservationEventStream.UNKNOWN_SEQUENCE).isEmpty());
+    }
+
+    @Test
+    void shouldStreamChangesRecordedByAnyInstanceInIdOrder() {
+        when(changeRepository.findByIdGreaterThanOrderByIdAsc(eq(100L), any())).thenReturn(List.of(change(101), change(102)));
+        when(changeRepository.findByIdGreaterThanOrderByIdAsc(eq(102L), any())).thenReturn(List.of(change(103)));
+
+        stream.poll();
+        stream.poll();
+
+        assertEquals(List.of(101L, 102L, 103L), sequences(stream.eventsAfter(100).orElseThrow()));
+        assertEquals(1030L, stream.eventsAfter(102).orElseThrow().get(0).event().getReservationId());
+        verify(eventPublisher, times(3)).publishEvent(any(RecordedReservationChangeEvent.class));
+    }
+
+    @Test
+    void shouldHoldBackBehindIdNotCommittedYet() {
+        when(changeRepository.findByIdGreaterThanOrderByIdAsc(eq(100L), any())).thenReturn(List.of(change(101), change(103)));
+
+        stream.poll();
+
+        assertEquals(101, stream.lastSequence());
+    }
+
+    @Test
+    void shouldSkipIdMissingPastTheGapTimeout() {
+        ReservationEventStream skipping = newStream(0);
+        skipping.startAfter(100);
+        when(changeRepository.findByIdGreaterThanOrderByIdAsc(eq(100L), any())).thenReturn(List.of(change(101), change(103)));
+
+        skipping.poll();
+
+        assertEquals(List.of(101L, 103L), sequences(skipping.eventsAfter(100).orElseThrow()));
+    }
+
+    @Test
+    void shouldStartAfterLastRecordedChange() {
+        ReservationEventStream fresh = newStream(60000);
+        when(changeRepository.findLastId()).thenReturn(250L);
+
+        fresh.poll();
+
+        assertEquals(250, fresh.lastSequence());
+        assertTrue(fresh.eventsAfter(250).orElseThrow().isEmpty());
+        assertTrue(fresh.eventsAfter(249).isEmpty());
+    }
+
+    @Test
+    void shouldRecordCancellationWithPreviousState() {
+        Reservation reservation = Reservation.builder().id(9L).code("RESV-9").roomId(3L).status("Confirmed")
+                .checkInDate(LocalDate.now()).checkOutDate(LocalDate.now().plusDays(1)).build();
+
+        stream.record(ReservationChangedEvent.cancelled(reservation));
+
+        ArgumentCaptor<ReservationChange> captor = ArgumentCaptor.forClass(ReservationChange.class);
+        verify(changeRepository).save(captor.capture());
+        assertEquals("cancelled", captor.getValue().getType());
+        assertEquals("Cancelled", captor.getValue().getStatus());
+        assertEquals(9L, captor.getValue().getReservationId());
+        assertNotNull(captor.getValue().getCreatedAt());
+    }
+
+    @Test
+    void shouldPurgeOldChangesOnOneInstance() {
+        when(clusterLock.runExclusively(eq(ReservationEventStream.PURGE_LOCK), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+
+        stream.purgeOldChanges();
+
+        verify(changeRepository).deleteCreatedBefore(any());
+    }
+}
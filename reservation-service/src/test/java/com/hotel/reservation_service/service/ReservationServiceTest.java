@@ -3,10 +3,17 @@ package com.hotel.reservation_service.service;
 import com.hotel.reservation_service.client.GuestClient;
 import com.hotel.reservation_service.client.RoomClient;
 import com.hotel.reservation_service.dto.*;
+import com.hotel.reservation_service.entity.ArchivedReservation;
 import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.entity.ReservationView;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import com.hotel.reservation_service.exceptions.GuestNotFoundException;
 import com.hotel.reservation_service.exceptions.RoomNotAvailableException;
 import com.hotel.reservation_service.exceptions.RoomNotFoundException;
+import com.hotel.reservation_service.repository.ArchivedReservationRepository;
 import com.hotel.reservation_service.repository.ReservationRepository;
+import com.hotel.reservation_service.repository.ReservationViewRepository;
+import feign.FeignException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,11 +21,22 @@ import org.mockito.*;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +51,57 @@ class ReservationServiceTest {
     @Mock
     private GuestClient guestClient;
 
+    @Mock
+    private RoomCatalogCache roomCatalog;
+
+    @Mock
+    private RoomNightLedger roomNightLedger;
+
+    @Mock
+    private RoomAvailabilityOutbox roomAvailabilityOutbox;
+
+    @Mock
+    private SearchResultCache searchCache;
+
+    @Mock
+    private HoldExpiryScheduler holdExpiry;
+
+    @Mock
+    private ReservationViewProjector viewProjector;
+
+    @Mock
+    private ReservationEventStream eventStream;
+
+    @Mock
+    private ReservationViewRepository viewRepository;
+
+    @Mock
+    private ArchivedReservationRepository archiveRepository;
+
+    @Mock
+    private RoomAssigner roomAssigner;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OccupancyMatrix occupancyMatrix;
+
+    @Mock
+    private AvailabilityCounters availabilityCounters;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private RoomOccupancyIndex occupancyIndex = new RoomOccupancyIndex();
+
+    @Spy
+    private Executor applicationTaskExecutor = new SyncTaskExecutor();
+
+    @Spy
+    private ReservationCodeGenerator codeGenerator = new ReservationCodeGenerator(1);
+
     @InjectMocks
     private ReservationService reservationService;
 
@@ -56,13 +125,21 @@ class ReservationServiceTest {
         request.setCheckOutDate(LocalDate.now().plusDays(3));
         request.setNumberOfAdults(2);
         request.setNumberOfChildren(0);
+
+        lenient().when(searchCache.getOrCompute(any(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
     }
 
     @Test
     void shouldMakeReservation() {
         when(guestClient.getGuestById(1L)).thenReturn(guest);
-        when(roomClient.getAllRooms()).thenReturn(List.of(room));
-        when(reservationRepository.findAll()).thenReturn(List.of());
+        when(roomCatalog.findById(2L)).thenReturn(Optional.of(room));
         when(reservationRepository.save(any(Reservation.class)))
                 .thenAnswer(inv -> {
                     Reservation r = inv.getArgument(0);
@@ -74,7 +151,234 @@ class ReservationServiceTest {
 
         assertNotNull(response);
         assertEquals("John Doe", response.getGuestName());
-        verify(roomClient).updateRoomAvailability(2L, false);
+        assertEquals(1, ReservationCodeGenerator.shardOf(response.getCode()));
+        verify(roomNightLedger).claim(any(Reservation.class));
+        verify(viewProjector).record(any(Reservation.class), eq(guest), eq(room));
+        verify(eventStream).record(argThat(event -> event.type() == ReservationChangedEvent.Type.CREATED));
+        verify(eventPublisher).publishEvent(any(ReservationChangedEvent.class));
+        verify(roomAvailabilityOutbox, never()).enqueue(any(), anyBoolean());
+        verifyNoInteractions(roomClient);
+    }
+
+    @Test
+    void shouldBookRoomChosenForRoomType() {
+        request.setRoomId(null);
+        request.setRoomType("Deluxe");
+        when(roomAssigner.chooseRoom("Deluxe", 2, request.getCheckInDate(), request.getCheckOutDate()))
+                .thenReturn(Optional.of(room));
+        when(guestClient.getGuestById(1L)).thenReturn(guest);
+        when(roomCatalog.findById(2L)).thenReturn(Optional.of(room));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        reservationService.makeReservation(request);
+
+        ArgumentCaptor<Reservation> saved = ArgumentCaptor.forClass(Reservation.class);
+        verify(reservationRepository).save(saved.capture());
+        assertEquals(2L, saved.getValue().getRoomId());
+        assertEquals("Deluxe", saved.getValue().getBookedRoomType());
+    }
+
+    @Test
+    void shouldThrowIfNoRoomOfTypeIsFree() {
+        request.setRoomId(null);
+        request.setRoomType("Deluxe");
+        when(roomAssigner.chooseRoom(any(), anyInt(), any(), any())).thenReturn(Optional.empty());
+
+        assertThrows(RoomNotAvailableException.class, () -> reservationService.makeReservation(request));
+        verifyNoInteractions(guestClient, reservationRepository);
+    }
+
+    private BatchReservationRequest batchRequest(long... roomIds) {
+        BatchReservationRequest batch = new BatchReservationRequest();
+        batch.setGuestId(1L);
+        List<BatchReservationRequest.Room> items = new ArrayList<>();
+        for (long roomId : roomIds) {
+            BatchReservationRequest.Room item = new BatchReservationRequest.Room();
+            item.setRoomId(roomId);
+            item.setNumberOfAdults(2);
+            item.setCheckInDate(LocalDate.now().plusDays(1));
+            item.setCheckOutDate(LocalDate.now().plusDays(3));
+            items.add(item);
+        }
+        batch.setRooms(items);
+        return batch;
+    }
+
+    @Test
+    void shouldBookAllRoomsOfBatchInOneTransaction() {
+        RoomResponse other = new RoomResponse(3L, "302", "Deluxe", 2, 1200.0, true);
+        when(guestClient.getGuestById(1L)).thenReturn(guest);
+        when(roomCatalog.findAllById(Set.of(2L, 3L))).thenReturn(Map.of(2L, room, 3L, other));
+        when(reservationRepository.findByRoomIdInAndCheckInDateLessThanAndCheckOutDateGreaterThan(any(), any(), any()))
+                .thenReturn(List.of());
+        doAnswer(inv -> {
+            List<Reservation> inserted = inv.getArgument(0);
+            for (int i = 0; i < inserted.size(); i++) {
+                inserted.get(i).setId(100L + i);
+            }
+            return null;
+        }).when(reservationRepository).insertAll(anyList());
+
+        List<ReservationResponse> responses = reservationService.makeBatchReservation(batchRequest(2L, 3L));
+
+        assertEquals(List.of(100L, 101L), responses.stream().map(ReservationResponse::getId).toList());
+        verify(guestClient, times(1)).getGuestById(1L);
+        verify(roomNightLedger).claimAll(argThat(reservations -> reservations.size() == 2));
+        verify(viewProjector, times(2)).record(any(Reservation.class), eq(guest), any(RoomResponse.class));
+        verify(eventStream).recordAll(argThat(events -> events.size() == 2));
+        verify(eventPublisher, times(2)).publishEvent(any(ReservationChangedEvent.class));
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    void shouldRejectBatchWhenAnyRoomIsTaken() {
+        when(guestClient.getGuestById(1L)).thenReturn(guest);
+        when(roomCatalog.findAllById(Set.of(2L, 3L)))
+                .thenReturn(Map.of(2L, room, 3L, new RoomResponse(3L, "302", "Deluxe", 2, 1200.0, true)));
+        when(reservationRepository.findByRoomIdInAndCheckInDateLessThanAndCheckOutDateGreaterThan(any(), any(), any()))
+                .thenReturn(List.of(Reservation.builder().id(5L).roomId(3L)
+                        .checkInDate(LocalDate.now().plusDays(2)).checkOutDate(LocalDate.now().plusDays(4)).build()));
+
+        assertThrows(RoomNotAvailableException.class, () -> reservationService.makeBatchReservation(batchRequest(2L, 3L)));
+        verify(reservationRepository, never()).insertAll(anyList());
+        verifyNoInteractions(roomNightLedger, eventStream, eventPublisher);
+    }
+
+    @Test
+    void shouldRejectBatchRequestingSameRoomTwice() {
+        assertThrows(RoomNotAvailableException.class, () -> reservationService.makeBatchReservation(batchRequest(2L, 2L)));
+        verifyNoInteractions(guestClient, reservationRepository);
+    }
+
+    private Reservation existingStay() {
+        return Reservation.builder()
+                .id(5L).code("RESV-5").guestId(1L).roomId(2L).status("Confirmed").numberOfAdults(2)
+                .checkInDate(LocalDate.now().plusDays(2)).checkOutDate(LocalDate.now().plusDays(5)).numberOfNights(3)
+                .build();
+    }
+
+    private void givenExistingStay(Reservation stay) {
+        occupancyIndex.add(stay);
+        when(reservationRepository.findById(5L)).thenReturn(Optional.of(stay));
+        lenient().when(reservationRepository.lockAllById(List.of(5L))).thenReturn(List.of(stay.toBuilder().build()));
+        lenient().when(roomCatalog.findById(2L)).thenReturn(Optional.of(room));
+        lenient().when(viewRepository.findById(5L)).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void shouldClaimOnlyAddedNightsWhenExtendingStay() {
+        Reservation stay = existingStay();
+        givenExistingStay(stay);
+        ReservationUpdateRequest update = new ReservationUpdateRequest();
+        update.setCheckOutDate(LocalDate.now().plusDays(7));
+
+        reservationService.updateReservation(5L, update);
+
+        verify(roomNightLedger).claim(argThat(r -> r.getId() == 5L && "RESV-5".equals(r.getCode())),
+                eq(LocalDate.now().plusDays(5)), eq(LocalDate.now().plusDays(7)));
+        verify(roomNightLedger, never()).release(any(), any(), any());
+        verify(viewProjector).updateStay(argThat(r -> r.getNumberOfNights() == 5));
+        ArgumentCaptor<ReservationChangedEvent> event = ArgumentCaptor.forClass(ReservationChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ReservationChangedEvent.Type.MODIFIED, event.getValue().type());
+        verify(reservationRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void shouldReleaseDroppedAndClaimAddedNightsWhenShiftingStay() {
+        givenExistingStay(existingStay());
+        ReservationUpdateRequest update = new ReservationUpdateRequest();
+        update.setCheckInDate(LocalDate.now().plusDays(3));
+        update.setCheckOutDate(LocalDate.now().plusDays(6));
+
+        reservationService.updateReservation(5L, update);
+
+        verify(roomNightLedger).release(5L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(3));
+        verify(roomNightLedger).claim(any(Reservation.class), eq(LocalDate.now().plusDays(5)), eq(LocalDate.now().plusDays(6)));
+    }
+
+    @Test
+    void shouldRejectExtensionIntoAnotherStay() {
+        givenExistingStay(existingStay());
+        occupancyIndex.add(Reservation.builder().id(6L).roomId(2L)
+                .checkInDate(LocalDate.now().plusDays(6)).checkOutDate(LocalDate.now().plusDays(8)).build());
+        ReservationUpdateRequest update = new ReservationUpdateRequest();
+        update.setCheckOutDate(LocalDate.now().plusDays(7));
+
+        assertThrows(RoomNotAvailableException.class, () -> reservationService.updateReservation(5L, update));
+        verifyNoInteractions(roomNightLedger, eventPublisher);
+    }
+
+    @Test
+    void shouldMoveAllNightsWhenChangingRoom() {
+        givenExistingStay(existingStay());
+        RoomResponse other = new RoomResponse(3L, "302", "Deluxe", 2, 1200.0, true);
+        when(roomCatalog.findById(3L)).thenReturn(Optional.of(other));
+        ReservationUpdateRequest update = new ReservationUpdateRequest();
+        update.setRoomId(3L);
+
+        reservationService.updateReservation(5L, update);
+
+        verify(roomNightLedger).release(5L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(5));
+        verify(roomNightLedger).claim(argThat(r -> r.getRoomId() == 3L), eq(LocalDate.now().plusDays(2)), eq(LocalDate.now().plusDays(5)));
+        verify(viewProjector).moveToRoom(5L, other);
+    }
+
+    @Test
+    void shouldOnlyAllowCheckOutChangeOnceStayStarted() {
+        Reservation stay = existingStay().toBuilder()
+                .checkInDate(LocalDate.now().minusDays(1)).checkOutDate(LocalDate.now().plusDays(2)).build();
+        when(reservationRepository.findById(5L)).thenReturn(Optional.of(stay));
+        ReservationUpdateRequest update = new ReservationUpdateRequest();
+        update.setCheckInDate(LocalDate.now());
+
+        assertThrows(ResponseStatusException.class, () -> reservationService.updateReservation(5L, update));
+        verifyNoInteractions(roomNightLedger);
+    }
+
+    @Test
+    void shouldMarkRoomUnavailableForSameDayCheckIn() {
+        request.setCheckInDate(LocalDate.now());
+        when(guestClient.getGuestById(1L)).thenReturn(guest);
+        when(roomCatalog.findById(2L)).thenReturn(Optional.of(room));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        reservationService.makeReservation(request);
+
+        verify(roomAvailabilityOutbox).enqueue(2L, false);
+    }
+
+    @Test
+    void shouldSearchFromOccupancyMatrixInsideHorizon() {
+        RoomResponse r1 = new RoomResponse(1L, "A", "Deluxe", 2, 1000, true);
+        RoomResponse r2 = new RoomResponse(2L, "B", "Deluxe", 2, 2000, true);
+        RoomSearchRequest search = new RoomSearchRequest();
+        search.setCheckInDate(LocalDate.now().plusDays(1));
+        search.setCheckOutDate(LocalDate.now().plusDays(3));
+        search.setNumberOfGuests(2);
+        search.setRoomType("Deluxe");
+
+        when(occupancyMatrix.covers(search.getCheckInDate(), search.getCheckOutDate())).thenReturn(true);
+        when(occupancyMatrix.occupiedRooms(search.getCheckInDate(), search.getCheckOutDate())).thenReturn(Set.of(1L));
+        when(roomCatalog.findByTypeAndMinCapacity("Deluxe", 2)).thenReturn(List.of(r1, r2));
+
+        List<RoomResponse> result = reservationService.searchAvailableRooms(search);
+
+        assertEquals(List.of(r2), result);
+        verify(reservationRepository, never()).findReservedRoomIds(any(), any());
+    }
+
+    @Test
+    void shouldThrowIfRoomNightsAlreadyClaimed() {
+        when(guestClient.getGuestById(1L)).thenReturn(guest);
+        when(roomCatalog.findById(2L)).thenReturn(Optional.of(room));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(new RoomNotAvailableException("Room is already reserved for the selected dates."))
+                .when(roomNightLedger).claim(any(Reservation.class));
+
+        assertThrows(RoomNotAvailableException.class, () -> reservationService.makeReservation(request));
+        verify(roomAvailabilityOutbox, never()).enqueue(any(), anyBoolean());
+        verifyNoInteractions(roomClient);
     }
 
     @Test
@@ -85,8 +389,17 @@ class ReservationServiceTest {
                 .checkOutDate(request.getCheckOutDate())
                 .build();
 
+        occupancyIndex.add(conflicting);
         when(guestClient.getGuestById(1L)).thenReturn(guest);
-        when(reservationRepository.findAll()).thenReturn(List.of(conflicting));
+
+        assertThrows(RoomNotAvailableException.class, () -> reservationService.makeReservation(request));
+    }
+
+    @Test
+    void shouldThrowIfDatabaseReportsConflict() {
+        when(guestClient.getGuestById(1L)).thenReturn(guest);
+        when(reservationRepository.existsByRoomIdAndCheckInDateLessThanAndCheckOutDateGreaterThan(
+                2L, request.getCheckOutDate(), request.getCheckInDate())).thenReturn(true);
 
         assertThrows(RoomNotAvailableException.class, () -> reservationService.makeReservation(request));
     }
@@ -96,8 +409,7 @@ class ReservationServiceTest {
         room.setCapacity(1);
 
         when(guestClient.getGuestById(1L)).thenReturn(guest);
-        when(roomClient.getAllRooms()).thenReturn(List.of(room));
-        when(reservationRepository.findAll()).thenReturn(List.of());
+        when(roomCatalog.findById(2L)).thenReturn(Optional.of(room));
 
         assertThrows(RoomNotAvailableException.class, () -> reservationService.makeReservation(request));
     }
@@ -105,12 +417,80 @@ class ReservationServiceTest {
     @Test
     void shouldThrowIfRoomNotFound() {
         when(guestClient.getGuestById(1L)).thenReturn(guest);
-        when(roomClient.getAllRooms()).thenReturn(List.of());
-        when(reservationRepository.findAll()).thenReturn(List.of());
+        when(roomCatalog.findById(2L)).thenReturn(Optional.empty());
 
         assertThrows(RoomNotFoundException.class, () -> reservationService.makeReservation(request));
     }
 
+    @Test
+    void shouldPlaceHoldAndScheduleExpiry() {
+        when(guestClient.getGuestById(1L)).thenReturn(guest);
+        when(roomCatalog.findById(2L)).thenReturn(Optional.of(room));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(inv -> {
+            Reservation r = inv.getArgument(0);
+            r.setId(101L);
+            return r;
+        });
+
+        ReservationResponse response = reservationService.holdReservation(request);
+
+        assertEquals("Hold", response.getStatus());
+        assertNotNull(response.getHoldExpiresAt());
+        verify(roomNightLedger).claim(any(Reservation.class));
+        verify(holdExpiry).schedule(101L, response.getHoldExpiresAt());
+    }
+
+    @Test
+    void shouldConfirmHoldAndCancelExpiry() {
+        Reservation confirmed = Reservation.builder().id(101L).guestId(1L).roomId(2L).status("Confirmed").build();
+        when(reservationRepository.confirmHold(eq(101L), any())).thenReturn(1);
+        when(reservationRepository.findById(101L)).thenReturn(Optional.of(confirmed));
+        when(guestClient.getGuestById(1L)).thenReturn(guest);
+
+        ReservationResponse response = reservationService.confirmHold(101L);
+
+        assertEquals("Confirmed", response.getStatus());
+        verify(viewProjector).updateStatus(101L, "Confirmed", null);
+        verify(holdExpiry).cancel(101L);
+        verify(eventPublisher).publishEvent(argThat((ReservationChangedEvent event) ->
+                event.type() == ReservationChangedEvent.Type.MODIFIED && "Hold".equals(event.previous().getStatus())));
+    }
+
+    @Test
+    void shouldRejectConfirmingExpiredHold() {
+        when(reservationRepository.confirmHold(eq(101L), any())).thenReturn(0);
+
+        assertThrows(RoomNotAvailableException.class, () -> reservationService.confirmHold(101L));
+        verify(holdExpiry, never()).cancel(any());
+    }
+
+    @Test
+    void shouldThrowIfGuestNotFound() {
+        when(guestClient.getGuestById(1L)).thenThrow(mock(FeignException.NotFound.class));
+        lenient().when(roomCatalog.findById(2L)).thenReturn(Optional.of(room));
+
+        assertThrows(GuestNotFoundException.class, () -> reservationService.makeReservation(request));
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldThrowIfLookupsTimeOut() {
+        Executor stalled = task -> { };
+        ReflectionTestUtils.setField(reservationService, "applicationTaskExecutor", stalled);
+        ReflectionTestUtils.setField(reservationService, "lookupTimeoutMs", 50L);
+
+        assertThrows(RoomNotAvailableException.class, () -> reservationService.makeReservation(request));
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectCheckOutBeforeCheckInWithoutLookups() {
+        request.setCheckOutDate(request.getCheckInDate().minusDays(1));
+
+        assertThrows(IllegalArgumentException.class, () -> reservationService.makeReservation(request));
+        verifyNoInteractions(guestClient, roomCatalog);
+    }
+
     @Test
     void shouldSearchAvailableRooms() {
         RoomResponse r1 = new RoomResponse(1L, "A", "Standard", 2, 1000, true);
@@ -126,8 +506,9 @@ class ReservationServiceTest {
                 .checkOutDate(search.getCheckOutDate())
                 .build();
 
-        when(roomClient.getAllRooms()).thenReturn(List.of(r1, r2));
-        when(reservationRepository.findAll()).thenReturn(List.of(existing));
+        when(reservationRepository.findReservedRoomIds(search.getCheckInDate(), search.getCheckOutDate()))
+                .thenReturn(Set.of(existing.getRoomId()));
+        when(roomCatalog.findByTypeAndMinCapacity(search.getRoomType(), 2)).thenReturn(List.of(r1, r2));
 
         List<RoomResponse> result = reservationService.searchAvailableRooms(search);
 
@@ -137,68 +518,161 @@ class ReservationServiceTest {
 
     @Test
     void shouldCancelReservation() {
-        Reservation reservation = Reservation.builder().id(10L).roomId(5L).build();
+        Reservation reservation = Reservation.builder().id(10L).roomId(5L).status("Confirmed")
+                .checkInDate(LocalDate.now().minusDays(1))
+                .checkOutDate(LocalDate.now().plusDays(1))
+                .build();
 
-        when(reservationRepository.findById(10L)).thenReturn(Optional.of(reservation));
-        doNothing().when(roomClient).updateRoomAvailability(5L, true);
+        when(reservationRepository.existsById(10L)).thenReturn(true);
+        when(reservationRepository.lockActiveById(List.of(10L))).thenReturn(List.of(reservation));
 
         reservationService.cancelReservation(10L);
 
-        verify(reservationRepository).deleteById(10L);
+        verify(reservationRepository).cancelAll(List.of(10L));
+        verify(reservationRepository, never()).deleteById(any());
+        verify(roomNightLedger).releaseAll(List.of(10L));
+        verify(viewProjector).markCancelled(List.of(10L));
+        verify(roomAvailabilityOutbox).enqueueAll(List.of(5L), true);
+        verify(eventPublisher).publishEvent(argThat((ReservationChangedEvent event) ->
+                event.type() == ReservationChangedEvent.Type.CANCELLED && event.previous().getId().equals(10L)));
+        verifyNoInteractions(roomClient);
     }
 
     @Test
-    void shouldUpdateRoomAvailabilityToAvailable() {
-        when(reservationRepository.findAll()).thenReturn(List.of());
+    void shouldIgnoreCancellingCancelledReservation() {
+        when(reservationRepository.existsById(10L)).thenReturn(true);
+        when(reservationRepository.lockActiveById(List.of(10L))).thenReturn(List.of());
 
-        reservationService.updateRoomAvailability(10L, true);
+        reservationService.cancelReservation(10L);
 
-        verify(roomClient).updateRoomAvailability(10L, true);
+        verify(reservationRepository, never()).cancelAll(any());
+        verifyNoInteractions(roomNightLedger, roomAvailabilityOutbox, eventPublisher);
     }
 
     @Test
-    void shouldUpdateRoomAvailabilityToUnavailable() {
-        Reservation upcoming = Reservation.builder()
-                .roomId(20L)
-                .checkOutDate(LocalDate.now().plusDays(2))
-                .build();
+    void shouldThrowNotFoundWhenCancellingUnknownReservation() {
+        when(reservationRepository.existsById(99L)).thenReturn(false);
 
-        when(reservationRepository.findAll()).thenReturn(List.of(upcoming));
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> reservationService.cancelReservation(99L));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+    }
 
-        reservationService.updateRoomAvailability(20L, true);
+    @Test
+    void shouldBulkCancelByCodesInOneStatement() {
+        LocalDate today = LocalDate.now();
+        Reservation tonight = Reservation.builder().id(1L).roomId(5L).status("Confirmed")
+                .checkInDate(today).checkOutDate(today.plusDays(2)).build();
+        Reservation later = Reservation.builder().id(2L).roomId(6L).status("Hold")
+                .checkInDate(today.plusDays(5)).checkOutDate(today.plusDays(6)).build();
+        BulkCancelRequest bulk = new BulkCancelRequest();
+        bulk.setCodes(List.of("RES-A", "RES-B", "RES-C"));
+        when(reservationRepository.findIdsByCodeIn(List.of("RES-A", "RES-B", "RES-C"))).thenReturn(List.of(1L, 2L));
+        when(reservationRepository.lockActiveById(List.of(1L, 2L))).thenReturn(List.of(tonight, later));
+
+        BulkCancelResponse response = reservationService.cancelReservations(bulk);
+
+        assertEquals(List.of(1L, 2L), response.getCancelledIds());
+        assertEquals(1, response.getSkipped());
+        verify(reservationRepository).cancelAll(List.of(1L, 2L));
+        verify(roomNightLedger).releaseAll(List.of(1L, 2L));
+        verify(viewProjector).markCancelled(List.of(1L, 2L));
+        // only the room freed tonight changes availability
+        verify(roomAvailabilityOutbox).enqueueAll(List.of(5L), true);
+        verify(holdExpiry).cancel(2L);
+        verify(holdExpiry, never()).cancel(1L);
+        verify(eventPublisher, times(2)).publishEvent(any(ReservationChangedEvent.class));
+        verifyNoInteractions(roomClient);
+    }
 
-        verify(roomClient).updateRoomAvailability(20L, false);
+    @Test
+    void shouldRejectBulkCancelFilterMatchingTooMany() {
+        ReflectionTestUtils.setField(reservationService, "bulkCancelLimit", 2);
+        BulkCancelRequest bulk = new BulkCancelRequest();
+        bulk.setFilter(ReservationFilter.builder().roomId(5L).build());
+        when(reservationRepository.findActiveIds(null, 5L, LocalDate.now(), null, PageRequest.of(0, 3)))
+                .thenReturn(List.of(1L, 2L, 3L));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> reservationService.cancelReservations(bulk));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        verify(reservationRepository, never()).cancelAll(any());
     }
 
     @Test
-    void shouldGetReservationByCode() {
-        Reservation reservation = Reservation.builder()
-                .id(3L).code("R-100").guestId(1L).roomId(2L).build();
+    void shouldNotBulkCancelStaysThatHaveCheckedOut() {
+        BulkCancelRequest bulk = new BulkCancelRequest();
+        bulk.setFilter(ReservationFilter.builder()
+                .from(LocalDate.now().minusDays(30)).to(LocalDate.now().plusDays(5)).build());
+        when(reservationRepository.findActiveIds(any(), any(), any(), any(), any())).thenReturn(List.of());
+
+        BulkCancelResponse response = reservationService.cancelReservations(bulk);
+
+        assertTrue(response.getCancelledIds().isEmpty());
+        verify(reservationRepository).findActiveIds(null, null, LocalDate.now(), LocalDate.now().plusDays(5),
+                PageRequest.of(0, 1001));
+    }
+
+    @Test
+    void shouldRejectUpdatingCancelledReservation() {
+        Reservation cancelled = Reservation.builder().id(10L).roomId(2L).status("Cancelled")
+                .checkInDate(LocalDate.now().plusDays(1)).checkOutDate(LocalDate.now().plusDays(3)).build();
+        when(reservationRepository.findById(10L)).thenReturn(Optional.of(cancelled));
+        ReservationUpdateRequest update = new ReservationUpdateRequest();
+        update.setNumberOfAdults(1);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> reservationService.updateReservation(10L, update));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        verify(roomNightLedger, never()).claim(any(), any(), any());
+    }
+
+    @Test
+    void shouldAllowBackToBackStaysInSameRoom() {
+        Reservation previous = Reservation.builder()
+                .id(7L)
+                .roomId(2L)
+                .checkInDate(request.getCheckInDate().minusDays(2))
+                .checkOutDate(request.getCheckInDate())
+                .build();
+        occupancyIndex.add(previous);
 
-        when(reservationRepository.findAll()).thenReturn(List.of(reservation));
         when(guestClient.getGuestById(1L)).thenReturn(guest);
-        when(roomClient.getAllRooms()).thenReturn(List.of(room));
+        when(roomCatalog.findById(2L)).thenReturn(Optional.of(room));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertNotNull(reservationService.makeReservation(request));
+    }
+
+    @Test
+    void shouldGetReservationByCode() {
+        ReservationView view = ReservationView.builder()
+                .id(3L).code("R-100").guestId(1L).guestName("John Doe").roomId(2L).roomNumber("301").build();
+
+        when(viewRepository.findByCode("R-100")).thenReturn(Optional.of(view));
 
         ReservationResponse response = reservationService.getByCode("R-100");
 
         assertEquals("R-100", response.getCode());
+        assertEquals("John Doe", response.getGuestName());
+        verifyNoInteractions(guestClient, reservationRepository);
     }
 
     @Test
     void shouldThrowIfReservationCodeNotFound() {
-        when(reservationRepository.findAll()).thenReturn(List.of());
+        when(reservationRepository.findByCode("INVALID")).thenReturn(Optional.empty());
 
         assertThrows(ResponseStatusException.class, () -> reservationService.getByCode("INVALID"));
     }
 
     @Test
-    void shouldGetReservationById() {
+    void shouldFallBackToReservationTableWhenViewIsMissing() {
         Reservation reservation = Reservation.builder()
                 .id(999L).guestId(1L).roomId(2L).build();
 
         when(reservationRepository.findById(999L)).thenReturn(Optional.of(reservation));
         when(guestClient.getGuestById(1L)).thenReturn(guest);
-        when(roomClient.getAllRooms()).thenReturn(List.of(room));
+        when(roomCatalog.getCached(2L)).thenReturn(Optional.of(room));
 
         ReservationResponse response = reservationService.getReservationById(999L);
 
@@ -208,15 +682,199 @@ class ReservationServiceTest {
 
     @Test
     void shouldReturnAllReservations() {
-        Reservation r = Reservation.builder().id(1L).guestId(1L).roomId(2L).build();
+        ReservationView view = ReservationView.builder()
+                .id(1L).guestId(1L).guestName("John Doe").roomId(2L).roomNumber("301").build();
 
-        when(reservationRepository.findAll()).thenReturn(List.of(r));
-        when(guestClient.getGuestById(1L)).thenReturn(guest);
-        when(roomClient.getAllRooms()).thenReturn(List.of(room));
+        when(viewRepository.findAllByOrderByIdAsc()).thenReturn(List.of(view));
 
         List<ReservationResponse> results = reservationService.getAllReservations();
 
         assertEquals(1, results.size());
         assertEquals("301", results.get(0).getRoomNumber());
+        assertEquals("John Doe", results.get(0).getGuestName());
+        verifyNoInteractions(guestClient, roomCatalog);
+    }
+
+    @Test
+    void shouldReturnKeysetPageWithCursor() {
+        List<Reservation> rows = List.of(
+                Reservation.builder().id(11L).guestId(1L).roomId(2L).build(),
+                Reservation.builder().id(12L).guestId(1L).roomId(2L).build(),
+                Reservation.builder().id(13L).guestId(1L).roomId(2L).build());
+
+        when(reservationRepository.findPage(eq(10L), isNull(), isNull(), isNull(), isNull(), any()))
+                .thenReturn(rows);
+        when(guestClient.getGuestsByIds(Set.of(1L))).thenReturn(List.of(guest));
+
+        ReservationPage page = reservationService.getReservationPage(10L, 2, new ReservationFilter());
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(12L, page.getNextCursor());
+    }
+
+    @Test
+    void shouldReturnLastPageWithoutCursor() {
+        when(reservationRepository.findPage(eq(0L), eq("Confirmed"), isNull(), isNull(), isNull(), any()))
+                .thenReturn(List.of(Reservation.builder().id(1L).roomId(2L).build()));
+
+        ReservationPage page = reservationService.getReservationPage(null, 50,
+                ReservationFilter.builder().status("Confirmed").build());
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void shouldReturnArchivedPageWithCursor() {
+        List<ArchivedReservation> rows = List.of(
+                ArchivedReservation.builder().id(3L).code("RESV-3").guestName("John Doe").roomNumber("301").build(),
+                ArchivedReservation.builder().id(4L).code("RESV-4").build());
+        when(archiveRepository.findPage(0L, null, null, 1L, null, null, PageRequest.of(0, 2))).thenReturn(rows);
+
+        ReservationPage page = reservationService.getArchivedReservationPage(null, 1, new ReservationFilter(), 1L);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("John Doe", page.getItems().get(0).getGuestName());
+        assertEquals(3L, page.getNextCursor());
+        verifyNoInteractions(guestClient, roomCatalog);
+    }
+
+    @Test
+    void shouldThrowIfArchivedCodeNotFound() {
+        when(archiveRepository.findByCode("RESV-X")).thenReturn(Optional.empty());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> reservationService.getArchivedByCode("RESV-X"));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+    }
+
+    @Test
+    void shouldServeAvailabilityCalendarFromCounters() {
+        LocalDate from = LocalDate.now();
+        when(availabilityCounters.roomsLeft(from, 2)).thenReturn(Map.of("Deluxe", new int[]{3, 2}));
+
+        AvailabilityCalendarResponse calendar = reservationService.getAvailabilityCalendar(null, 2);
+
+        assertEquals(from, calendar.getFrom());
+        assertArrayEquals(new int[]{3, 2}, calendar.getRoomsLeft().get("Deluxe"));
+        verifyNoInteractions(reservationRepository, roomClient);
+    }
+
+    @Test
+    void shouldRejectAvailabilityCalendarBeyondHorizon() {
+        LocalDate from = LocalDate.now().plusDays(300);
+        when(availabilityCounters.roomsLeft(from, 365)).thenThrow(new IllegalArgumentException("out of range"));
+
+        assertThrows(ResponseStatusException.class, () -> reservationService.getAvailabilityCalendar(from, 365));
+    }
+
+    private FlexibleSearchRequest flexibleSearch(LocalDate windowStart, int windowDays, int nights, boolean allStarts) {
+        FlexibleSearchRequest search = new FlexibleSearchRequest();
+        search.setWindowStart(windowStart);
+        search.setWindowEnd(windowStart.plusDays(windowDays));
+        search.setNights(nights);
+        search.setNumberOfGuests(2);
+        search.setRoomType("Deluxe");
+        search.setAllStarts(allStarts);
+        return search;
+    }
+
+    @Test
+    void shouldFindEarliestStartWithFreeRoom() {
+        LocalDate start = LocalDate.now().plusDays(1);
+        RoomResponse other = new RoomResponse(3L, "302", "Deluxe", 2, 1200.0, true);
+        when(roomCatalog.findByTypeAndMinCapacity("Deluxe", 2)).thenReturn(List.of(room, other));
+        when(occupancyMatrix.covers(start, start.plusDays(6))).thenReturn(true);
+        // room 2 busy nights 1-2, room 3 busy nights 0 and 3: three free nights in a row first appear from night 3 in room 2
+        when(occupancyMatrix.nightsOccupied(List.of(2L, 3L), start, start.plusDays(6))).thenReturn(new boolean[][]{
+                {false, true, true, false, false, false},
+                {true, false, false, true, false, false}});
+
+        List<FlexibleSearchResult> results = reservationService.searchFlexibleDates(flexibleSearch(start, 6, 3, false));
+
+        assertEquals(1, results.size());
+        assertEquals(start.plusDays(3), results.get(0).getCheckInDate());
+        assertEquals(start.plusDays(6), results.get(0).getCheckOutDate());
+        assertEquals(List.of(room), results.get(0).getRooms());
+    }
+
+    @Test
+    void shouldListEveryStartWithFreeRoom() {
+        LocalDate start = LocalDate.now().plusDays(1);
+        when(roomCatalog.findByTypeAndMinCapacity("Deluxe", 2)).thenReturn(List.of(room));
+        when(occupancyMatrix.covers(start, start.plusDays(5))).thenReturn(true);
+        when(occupancyMatrix.nightsOccupied(List.of(2L), start, start.plusDays(5)))
+                .thenReturn(new boolean[][]{{false, false, true, false, false}});
+
+        List<FlexibleSearchResult> results = reservationService.searchFlexibleDates(flexibleSearch(start, 5, 2, true));
+
+        assertEquals(List.of(start, start.plusDays(3)), results.stream().map(FlexibleSearchResult::getCheckInDate).toList());
+    }
+
+    @Test
+    void shouldReadOccupancyFromDatabaseBeyondMatrixHorizon() {
+        LocalDate start = LocalDate.now().plusDays(500);
+        Reservation booked = Reservation.builder().roomId(2L)
+                .checkInDate(start.minusDays(2)).checkOutDate(start.plusDays(2)).build();
+        when(roomCatalog.findByTypeAndMinCapacity("Deluxe", 2)).thenReturn(List.of(room));
+        when(occupancyMatrix.covers(start, start.plusDays(5))).thenReturn(false);
+        when(reservationRepository.findByRoomIdInAndCheckInDateLessThanAndCheckOutDateGreaterThan(
+                List.of(2L), start.plusDays(5), start)).thenReturn(List.of(booked));
+
+        List<FlexibleSearchResult> results = reservationService.searchFlexibleDates(flexibleSearch(start, 5, 3, false));
+
+        assertEquals(start.plusDays(2), results.get(0).getCheckInDate());
+        verify(occupancyMatrix, never()).nightsOccupied(any(), any(), any());
+    }
+
+    private RoomSearchRequest rankedSearch(RoomSort sort, int page, int size) {
+        RoomSearchRequest search = new RoomSearchRequest();
+        search.setCheckInDate(LocalDate.now().plusDays(1));
+        search.setCheckOutDate(LocalDate.now().plusDays(3));
+        search.setNumberOfGuests(2);
+        search.setRoomType("Deluxe");
+        search.setSort(sort);
+        search.setPage(page);
+        search.setSize(size);
+        return search;
+    }
+
+    private void stubDeluxeRooms(RoomResponse... rooms) {
+        when(occupancyMatrix.covers(any(), any())).thenReturn(true);
+        when(occupancyMatrix.occupiedRooms(any(), any())).thenReturn(Set.of());
+        when(roomCatalog.findByTypeAndMinCapacity("Deluxe", 2)).thenReturn(List.of(rooms));
+    }
+
+    @Test
+    void shouldRankBestFitThenPrice() {
+        RoomResponse family = new RoomResponse(1L, "A", "Deluxe", 4, 900, true);
+        RoomResponse pricey = new RoomResponse(2L, "B", "Deluxe", 2, 2000, true);
+        RoomResponse cheap = new RoomResponse(3L, "C", "Deluxe", 2, 1500, true);
+        stubDeluxeRooms(family, pricey, cheap);
+
+        List<RoomResponse> result = reservationService.searchAvailableRooms(rankedSearch(RoomSort.BEST_FIT, 0, 10));
+
+        assertEquals(List.of(cheap, pricey, family), result);
+    }
+
+    @Test
+    void shouldPageThroughCheapestRooms() {
+        List<RoomResponse> rooms = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            // prices out of order so the ranking has to do the work
+            rooms.add(new RoomResponse(id, "R" + id, "Deluxe", 2, (id * 7) % 25 * 100, true));
+        }
+        stubDeluxeRooms(rooms.toArray(RoomResponse[]::new));
+
+        List<RoomResponse> second = reservationService.searchAvailableRooms(rankedSearch(RoomSort.CHEAPEST, 1, 10));
+        List<RoomResponse> last = reservationService.searchAvailableRooms(rankedSearch(RoomSort.CHEAPEST, 2, 10));
+        List<RoomResponse> beyond = reservationService.searchAvailableRooms(rankedSearch(RoomSort.CHEAPEST, 3, 10));
+
+        List<RoomResponse> expected = rooms.stream()
+                .sorted(Comparator.comparingDouble(RoomResponse::getPricePerNight))
+                .toList();
+        assertEquals(expected.subList(10, 20), second);
+        assertEquals(expected.subList(20, 25), last);
+        assertTrue(beyond.isEmpty());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.client.GuestClient;
+import com.hotel.reservation_service.dto.GuestChange;
+import com.hotel.reservation_service.dto.GuestResponse;
+import com.hotel.reservation_service.dto.RoomResponse;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.entity.ReservationView;
+import com.hotel.reservation_service.event.RoomDetailsChangedEvent;
+import com.hotel.reservation_service.repository.ReservationRepository;
+import com.hotel.reservation_service.repository.ReservationViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationViewProjectorTest {
+
+    @Mock
+    private ReservationViewRepository viewRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private GuestClient guestClient;
+
+    @Mock
+    private RoomCatalogCache roomCatalog;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ReservationViewProjector projector;
+
+    private final RoomResponse room = new RoomResponse(2L, "301", "Deluxe", 2, 1200.0, true);
+    private final Reservation reservation = Reservation.builder()
+            .id(5L).code("RESV-1").guestId(1L).roomId(2L).status("Confirmed")
+            .checkInDate(LocalDate.of(2025, 3, 1)).checkOutDate(LocalDate.of(2025, 3, 3)).numberOfNights(2)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void shouldDenormaliseGuestAndRoomIntoView() {
+        GuestResponse guest = new GuestResponse();
+        guest.setId(1L);
+        guest.setName("John Doe");
+        guest.setEmail("john@example.com");
+
+        projector.record(reservation, guest, room);
+
+        ArgumentCaptor<ReservationView> saved = ArgumentCaptor.forClass(ReservationView.class);
+        verify(viewRepository).save(saved.capture());
+        assertEquals(5L, saved.getValue().getId());
+        assertEquals("John Doe", saved.getValue().getGuestName());
+        assertEquals("301", saved.getValue().getRoomNumber());
+        assertEquals(1200.0, saved.getValue().getRate());
+        assertEquals("RESV-1", ReservationViewProjector.toResponse(saved.getValue()).getCode());
+    }
+
+    @Test
+    void shouldApplyGuestChangesAndAdvanceCursor() {
+        LocalDateTime changedAt = LocalDateTime.now().minusMinutes(1);
+        GuestChange change = new GuestChange();
+        change.setId(1L);
+        change.setName("John Smith");
+        change.setEmail("john.smith@example.com");
+        change.setUpdatedAt(changedAt);
+        when(guestClient.getGuestChanges(anyString(), anyInt())).thenReturn(List.of(change), List.of());
+
+        projector.syncGuestChanges();
+        projector.syncGuestChanges();
+
+        verify(viewRepository).updateGuest(1L, "John Smith", "john.smith@example.com");
+        verify(guestClient).getGuestChanges(changedAt.toString(), 500);
+    }
+
+    @Test
+    void shouldKeepCursorWhenGuestServiceFails() {
+        when(guestClient.getGuestChanges(anyString(), anyInt())).thenThrow(new RuntimeException("down"));
+
+        projector.syncGuestChanges();
+
+        verifyNoInteractions(viewRepository);
+    }
+
+    @Test
+    void shouldRefreshViewsOfChangedRooms() {
+        RoomResponse repriced = new RoomResponse(2L, "301", "Deluxe", 2, 1500.0, true);
+
+        projector.onRoomDetailsChanged(new RoomDetailsChangedEvent(List.of(repriced)));
+
+        verify(viewRepository).updateRoom(2L, "301", "Deluxe", 1500.0);
+    }
+
+    @Test
+    void shouldBackfillReservationsWithoutView() {
+        GuestResponse guest = new GuestResponse();
+        guest.setId(1L);
+        guest.setName("John Doe");
+        when(viewRepository.findReservationIdsWithoutView()).thenReturn(List.of(5L));
+        when(reservationRepository.findAllById(List.of(5L))).thenReturn(List.of(reservation));
+        when(guestClient.getGuestsByIds(Set.of(1L))).thenReturn(List.of(guest));
+        when(roomCatalog.getCached(2L)).thenReturn(Optional.of(room));
+
+        projector.backfill();
+
+        ArgumentCaptor<ReservationView> saved = ArgumentCaptor.forClass(ReservationView.class);
+        verify(viewRepository).save(saved.capture());
+        assertEquals("John Doe", saved.getValue().getGuestName());
+    }
+}
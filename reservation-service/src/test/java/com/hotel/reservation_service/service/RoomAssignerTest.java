@@ -0,0 +1,151 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.dto.RoomResponse;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import com.hotel.reservation_service.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomAssignerTest {
+
+    @Mock
+    private RoomCatalogCache roomCatalog;
+
+    @Spy
+    private RoomOccupancyIndex occupancyIndex = new RoomOccupancyIndex();
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private RoomNightLedger roomNightLedger;
+
+    @Mock
+    private ReservationViewProjector viewProjector;
+
+    @Mock
+    private ReservationEventStream eventStream;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ClusterLock clusterLock;
+
+    @InjectMocks
+    private RoomAssigner roomAssigner;
+
+    private final LocalDate today = LocalDate.now();
+    private final RoomResponse room1 = new RoomResponse(1L, "101", "Deluxe", 2, 1000.0, true);
+    private final RoomResponse room2 = new RoomResponse(2L, "102", "Deluxe", 2, 1000.0, true);
+
+    private Reservation stay(long id, long roomId, int fromDay, int toDay, String bookedRoomType) {
+        return Reservation.builder()
+                .id(id).roomId(roomId).status("Confirmed").numberOfAdults(2)
+                .checkInDate(today.plusDays(fromDay)).checkOutDate(today.plusDays(toDay))
+                .bookedRoomType(bookedRoomType)
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void shouldChooseRoomWhoseGapTheStayFills() {
+        occupancyIndex.add(stay(1L, 2L, 1, 3, null));
+        when(roomCatalog.findByTypeAndMinCapacity("Deluxe", 2)).thenReturn(List.of(room1, room2));
+
+        RoomResponse chosen = roomAssigner.chooseRoom("Deluxe", 2, today.plusDays(3), today.plusDays(5)).orElseThrow();
+
+        assertEquals(2L, chosen.getId());
+    }
+
+    @Test
+    void shouldMoveTypeBookedStayNextToItsNeighbour() {
+        Reservation fixed = stay(1L, 1L, 1, 3, null);
+        Reservation movable = stay(2L, 2L, 3, 5, "Deluxe");
+        when(reservationRepository.findByRoomIdInAndCheckOutDateAfter(Set.of(1L, 2L), today))
+                .thenReturn(List.of(fixed, movable));
+        when(reservationRepository.lockAllById(Set.of(2L))).thenReturn(List.of(movable));
+
+        int moved = roomAssigner.reassign("Deluxe", List.of(room1, room2), today);
+
+        assertEquals(1, moved);
+        verify(roomNightLedger).releaseAll(Set.of(2L));
+        verify(reservationRepository).updateRoom(2L, 1L);
+        verify(viewProjector).moveToRoom(2L, room1);
+        verify(eventStream).recordAll(argThat(events -> events.size() == 1));
+        ArgumentCaptor<ReservationChangedEvent> event = ArgumentCaptor.forClass(ReservationChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(2L, event.getValue().previous().getRoomId());
+        assertEquals(1L, event.getValue().current().getRoomId());
+    }
+
+    @Test
+    void shouldNotMoveStaysBookedForASpecificRoom() {
+        when(reservationRepository.findByRoomIdInAndCheckOutDateAfter(Set.of(1L, 2L), today))
+                .thenReturn(List.of(stay(1L, 1L, 1, 3, null), stay(2L, 2L, 3, 5, null)));
+
+        assertEquals(0, roomAssigner.reassign("Deluxe", List.of(room1, room2), today));
+        verifyNoInteractions(transactionTemplate, roomNightLedger, eventPublisher);
+    }
+
+    @Test
+    void shouldAbortTypeWhenStayChangedDuringAudit() {
+        Reservation movable = stay(2L, 2L, 3, 5, "Deluxe");
+        when(reservationRepository.findByRoomIdInAndCheckOutDateAfter(Set.of(1L, 2L), today))
+                .thenReturn(List.of(stay(1L, 1L, 1, 3, null), movable));
+        when(reservationRepository.lockAllById(Set.of(2L))).thenReturn(List.of(movable.toBuilder().roomId(3L).build()));
+
+        assertThrows(IllegalStateException.class, () -> roomAssigner.reassign("Deluxe", List.of(room1, room2), today));
+        verifyNoInteractions(roomNightLedger, eventPublisher);
+    }
+
+    @Test
+    void shouldRunNightAuditUnderClusterLock() {
+        when(clusterLock.runExclusively(eq(RoomAssigner.NIGHT_AUDIT_LOCK), any())).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(1).run();
+            return true;
+        });
+        when(roomCatalog.getAll()).thenReturn(List.of(room1, room2));
+
+        roomAssigner.nightAudit();
+
+        verify(reservationRepository).findByRoomIdInAndCheckOutDateAfter(Set.of(1L, 2L), today);
+    }
+
+    @Test
+    void shouldSkipNightAuditRunningOnAnotherInstance() {
+        when(clusterLock.runExclusively(eq(RoomAssigner.NIGHT_AUDIT_LOCK), any())).thenReturn(false);
+
+        roomAssigner.nightAudit();
+
+        verifyNoInteractions(roomCatalog, reservationRepository);
+    }
+}
@@ -0,0 +1,85 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.entity.Reservation;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomAssignmentOptimizerTest {
+
+    private final LocalDate base = LocalDate.of(2030, 1, 1);
+
+    private RoomAssignmentOptimizer.Stay stay(long id, int fromDay, int toDay) {
+        return new RoomAssignmentOptimizer.Stay(id, base.plusDays(fromDay), base.plusDays(toDay), 2);
+    }
+
+    private List<RoomAssignmentOptimizer.Room> rooms(long... ids) {
+        return java.util.Arrays.stream(ids).mapToObj(id -> new RoomAssignmentOptimizer.Room(id, 2)).toList();
+    }
+
+    @Test
+    void shouldPickRoomWhoseGapTheStayFills() {
+        RoomOccupancyIndex index = new RoomOccupancyIndex();
+        index.add(Reservation.builder().id(1L).roomId(10L).checkInDate(base).checkOutDate(base.plusDays(2)).build());
+        index.add(Reservation.builder().id(2L).roomId(11L).checkInDate(base).checkOutDate(base.plusDays(2)).build());
+        index.add(Reservation.builder().id(3L).roomId(11L).checkInDate(base.plusDays(4)).checkOutDate(base.plusDays(6)).build());
+
+        Optional<RoomAssignmentOptimizer.Room> chosen =
+                RoomAssignmentOptimizer.bestFit(rooms(10L, 11L, 12L), stay(9, 2, 4), index);
+
+        assertEquals(11L, chosen.orElseThrow().id());
+    }
+
+    @Test
+    void shouldSkipOccupiedAndTooSmallRooms() {
+        RoomOccupancyIndex index = new RoomOccupancyIndex();
+        index.add(Reservation.builder().id(1L).roomId(10L).checkInDate(base).checkOutDate(base.plusDays(5)).build());
+        List<RoomAssignmentOptimizer.Room> rooms = List.of(
+                new RoomAssignmentOptimizer.Room(10L, 4), new RoomAssignmentOptimizer.Room(11L, 1));
+
+        assertTrue(RoomAssignmentOptimizer.bestFit(rooms, stay(9, 1, 3), index).isEmpty());
+    }
+
+    @Test
+    void shouldPackStaysEndToEnd() {
+        // Booked in arrival order, these took one room each and left two rooms with gaps
+        List<RoomAssignmentOptimizer.Stay> movable = List.of(stay(1, 0, 2), stay(2, 3, 5), stay(3, 2, 3), stay(4, 5, 7));
+
+        Map<Long, Long> assignment = RoomAssignmentOptimizer.repack(rooms(10L, 11L), Map.of(), movable).orElseThrow();
+
+        assertEquals(1, assignment.values().stream().distinct().count());
+    }
+
+    @Test
+    void shouldWorkAroundFixedStays() {
+        Map<Long, List<RoomAssignmentOptimizer.Stay>> fixed = Map.of(10L, List.of(stay(1, 3, 6)));
+
+        Map<Long, Long> assignment = RoomAssignmentOptimizer
+                .repack(rooms(10L, 11L), fixed, List.of(stay(2, 0, 3), stay(3, 1, 5)))
+                .orElseThrow();
+
+        assertEquals(10L, assignment.get(2L));
+        assertEquals(11L, assignment.get(3L));
+    }
+
+    @Test
+    void shouldGiveUpWhenAStayCannotBePlaced() {
+        Map<Long, List<RoomAssignmentOptimizer.Stay>> fixed = Map.of(10L, List.of(stay(1, 0, 4)));
+
+        assertTrue(RoomAssignmentOptimizer.repack(rooms(10L), fixed, List.of(stay(2, 2, 3))).isEmpty());
+    }
+
+    @Test
+    void shouldCountBoundedGapsOnly() {
+        Map<Long, List<RoomAssignmentOptimizer.Stay>> stays = Map.of(
+                10L, List.of(stay(1, 0, 2), stay(2, 3, 5)),
+                11L, List.of(stay(3, 1, 2)));
+
+        assertEquals(2, RoomAssignmentOptimizer.countGaps(stays, base));
+    }
+}
@@ -0,0 +1,162 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.client.RoomClient;
+import com.hotel.reservation_service.entity.RoomAvailabilityUpdate;
+import com.hotel.reservation_service.repository.RoomAvailabilityUpdateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomAvailabilityOutboxTest {
+
+    @Mock
+    private RoomAvailabilityUpdateRepository updateRepository;
+
+    @Mock
+    private RoomClient roomClient;
+
+    @Mock
+    private ClusterLock clusterLock;
+
+    @InjectMocks
+    private RoomAvailabilityOutbox outbox;
+
+    private final List<RoomAvailabilityUpdate> pending = List.of(
+            RoomAvailabilityUpdate.builder().id(1L).roomId(4L).available(false).build(),
+            RoomAvailabilityUpdate.builder().id(2L).roomId(5L).available(false).build(),
+            RoomAvailabilityUpdate.builder().id(3L).roomId(4L).available(true).build());
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clusterLock.runExclusively(eq(RoomAvailabilityOutbox.DISPATCH_LOCK), any())).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(1).run();
+            return true;
+        });
+    }
+
+    @Test
+    void shouldDeliverLatestUpdatePerRoomAndDeleteBatch() {
+        when(updateRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(pending);
+
+        outbox.dispatch();
+
+        verify(roomClient).updateRoomsAvailability(Map.of(4L, true, 5L, false));
+        verify(updateRepository).deleteAllInBatch(pending);
+    }
+
+    @Test
+    void shouldKeepUpdatesAndBackOffWhenDeliveryFails() {
+        when(updateRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(pending);
+        doThrow(new RuntimeException("room-service down")).when(roomClient).updateRoomsAvailability(anyMap());
+
+        outbox.dispatch();
+        outbox.dispatch();
+
+        verify(roomClient, times(1)).updateRoomsAvailability(anyMap());
+        verify(updateRepository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    void shouldSkipDeliveryWhenOutboxIsEmpty() {
+        when(updateRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(List.of());
+
+        outbox.dispatch();
+
+        verifyNoInteractions(roomClient);
+    }
+
+    @Test
+    void shouldNotDeliverWhileAnotherInstanceHoldsTheLock() {
+        when(clusterLock.runExclusively(eq(RoomAvailabilityOutbox.DISPATCH_LOCK), any())).thenReturn(false);
+
+        outbox.dispatch();
+
+        verifyNoInteractions(updateRepository, roomClient);
+    }
+
+    @Test
+    void shouldDeliverEachUpdateOnceWithTwoConcurrentDispatchers() throws Exception {
+        // One outbox table and one lock shared by two instances; deliveries are slow enough to overlap
+        List<RoomAvailabilityUpdate> table = Collections.synchronizedList(new ArrayList<>());
+        for (long id = 1; id <= 50; id++) {
+            table.add(RoomAvailabilityUpdate.builder().id(id).roomId(id).available(id % 2 == 0).build());
+        }
+        RoomAvailabilityUpdateRepository sharedRepository = mock(RoomAvailabilityUpdateRepository.class);
+        when(sharedRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenAnswer(inv -> {
+            synchronized (table) {
+                return List.copyOf(table.subList(0, Math.min(inv.<Pageable>getArgument(0).getPageSize(), table.size())));
+            }
+        });
+        doAnswer(inv -> table.removeAll(inv.<List<RoomAvailabilityUpdate>>getArgument(0)))
+                .when(sharedRepository).deleteAllInBatch(anyList());
+        List<Long> delivered = Collections.synchronizedList(new ArrayList<>());
+        RoomClient sharedClient = mock(RoomClient.class);
+        doAnswer(inv -> {
+            Thread.sleep(20);
+            delivered.addAll(inv.<Map<Long, Boolean>>getArgument(0).keySet());
+            return null;
+        }).when(sharedClient).updateRoomsAvailability(anyMap());
+        ReentrantLock rowLock = new ReentrantLock();
+        ClusterLock sharedLock = mock(ClusterLock.class);
+        when(sharedLock.runExclusively(eq(RoomAvailabilityOutbox.DISPATCH_LOCK), any())).thenAnswer(inv -> {
+            if (!rowLock.tryLock()) {
+                return false;
+            }
+            try {
+                inv.<Runnable>getArgument(1).run();
+                return true;
+            } finally {
+                rowLock.unlock();
+            }
+        });
+        RoomAvailabilityOutbox first = new RoomAvailabilityOutbox(sharedRepository, sharedClient, sharedLock);
+        RoomAvailabilityOutbox second = new RoomAvailabilityOutbox(sharedRepository, sharedClient, sharedLock);
+        ReflectionTestUtils.setField(first, "batchSize", 10);
+        ReflectionTestUtils.setField(second, "batchSize", 10);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService instances = Executors.newFixedThreadPool(2);
+        List<Future<?>> runs = new ArrayList<>();
+        for (RoomAvailabilityOutbox instance : List.of(first, second)) {
+            runs.add(instances.submit(() -> {
+                start.await();
+                while (!table.isEmpty()) {
+                    instance.dispatch();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> run : runs) {
+            run.get(10, TimeUnit.SECONDS);
+        }
+        instances.shutdown();
+
+        assertEquals(LongStream.rangeClosed(1, 50).boxed().toList(), delivered);
+    }
+}
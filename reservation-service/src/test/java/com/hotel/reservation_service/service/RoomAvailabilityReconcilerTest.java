@@ -0,0 +1,69 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.client.RoomClient;
+import com.hotel.reservation_service.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomAvailabilityReconcilerTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private RoomClient roomClient;
+
+    @Mock
+    private RoomAvailabilityOutbox outbox;
+
+    @Mock
+    private ClusterLock clusterLock;
+
+    @InjectMocks
+    private RoomAvailabilityReconciler reconciler;
+
+    @Test
+    void shouldEnqueueOnlyRoomsWhoseFlagDrifted() {
+        when(reservationRepository.findRoomIdsOccupiedOn(LocalDate.now())).thenReturn(Set.of(1L, 2L));
+        when(roomClient.getAvailabilityFlags()).thenReturn(Map.of(1L, false, 2L, true, 3L, false, 4L, true));
+
+        Map<Long, Boolean> changes = reconciler.reconcile();
+
+        assertEquals(Map.of(2L, false, 3L, true), changes);
+        verify(outbox).enqueueAll(List.of(3L), true);
+        verify(outbox).enqueueAll(List.of(2L), false);
+        verify(roomClient, never()).updateRoomsAvailability(anyMap());
+    }
+
+    @Test
+    void shouldNotEnqueueWhenInSync() {
+        when(reservationRepository.findRoomIdsOccupiedOn(LocalDate.now())).thenReturn(Set.of(1L));
+        when(roomClient.getAvailabilityFlags()).thenReturn(Map.of(1L, false));
+
+        assertTrue(reconciler.reconcile().isEmpty());
+        verifyNoInteractions(outbox);
+        verify(roomClient, never()).getAllRooms();
+    }
+
+    @Test
+    void shouldReconcileUnderTheOutboxDispatchLock() {
+        when(clusterLock.runExclusively(eq(RoomAvailabilityOutbox.DISPATCH_LOCK), any())).thenReturn(false);
+
+        reconciler.scheduledReconcile();
+
+        verifyNoInteractions(reservationRepository, roomClient, outbox);
+    }
+}
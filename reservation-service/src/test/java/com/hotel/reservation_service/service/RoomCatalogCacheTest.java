@@ -0,0 +1,109 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.client.RoomClient;
+import com.hotel.reservation_service.dto.RoomResponse;
+import com.hotel.reservation_service.event.RoomDetailsChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomCatalogCacheTest {
+
+    @Mock
+    private RoomClient roomClient;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private RoomCatalogCache roomCatalog;
+
+    private final RoomResponse deluxe = new RoomResponse(1L, "101", "Deluxe", 2, 1500.0, true);
+    private final RoomResponse suite = new RoomResponse(2L, "201", "Suite", 4, 3000.0, true);
+
+    @Test
+    void shouldIndexRoomsByTypeAndCapacity() {
+        when(roomClient.getCatalogVersion()).thenReturn(1L);
+        when(roomClient.getAllRooms()).thenReturn(List.of(deluxe, suite));
+
+        roomCatalog.refresh();
+
+        assertEquals(List.of(deluxe), roomCatalog.findByTypeAndMinCapacity("Deluxe", 1));
+        assertTrue(roomCatalog.findByTypeAndMinCapacity("Deluxe", 4).isEmpty());
+        assertEquals(List.of(suite), roomCatalog.findByTypeAndMinCapacity(null, 3));
+        assertEquals(suite, roomCatalog.getCached(2L).orElseThrow());
+    }
+
+    @Test
+    void shouldReloadOnlyWhenVersionChanges() {
+        when(roomClient.getCatalogVersion()).thenReturn(1L, 1L, 2L);
+        when(roomClient.getAllRooms()).thenReturn(List.of(deluxe));
+
+        roomCatalog.refresh();
+        roomCatalog.refreshIfChanged();
+        roomCatalog.refreshIfChanged();
+
+        verify(roomClient, times(2)).getAllRooms();
+    }
+
+    @Test
+    void shouldFetchSingleRoomMissingFromSnapshot() {
+        when(roomClient.getCatalogVersion()).thenReturn(1L);
+        when(roomClient.getAllRooms()).thenReturn(List.of(deluxe));
+        when(roomClient.getRoomById(2L)).thenReturn(suite);
+
+        roomCatalog.refresh();
+
+        assertEquals(suite, roomCatalog.findById(2L).orElseThrow());
+        verify(roomClient, times(1)).getAllRooms();
+    }
+
+    @Test
+    void shouldPublishRoomsWhoseDetailsChangedOnReload() {
+        RoomResponse repriced = new RoomResponse(1L, "101", "Deluxe", 2, 1800.0, true);
+        RoomResponse booked = new RoomResponse(2L, "201", "Suite", 4, 3000.0, false);
+        when(roomClient.getCatalogVersion()).thenReturn(1L, 2L);
+        when(roomClient.getAllRooms()).thenReturn(List.of(deluxe, suite), List.of(repriced, booked));
+
+        roomCatalog.refresh();
+        roomCatalog.refresh();
+
+        // the availability flip on room 2 is not a detail change
+        verify(eventPublisher, times(1)).publishEvent(new RoomDetailsChangedEvent(List.of(repriced)));
+    }
+
+    @Test
+    void shouldNotDownloadOnRequestPathWhenStartupLoadFailed() {
+        when(roomClient.getCatalogVersion()).thenThrow(new RuntimeException("room-service down"));
+        roomCatalog.warmUp();
+
+        assertTrue(roomCatalog.findByTypeAndMinCapacity(null, 1).isEmpty());
+        assertTrue(roomCatalog.getCached(1L).isEmpty());
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, roomCatalog::requireLoaded);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        verify(roomClient, never()).getAllRooms();
+    }
+
+    @Test
+    void shouldRetryLoadOnVersionCheckAfterFailedStartup() {
+        when(roomClient.getCatalogVersion()).thenThrow(new RuntimeException("room-service down")).thenReturn(1L);
+        when(roomClient.getAllRooms()).thenReturn(List.of(deluxe));
+        roomCatalog.warmUp();
+
+        roomCatalog.refreshIfChanged();
+
+        assertDoesNotThrow(roomCatalog::requireLoaded);
+        assertEquals(deluxe, roomCatalog.getCached(1L).orElseThrow());
+    }
+}
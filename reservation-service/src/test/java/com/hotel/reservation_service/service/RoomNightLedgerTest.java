@@ -0,0 +1,68 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.entity.RoomNightClaim;
+import com.hotel.reservation_service.exceptions.RoomNotAvailableException;
+import com.hotel.reservation_service.repository.ReservationRepository;
+import com.hotel.reservation_service.repository.RoomNightClaimRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomNightLedgerTest {
+
+    @Mock
+    private RoomNightClaimRepository claimRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @InjectMocks
+    private RoomNightLedger ledger;
+
+    private final Reservation reservation = Reservation.builder()
+            .id(5L)
+            .roomId(3L)
+            .checkInDate(LocalDate.of(2030, 3, 1))
+            .checkOutDate(LocalDate.of(2030, 3, 4))
+            .build();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldClaimEveryNightExceptCheckOutInOneBatch() {
+        ledger.claim(reservation);
+
+        ArgumentCaptor<List<RoomNightClaim>> captor = ArgumentCaptor.forClass(List.class);
+        verify(claimRepository, times(1)).saveAllAndFlush(captor.capture());
+        assertEquals(List.of(LocalDate.of(2030, 3, 1), LocalDate.of(2030, 3, 2), LocalDate.of(2030, 3, 3)),
+                captor.getValue().stream().map(RoomNightClaim::getNight).toList());
+    }
+
+    @Test
+    void shouldReportTakenNightsAsRoomNotAvailable() {
+        when(claimRepository.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThrows(RoomNotAvailableException.class, () -> ledger.claim(reservation));
+    }
+
+    @Test
+    void shouldBackfillOnlyWhenLedgerIsEmpty() {
+        when(claimRepository.count()).thenReturn(10L);
+
+        ledger.backfill();
+
+        verifyNoInteractions(reservationRepository);
+    }
+}
@@ -0,0 +1,92 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.entity.Reservation;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomOccupancyIndexTest {
+
+    private final RoomOccupancyIndex index = new RoomOccupancyIndex();
+    private final LocalDate base = LocalDate.of(2030, 1, 1);
+
+    private Reservation stay(long id, long roomId, int fromDay, int toDay) {
+        return Reservation.builder()
+                .id(id)
+                .roomId(roomId)
+                .checkInDate(base.plusDays(fromDay))
+                .checkOutDate(base.plusDays(toDay))
+                .build();
+    }
+
+    @Test
+    void shouldDetectOverlapsUsingHalfOpenRanges() {
+        index.add(stay(1L, 10L, 0, 3));
+
+        assertTrue(index.isOccupied(10L, base.plusDays(2), base.plusDays(5)));
+        assertFalse(index.isOccupied(10L, base.plusDays(3), base.plusDays(5)));
+        assertFalse(index.isOccupied(11L, base, base.plusDays(5)));
+    }
+
+    @Test
+    void shouldFindLongStaysThatStartedBeforeTheWindow() {
+        index.add(stay(1L, 10L, 0, 30));
+        index.add(stay(2L, 10L, 40, 42));
+
+        List<RoomOccupancyIndex.Stay> overlapping = index.overlapping(10L, base.plusDays(20), base.plusDays(41));
+
+        assertEquals(2, overlapping.size());
+    }
+
+    @Test
+    void shouldReportFreeStretchAroundRange() {
+        index.add(stay(1L, 10L, 0, 3));
+        index.add(stay(2L, 10L, 8, 10));
+
+        assertEquals(new RoomOccupancyIndex.Gap(base.plusDays(3), base.plusDays(8)),
+                index.gapAround(10L, base.plusDays(4), base.plusDays(6)).orElseThrow());
+        assertEquals(new RoomOccupancyIndex.Gap(base.plusDays(10), null),
+                index.gapAround(10L, base.plusDays(12), base.plusDays(13)).orElseThrow());
+        assertTrue(index.gapAround(10L, base.plusDays(2), base.plusDays(4)).isEmpty());
+    }
+
+    @Test
+    void shouldForgetRemovedStays() {
+        Reservation reservation = stay(1L, 10L, 0, 3);
+        index.add(reservation);
+        index.add(stay(2L, 20L, 1, 2));
+
+        index.remove(reservation);
+
+        assertEquals(Set.of(20L), index.occupiedRooms(base, base.plusDays(3)));
+    }
+
+    @Test
+    void shouldReplaceIndexOnRebuild() {
+        index.add(stay(1L, 10L, 0, 3));
+
+        index.rebuild(List.of(stay(2L, 20L, 0, 3)));
+
+        assertEquals(Set.of(20L), index.occupiedRooms(base, base.plusDays(3)));
+    }
+
+    @Test
+    void shouldKeepChangesAppliedWhileSnapshotIsRead() {
+        Reservation cancelled = stay(2L, 20L, 0, 3);
+        index.add(cancelled);
+
+        index.rebuild(() -> {
+            // both committed after the snapshot was read
+            List<Reservation> snapshot = List.of(cancelled);
+            index.add(stay(1L, 10L, 0, 3));
+            index.remove(cancelled);
+            return snapshot;
+        });
+
+        assertEquals(Set.of(10L), index.occupiedRooms(base, base.plusDays(3)));
+    }
+}
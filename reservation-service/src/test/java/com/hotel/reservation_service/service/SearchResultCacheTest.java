@@ -0,0 +1,117 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.dto.RoomResponse;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.event.ReservationChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchResultCacheTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2030, 5, 1);
+
+    @Mock
+    private RoomCatalogCache roomCatalog;
+
+    private SearchResultCache cache;
+    private final AtomicInteger searches = new AtomicInteger();
+    private final RoomResponse deluxe = new RoomResponse(1L, "101", "Deluxe", 2, 1200.0, true);
+    private final Supplier<List<RoomResponse>> search = () -> {
+        searches.incrementAndGet();
+        return List.of(deluxe);
+    };
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchResultCache(roomCatalog, 2, 60_000);
+        lenient().when(roomCatalog.getCached(1L)).thenReturn(Optional.of(deluxe));
+    }
+
+    private SearchResultCache.Key key(String roomType, int fromDay, int toDay) {
+        return new SearchResultCache.Key(roomType, 2, MAY_1.plusDays(fromDay), MAY_1.plusDays(toDay));
+    }
+
+    private Reservation stay(int fromDay, int toDay) {
+        return Reservation.builder().id(9L).roomId(1L)
+                .checkInDate(MAY_1.plusDays(fromDay)).checkOutDate(MAY_1.plusDays(toDay)).build();
+    }
+
+    @Test
+    void shouldServeRepeatedSearchFromCache() {
+        cache.getOrCompute(key("Deluxe", 0, 2), search);
+        List<RoomResponse> second = cache.getOrCompute(key("Deluxe", 0, 2), search);
+
+        assertEquals(List.of(deluxe), second);
+        assertEquals(1, searches.get());
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(1, cache.stats().getMisses());
+    }
+
+    @Test
+    void shouldEvictOnlyIntersectingSearchesOfBookedRoomType() {
+        cache.getOrCompute(key("Deluxe", 0, 2), search);
+        cache.getOrCompute(key("Deluxe", 5, 7), search);
+
+        cache.onReservationChanged(ReservationChangedEvent.created(stay(1, 3)));
+
+        cache.getOrCompute(key("Deluxe", 5, 7), search);
+        assertEquals(2, searches.get());
+        cache.getOrCompute(key("Deluxe", 0, 2), search);
+        assertEquals(3, searches.get());
+    }
+
+    @Test
+    void shouldKeepSearchesOfOtherRoomTypes() {
+        cache.getOrCompute(key("Suite", 0, 2), search);
+
+        cache.onReservationChanged(ReservationChangedEvent.cancelled(stay(0, 2)));
+
+        cache.getOrCompute(key("Suite", 0, 2), search);
+        assertEquals(1, searches.get());
+    }
+
+    @Test
+    void shouldEvictSearchesAcrossAllRoomTypes() {
+        cache.getOrCompute(key(null, 0, 2), search);
+
+        cache.onReservationChanged(ReservationChangedEvent.created(stay(1, 3)));
+
+        cache.getOrCompute(key(null, 0, 2), search);
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedBeyondCapacity() {
+        cache.getOrCompute(key("Deluxe", 0, 1), search);
+        cache.getOrCompute(key("Deluxe", 1, 2), search);
+        cache.getOrCompute(key("Deluxe", 0, 1), search);
+        cache.getOrCompute(key("Deluxe", 2, 3), search);
+
+        assertEquals(2, cache.stats().getSize());
+        cache.getOrCompute(key("Deluxe", 0, 1), search);
+        assertEquals(3, searches.get());
+    }
+
+    @Test
+    void shouldMissWhenCatalogWasReloaded() {
+        cache.getOrCompute(key("Deluxe", 0, 2), search);
+        when(roomCatalog.generation()).thenReturn(1L);
+
+        cache.getOrCompute(key("Deluxe", 0, 2), search);
+
+        assertEquals(2, searches.get());
+    }
+}
@@ -0,0 +1,264 @@
+package com.hotel.reservation_service.service;
+
+import com.hotel.reservation_service.dto.ReservationRequest;
+import com.hotel.reservation_service.dto.ReservationResponse;
+import com.hotel.reservation_service.dto.RoomResponse;
+import com.hotel.reservation_service.dto.WaitlistRequest;
+import com.hotel.reservation_service.entity.Reservation;
+import com.hotel.reservation_service.entity.ReservationChange;
+import com.hotel.reservation_service.entity.WaitlistEntry;
+import com.hotel.reservation_service.event.RecordedReservationChangeEvent;
+import com.hotel.reservation_service.exceptions.RoomNotAvailableException;
+import com.hotel.reservation_service.repository.WaitlistEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistTest {
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Mock
+    private RoomCatalogCache roomCatalog;
+
+    @Spy
+    private RoomOccupancyIndex occupancyIndex = new RoomOccupancyIndex();
+
+    @Mock
+    private WaitlistEntryRepository entryRepository;
+
+    @InjectMocks
+    private Waitlist waitlist;
+
+    private final LocalDate today = LocalDate.now();
+    private final RoomResponse room = new RoomResponse(2L, "301", "Deluxe", 2, 1200.0, true);
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(entryRepository.save(any(WaitlistEntry.class))).thenAnswer(inv -> {
+            WaitlistEntry entry = inv.getArgument(0);
+            entry.setId(ids.incrementAndGet());
+            return entry;
+        });
+        lenient().when(entryRepository.claim(anyLong(), any(), any())).thenReturn(1);
+        lenient().when(entryRepository.deleteEntry(anyLong())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        waitlist.shutdown();
+    }
+
+    private WaitlistRequest request(long guestId, String roomType, int fromDay, int toDay) {
+        WaitlistRequest request = new WaitlistRequest();
+        request.setGuestId(guestId);
+        request.setRoomType(roomType);
+        request.setCheckInDate(today.plusDays(fromDay));
+        request.setCheckOutDate(today.plusDays(toDay));
+        request.setNumberOfAdults(2);
+        return request;
+    }
+
+    private Reservation cancelled(int fromDay, int toDay) {
+        return Reservation.builder().id(9L).roomId(2L)
+                .checkInDate(today.plusDays(fromDay)).checkOutDate(today.plusDays(toDay)).build();
+    }
+
+    @Test
+    void shouldPromoteFirstComeEntryThatFits() {
+        waitlist.join(request(1L, "Deluxe", 3, 6));
+        waitlist.join(request(2L, "Deluxe", 3, 6));
+        when(roomCatalog.getCached(2L)).thenReturn(Optional.of(room));
+        when(reservationService.holdReservation(any(ReservationRequest.class))).thenAnswer(inv -> {
+            ReservationRequest hold = inv.getArgument(0);
+            occupancyIndex.add(Reservation.builder().id(10L).roomId(hold.getRoomId())
+                    .checkInDate(hold.getCheckInDate()).checkOutDate(hold.getCheckOutDate()).build());
+            return ReservationResponse.builder().id(10L).build();
+        });
+
+        int promoted = waitlist.promote(cancelled(2, 8));
+
+        assertEquals(1, promoted);
+        ArgumentCaptor<ReservationRequest> hold = ArgumentCaptor.forClass(ReservationRequest.class);
+        verify(reservationService).holdReservation(hold.capture());
+        assertEquals(1L, hold.getValue().getGuestId());
+        assertEquals(2L, hold.getValue().getRoomId());
+        assertEquals(1, waitlist.size());
+    }
+
+    @Test
+    void shouldOnlyCheckEntriesWantingTheFreedNights() {
+        waitlist.join(request(1L, "Deluxe", 10, 12));
+        waitlist.join(request(2L, "Suite", 3, 5));
+        when(roomCatalog.getCached(2L)).thenReturn(Optional.of(room));
+
+        assertEquals(0, waitlist.promote(cancelled(2, 8)));
+        verifyNoInteractions(reservationService);
+        assertEquals(2, waitlist.size());
+    }
+
+    @Test
+    void shouldSkipEntriesThatDoNotFitTheFreedRoom() {
+        waitlist.join(request(1L, "Deluxe", 3, 6));
+        occupancyIndex.add(Reservation.builder().id(5L).roomId(2L)
+                .checkInDate(today.plusDays(5)).checkOutDate(today.plusDays(7)).build());
+        when(roomCatalog.getCached(2L)).thenReturn(Optional.of(room));
+
+        assertEquals(0, waitlist.promote(cancelled(2, 5)));
+        verifyNoInteractions(reservationService);
+    }
+
+    @Test
+    void shouldKeepEntryWhenHoldFails() {
+        waitlist.join(request(1L, "Deluxe", 3, 6));
+        when(roomCatalog.getCached(2L)).thenReturn(Optional.of(room));
+        when(reservationService.holdReservation(any(ReservationRequest.class)))
+                .thenThrow(new RoomNotAvailableException("taken"));
+
+        assertEquals(0, waitlist.promote(cancelled(2, 8)));
+        assertEquals(1, waitlist.size());
+    }
+
+    @Test
+    void shouldIgnoreTheFreedReservationStillInTheIndex() {
+        waitlist.join(request(1L, "Deluxe", 3, 6));
+        Reservation freed = cancelled(2, 8);
+        occupancyIndex.add(freed);
+        when(roomCatalog.getCached(2L)).thenReturn(Optional.of(room));
+        when(reservationService.holdReservation(any(ReservationRequest.class)))
+                .thenReturn(ReservationResponse.builder().id(10L).build());
+
+        assertEquals(1, waitlist.promote(freed));
+        assertEquals(0, waitlist.size());
+    }
+
+    @Test
+    void shouldOfferRoomAgainWhenHoldIsRefused() {
+        ReflectionTestUtils.setField(waitlist, "retryDelayMs", 10L);
+        waitlist.join(request(1L, "Deluxe", 3, 6));
+        when(roomCatalog.getCached(2L)).thenReturn(Optional.of(room));
+        when(reservationService.holdReservation(any(ReservationRequest.class)))
+                .thenThrow(new RoomNotAvailableException("taken"))
+                .thenReturn(ReservationResponse.builder().id(10L).build());
+
+        assertEquals(0, waitlist.promote(cancelled(2, 8)));
+
+        verify(reservationService, timeout(2000).times(2)).holdReservation(any(ReservationRequest.class));
+        verify(reservationService, after(100).times(2)).holdReservation(any(ReservationRequest.class));
+        assertEquals(0, waitlist.size());
+    }
+
+    @Test
+    void shouldStopOfferingRoomAfterMaxRetries() {
+        ReflectionTestUtils.setField(waitlist, "retryDelayMs", 10L);
+        ReflectionTestUtils.setField(waitlist, "maxRetries", 2);
+        waitlist.join(request(1L, "Deluxe", 3, 6));
+        when(roomCatalog.getCached(2L)).thenReturn(Optional.of(room));
+        when(reservationService.holdReservation(any(ReservationRequest.class)))
+                .thenThrow(new RoomNotAvailableException("taken"));
+
+        waitlist.promote(cancelled(2, 8));
+
+        verify(reservationService, timeout(2000).times(3)).holdReservation(any(ReservationRequest.class));
+        verify(reservationService, after(200).times(3)).holdReservation(any(ReservationRequest.class));
+        assertEquals(1, waitlist.size());
+    }
+
+    @Test
+    void shouldReleaseClaimWhenHoldIsRefused() {
+        waitlist.join(request(1L, "Deluxe", 3, 6));
+        when(roomCatalog.getCached(2L)).thenReturn(Optional.of(room));
+        when(reservationService.holdReservation(any(ReservationRequest.class)))
+                .thenThrow(new RoomNotAvailableException("taken"));
+        ReflectionTestUtils.setField(waitlist, "maxRetries", 0);
+
+        waitlist.promote(cancelled(2, 8));
+
+        verify(entryRepository).release(1L);
+        verify(entryRepository, never()).deleteEntry(anyLong());
+    }
+
+    @Test
+    void shouldLeaveEntryClaimedByAnotherInstance() {
+        waitlist.join(request(1L, "Deluxe", 3, 6));
+        when(roomCatalog.getCached(2L)).thenReturn(Optional.of(room));
+        when(entryRepository.claim(eq(1L), any(), any())).thenReturn(0);
+        when(entryRepository.existsById(1L)).thenReturn(true);
+
+        assertEquals(0, waitlist.promote(cancelled(2, 8)));
+        verifyNoInteractions(reservationService);
+        assertEquals(1, waitlist.size());
+    }
+
+    @Test
+    void shouldForgetEntryPromotedByAnotherInstance() {
+        waitlist.join(request(1L, "Deluxe", 3, 6));
+        when(roomCatalog.getCached(2L)).thenReturn(Optional.of(room));
+        when(entryRepository.claim(eq(1L), any(), any())).thenReturn(0);
+        when(entryRepository.existsById(1L)).thenReturn(false);
+
+        assertEquals(0, waitlist.promote(cancelled(2, 8)));
+        verifyNoInteractions(reservationService);
+        assertEquals(0, waitlist.size());
+    }
+
+    @Test
+    void shouldPromoteOnCancellationRecordedByAnyInstance() {
+        waitlist.join(request(1L, "Deluxe", 3, 6));
+        when(roomCatalog.getCached(2L)).thenReturn(Optional.of(room));
+        when(reservationService.holdReservation(any(ReservationRequest.class)))
+                .thenReturn(ReservationResponse.builder().id(10L).build());
+
+        waitlist.onRecordedChange(new RecordedReservationChangeEvent(ReservationChange.builder()
+                .id(500L).type("cancelled").reservationId(9L).roomId(2L)
+                .checkInDate(today.plusDays(2)).checkOutDate(today.plusDays(8)).build()));
+
+        verify(reservationService, timeout(2000)).holdReservation(any(ReservationRequest.class));
+    }
+
+    @Test
+    void shouldRebuildIndexFromStoredEntries() {
+        ids.set(7);
+        waitlist.join(request(1L, "Deluxe", 3, 6));
+        WaitlistEntry joinedElsewhere = new WaitlistEntry(7L, 2L, "Suite", today.plusDays(3), today.plusDays(5),
+                2, 0, LocalDateTime.now(), null);
+        when(entryRepository.findAll()).thenReturn(List.of(joinedElsewhere));
+
+        waitlist.resync();
+
+        // entry 8 was joined here after the table was read, so it is kept
+        assertEquals(2, waitlist.size());
+    }
+
+    @Test
+    void shouldRemoveEntryOnLeave() {
+        Long id = waitlist.join(request(1L, "Deluxe", 3, 6)).getId();
+
+        waitlist.leave(id);
+
+        assertEquals(0, waitlist.size());
+        when(entryRepository.deleteEntry(id)).thenReturn(0);
+        assertThrows(ResponseStatusException.class, () -> waitlist.leave(id));
+    }
+}
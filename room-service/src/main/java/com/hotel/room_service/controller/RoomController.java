@@ -11,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/rooms")
@@ -32,6 +33,16 @@ public class RoomController {
         return ResponseEntity.ok(roomService.getAvailableRooms(guests));
     }
 
+    @GetMapping("/version")
+    public ResponseEntity<Long> getCatalogVersion() {
+        return ResponseEntity.ok(roomService.getCatalogVersion());
+    }
+
+    @GetMapping("/availability-flags")
+    public ResponseEntity<Map<Long, Boolean>> getAvailabilityFlags() {
+        return ResponseEntity.ok(roomService.getAvailabilityFlags());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<RoomResponse> updateRoom(@PathVariable Long id, @Valid @RequestBody RoomRequest request) {
         log.info("Updating room with ID: {}", id);
@@ -62,4 +73,10 @@ public class RoomController {
         log.info("Updating availability for room ID {} to {}", id, available);
         return ResponseEntity.ok(roomService.updateRoomAvailability(id, available));
     }
-}
\ No newline at end of file
+
+    @PutMapping("/availability")
+    public ResponseEntity<List<RoomResponse>> updateAvailability(@RequestBody Map<Long, Boolean> availability) {
+        log.info("Updating availability for rooms {}", availability.keySet());
+        return ResponseEntity.ok(roomService.updateRoomAvailability(availability));
+    }
+}
@@ -0,0 +1,25 @@
+package com.hotel.room_service.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row counter bumped by every change to the room catalog, so consumers holding a copy
+ * can tell cheaply whether it changed. Kept in the database, so every room-service instance
+ * reports the same version and a restart does not change it.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogVersion {
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long version;
+}
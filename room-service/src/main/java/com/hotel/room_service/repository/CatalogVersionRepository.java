@@ -0,0 +1,16 @@
+package com.hotel.room_service.repository;
+
+import com.hotel.room_service.entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Long> {
+
+    // Atomic in the database, so concurrent writers on several instances never lose a bump
+    @Modifying
+    @Query("update CatalogVersion v set v.version = v.version + 1 where v.id = 1")
+    int increment();
+}
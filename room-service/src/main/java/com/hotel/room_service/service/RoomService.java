@@ -2,15 +2,22 @@ package com.hotel.room_service.service;
 
 import com.hotel.room_service.dto.RoomRequest;
 import com.hotel.room_service.dto.RoomResponse;
+import com.hotel.room_service.entity.CatalogVersion;
 import com.hotel.room_service.entity.Room;
 import com.hotel.room_service.exception.RoomAlreadyExistsException;
 import com.hotel.room_service.exception.RoomNotFoundException;
+import com.hotel.room_service.repository.CatalogVersionRepository;
 import com.hotel.room_service.repository.RoomRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,7 +26,35 @@ import java.util.stream.Collectors;
 public class RoomService {
 
     private final RoomRepository roomRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
+
+    // Creates the version row on first start; another instance starting at the same time may win the insert
+    @EventListener(ApplicationReadyEvent.class)
+    public void initCatalogVersion() {
+        if (catalogVersionRepository.existsById(CatalogVersion.ID)) {
+            return;
+        }
+        try {
+            catalogVersionRepository.save(new CatalogVersion(CatalogVersion.ID, 1));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Catalog version row created by another instance");
+        }
+    }
+
+    // Changes with room details only: availability flags are not catalog data and leave it alone
+    public long getCatalogVersion() {
+        return catalogVersionRepository.findById(CatalogVersion.ID)
+                .map(CatalogVersion::getVersion)
+                .orElse(0L);
+    }
+
+    private void bumpCatalogVersion() {
+        if (catalogVersionRepository.increment() == 0) {
+            log.warn("Catalog version row missing, consumers will not see this change until it exists");
+        }
+    }
 
+    @Transactional
     public RoomResponse addRoom(RoomRequest request) {
         log.info("Attempting to add new room: {}", request.getRoomNumber());
 
@@ -37,6 +72,7 @@ public class RoomService {
                 .build();
 
         Room savedRoom = roomRepository.save(room);
+        bumpCatalogVersion();
         log.info("Room added with ID: {}", savedRoom.getId());
 
         return toResponse(savedRoom);
@@ -50,6 +86,7 @@ public class RoomService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional
     public RoomResponse updateRoom(Long id, RoomRequest request) {
         log.info("Updating room with ID: {}", id);
 
@@ -66,14 +103,17 @@ public class RoomService {
         room.setAvailable(request.isAvailable());
 
         Room updatedRoom = roomRepository.save(room);
+        bumpCatalogVersion();
         log.info("Room updated: ID {}", updatedRoom.getId());
 
         return toResponse(updatedRoom);
     }
 
+    @Transactional
     public void deleteRoom(Long id) {
         log.warn("Deleting room with ID: {}", id);
         roomRepository.deleteById(id);
+        bumpCatalogVersion();
         log.info("Room deleted: ID {}", id);
     }
 
@@ -96,6 +136,14 @@ public class RoomService {
                 .collect(Collectors.toList());
     }
 
+    // Only the availability flag of every room, for callers that reconcile the flags and need nothing else
+    public Map<Long, Boolean> getAvailabilityFlags() {
+        log.debug("Fetching availability flags of all rooms");
+        return roomRepository.findAll()
+                .stream()
+                .collect(Collectors.toMap(Room::getId, Room::isAvailable));
+    }
+
     public RoomResponse updateRoomAvailability(Long id, boolean available) {
         log.info("Updating availability for room ID {} to {}", id, available);
 
@@ -112,6 +160,24 @@ public class RoomService {
         return toResponse(updated);
     }
 
+    // Applies several availability changes in one round trip. Unknown rooms are skipped rather than failing
+    // the whole batch, since the caller would otherwise keep retrying updates that can never succeed.
+    public List<RoomResponse> updateRoomAvailability(Map<Long, Boolean> availability) {
+        log.info("Updating availability for {} rooms", availability.size());
+
+        List<Room> rooms = roomRepository.findAllById(availability.keySet());
+        if (rooms.size() < availability.size()) {
+            log.warn("Skipping availability update for {} unknown rooms", availability.size() - rooms.size());
+        }
+        rooms.forEach(room -> room.setAvailable(availability.get(room.getId())));
+
+        List<Room> updated = roomRepository.saveAll(rooms);
+
+        return updated.stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
     private RoomResponse toResponse(Room room) {
         return new RoomResponse(
                 room.getId(),
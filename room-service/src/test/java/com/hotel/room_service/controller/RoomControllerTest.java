@@ -12,6 +12,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
@@ -100,6 +101,16 @@ class RoomControllerTest {
                 .andExpect(jsonPath("$.roomNumber").value("105"));
     }
 
+    @Test
+    void shouldGetAvailabilityFlags() throws Exception {
+        when(roomService.getAvailabilityFlags()).thenReturn(Map.of(5L, true, 6L, false));
+
+        mockMvc.perform(get("/api/rooms/availability-flags"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.5").value(true))
+                .andExpect(jsonPath("$.6").value(false));
+    }
+
     @Test
     void shouldUpdateRoomAvailability() throws Exception {
         RoomResponse response = new RoomResponse(10L, "106", "Studio", 1, 900.0, false);
@@ -2,6 +2,8 @@ package com.hotel.room_service.service;
 import com.hotel.room_service.dto.RoomRequest;
 import com.hotel.room_service.dto.RoomResponse;
 import com.hotel.room_service.entity.Room;
+import com.hotel.room_service.entity.CatalogVersion;
+import com.hotel.room_service.repository.CatalogVersionRepository;
 import com.hotel.room_service.repository.RoomRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,7 +13,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,6 +26,9 @@ class RoomServiceTest {
     @Mock
     private RoomRepository roomRepository;
 
+    @Mock
+    private CatalogVersionRepository catalogVersionRepository;
+
     @InjectMocks
     private RoomService roomService;
 
@@ -111,6 +118,33 @@ class RoomServiceTest {
         verify(roomRepository).deleteById(4L);
     }
 
+    @Test
+    void shouldBumpCatalogVersionOnWrite() {
+        when(catalogVersionRepository.increment()).thenReturn(1);
+
+        roomService.deleteRoom(4L);
+
+        verify(catalogVersionRepository).increment();
+    }
+
+    @Test
+    void shouldReadCatalogVersionFromDatabase() {
+        when(catalogVersionRepository.findById(CatalogVersion.ID)).thenReturn(Optional.of(new CatalogVersion(CatalogVersion.ID, 42)));
+
+        assertEquals(42, roomService.getCatalogVersion());
+    }
+
+    @Test
+    void shouldNotBumpCatalogVersionOnAvailabilityChange() {
+        Room room = Room.builder().id(7L).roomNumber("A106").isAvailable(true).build();
+        when(roomRepository.findAllById(Set.of(7L))).thenReturn(List.of(room));
+        when(roomRepository.saveAll(List.of(room))).thenReturn(List.of(room));
+
+        roomService.updateRoomAvailability(Map.of(7L, false));
+
+        verifyNoInteractions(catalogVersionRepository);
+    }
+
     @Test
     void shouldGetRoomById() {
         Room room = Room.builder()
@@ -149,6 +183,16 @@ class RoomServiceTest {
         assertEquals("Premium", allRooms.get(0).getRoomType());
     }
 
+    @Test
+    void shouldGetAvailabilityFlagsOfAllRooms() {
+        Room first = Room.builder().id(8L).roomNumber("A107").isAvailable(true).build();
+        Room second = Room.builder().id(9L).roomNumber("A108").isAvailable(false).build();
+
+        when(roomRepository.findAll()).thenReturn(List.of(first, second));
+
+        assertEquals(Map.of(8L, true, 9L, false), roomService.getAvailabilityFlags());
+    }
+
     @Test
     void shouldUpdateAvailabilityStatus() {
         Room room = Room.builder()
@@ -167,4 +211,19 @@ class RoomServiceTest {
 
         assertFalse(response.isAvailable());
     }
+
+    @Test
+    void shouldUpdateAvailabilityInBatch() {
+        Room first = Room.builder().id(8L).roomNumber("A107").isAvailable(true).build();
+        Room second = Room.builder().id(9L).roomNumber("A108").isAvailable(false).build();
+
+        when(roomRepository.findAllById(Set.of(8L, 9L, 99L))).thenReturn(List.of(first, second));
+        when(roomRepository.saveAll(List.of(first, second))).thenReturn(List.of(first, second));
+
+        List<RoomResponse> updated = roomService.updateRoomAvailability(Map.of(8L, false, 9L, true, 99L, true));
+
+        assertEquals(2, updated.size());
+        assertFalse(first.isAvailable());
+        assertTrue(second.isAvailable());
+    }
 }